@@ -1,15 +1,34 @@
 package com.daikit.graphql.spring.jpa;
 
+import java.util.HashSet;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.daikit.graphql.spring.jpa.service.DefaultCountEstimator;
 import com.daikit.graphql.spring.jpa.service.DefaultEntityService;
 import com.daikit.graphql.spring.jpa.service.DefaultPersistenceRegistry;
+import com.daikit.graphql.spring.jpa.service.EntityRequestCacheInstrumentation;
+import com.daikit.graphql.spring.jpa.service.ICountEstimator;
 import com.daikit.graphql.spring.jpa.service.IEntityService;
 import com.daikit.graphql.spring.jpa.service.IPersistenceRegistry;
+import com.daikit.graphql.spring.jpa.usertype.JsonFunctionsContributor;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
 
 /**
  * Spring data GraphQL JPA auto configuration
@@ -49,4 +68,166 @@ public class SpringDataGraphqlJpaAutoconfiguration {
 		return new DefaultEntityService();
 	}
 
+	/**
+	 * Create the Hibernate properties customizer enabling JDBC batching of
+	 * inserts, updates and deletes (properties already set in configuration
+	 * are kept)
+	 *
+	 * @return a {@link HibernatePropertiesCustomizer}
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer createJdbcBatchingHibernatePropertiesCustomizer() {
+		return hibernateProperties -> {
+			if (properties.getJdbcBatchSize() > 0) {
+				hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE,
+						String.valueOf(properties.getJdbcBatchSize()));
+				hibernateProperties.putIfAbsent(AvailableSettings.ORDER_INSERTS, "true");
+				hibernateProperties.putIfAbsent(AvailableSettings.ORDER_UPDATES, "true");
+				hibernateProperties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+			}
+		};
+	}
+
+	/**
+	 * Create the Hibernate properties customizer enabling the padding of IN
+	 * clause parameter lists (a property already set in configuration is
+	 * kept)
+	 *
+	 * @return a {@link HibernatePropertiesCustomizer}
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer createInClauseHibernatePropertiesCustomizer() {
+		return hibernateProperties -> {
+			if (properties.isInClauseParameterPadding()) {
+				hibernateProperties.putIfAbsent(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, "true");
+			}
+		};
+	}
+
+	/**
+	 * Create the Hibernate properties customizer registering the SQL functions
+	 * filtering on JSON user type columns (an already configured metadata
+	 * builder contributor is kept)
+	 *
+	 * @return a {@link HibernatePropertiesCustomizer}
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer createJsonFunctionsHibernatePropertiesCustomizer() {
+		return hibernateProperties -> hibernateProperties.putIfAbsent(
+				EntityManagerFactoryBuilderImpl.METADATA_BUILDER_CONTRIBUTOR, new JsonFunctionsContributor());
+	}
+
+	/**
+	 * Create the Hibernate properties customizer enabling the second level
+	 * cache of {@link SpringDataGraphqlJpaProperties#getCachedEntities()}, and
+	 * the query cache if {@link SpringDataGraphqlJpaProperties#isCacheQueries()}
+	 * (properties already set in configuration are kept)
+	 *
+	 * @return a {@link HibernatePropertiesCustomizer}
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer createSecondLevelCacheHibernatePropertiesCustomizer() {
+		return hibernateProperties -> {
+			if (!properties.getCachedEntities().isEmpty()) {
+				hibernateProperties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+				if (properties.isCacheQueries()) {
+					hibernateProperties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, "true");
+				}
+				for (final String entityClassName : properties.getCachedEntities()) {
+					hibernateProperties.putIfAbsent(AvailableSettings.CLASS_CACHE_PREFIX + "." + entityClassName,
+							properties.getCacheConcurrencyStrategy());
+				}
+			}
+		};
+	}
+
+	/**
+	 * Create the count estimator
+	 *
+	 * @return a {@link DefaultCountEstimator}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public ICountEstimator createCountEstimator() {
+		return new DefaultCountEstimator();
+	}
+
+	/**
+	 * Create the GraphQL instrumentation giving each execution its own entity
+	 * request cache (to be registered in the GraphQL instance)
+	 *
+	 * @return an {@link EntityRequestCacheInstrumentation}
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public EntityRequestCacheInstrumentation createEntityRequestCacheInstrumentation() {
+		return new EntityRequestCacheInstrumentation();
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Configuration of a local Caffeine JCache second level cache for cached
+	 * entities, when Hibernate JCache and Caffeine JCache are available and no
+	 * cache region factory is configured
+	 */
+	@Configuration
+	@ConditionalOnClass(name = {"org.hibernate.cache.jcache.ConfigSettings",
+			"com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"})
+	public static class LocalCacheConfiguration {
+
+		@Autowired
+		private SpringDataGraphqlJpaProperties properties;
+
+		/**
+		 * Create the Hibernate properties customizer configuring the JCache
+		 * region factory with a Caffeine cache manager (properties already
+		 * set in configuration are kept)
+		 *
+		 * @return a {@link HibernatePropertiesCustomizer}
+		 */
+		@Bean
+		public HibernatePropertiesCustomizer createLocalCacheHibernatePropertiesCustomizer() {
+			return hibernateProperties -> {
+				if (!properties.getCachedEntities().isEmpty()
+						&& !hibernateProperties.containsKey(AvailableSettings.CACHE_REGION_FACTORY)) {
+					hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+					hibernateProperties.putIfAbsent(ConfigSettings.CACHE_MANAGER, createCacheManager());
+					// Other regions (like update timestamps) are created
+					// without expiry nor size limit
+					hibernateProperties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+				}
+			};
+		}
+
+		/**
+		 * Create the cache manager with the regions of cached entities and
+		 * queries, bounded by {@link SpringDataGraphqlJpaProperties#getCacheTtl()}
+		 * and {@link SpringDataGraphqlJpaProperties#getCacheMaxSize()}. Cache
+		 * entries are stored by reference, Hibernate caching immutable
+		 * disassembled states.
+		 */
+		private CacheManager createCacheManager() {
+			final CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+					.getCacheManager();
+			final Set<String> regionNames = new HashSet<>(properties.getCachedEntities());
+			if (properties.isCacheQueries()) {
+				regionNames.add(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+			}
+			for (final String regionName : regionNames) {
+				if (cacheManager.getCache(regionName) == null) {
+					final CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+					configuration.setStoreByValue(false);
+					configuration.setMaximumSize(OptionalLong.of(properties.getCacheMaxSize()));
+					configuration.setExpireAfterWrite(OptionalLong.of(properties.getCacheTtl().toNanos()));
+					cacheManager.createCache(regionName, configuration);
+				}
+			}
+			return cacheManager;
+		}
+
+	}
+
 }
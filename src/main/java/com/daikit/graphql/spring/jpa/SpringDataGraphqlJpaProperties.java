@@ -1,5 +1,9 @@
 package com.daikit.graphql.spring.jpa;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -11,6 +15,23 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class SpringDataGraphqlJpaProperties {
 
 	private String querydslParentPackages;
+	private Duration countCacheTtl = Duration.ofMinutes(1);
+	private int countCacheMaxSize = 1000;
+	private int queryPlanCacheMaxSize = 500;
+	private int inClauseChunkSize = 1000;
+	private boolean inClauseParameterPadding = true;
+	private int jdbcBatchSize = 50;
+	private int fetchMaxDepth = 3;
+	private int streamFetchSize = 500;
+	private int streamClearInterval = 500;
+	private boolean readOnlyQueries = true;
+	private Set<String> writableQueryEntities = new HashSet<>();
+	private int dynamicAttributeMaxRows = 10000;
+	private Set<String> cachedEntities = new HashSet<>();
+	private String cacheConcurrencyStrategy = "read-write";
+	private boolean cacheQueries = true;
+	private Duration cacheTtl = Duration.ofMinutes(10);
+	private long cacheMaxSize = 10000;
 
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 	// GETTERS / SETTERS
@@ -31,4 +52,276 @@ public class SpringDataGraphqlJpaProperties {
 		this.querydslParentPackages = querydslParentPackages;
 	}
 
+	/**
+	 * @return the time to live of counts cached with the CACHED count policy
+	 */
+	public Duration getCountCacheTtl() {
+		return countCacheTtl;
+	}
+
+	/**
+	 * @param countCacheTtl
+	 *            the countCacheTtl to set
+	 */
+	public void setCountCacheTtl(final Duration countCacheTtl) {
+		this.countCacheTtl = countCacheTtl;
+	}
+
+	/**
+	 * @return the maximum number of counts cached with the CACHED count policy
+	 */
+	public int getCountCacheMaxSize() {
+		return countCacheMaxSize;
+	}
+
+	/**
+	 * @param countCacheMaxSize
+	 *            the countCacheMaxSize to set
+	 */
+	public void setCountCacheMaxSize(final int countCacheMaxSize) {
+		this.countCacheMaxSize = countCacheMaxSize;
+	}
+
+	/**
+	 * @return the maximum number of cached list load query plans
+	 */
+	public int getQueryPlanCacheMaxSize() {
+		return queryPlanCacheMaxSize;
+	}
+
+	/**
+	 * @param queryPlanCacheMaxSize
+	 *            the queryPlanCacheMaxSize to set
+	 */
+	public void setQueryPlanCacheMaxSize(final int queryPlanCacheMaxSize) {
+		this.queryPlanCacheMaxSize = queryPlanCacheMaxSize;
+	}
+
+	/**
+	 * @return the maximum number of parameters of an IN clause, longer value
+	 *         lists being split into several queries
+	 */
+	public int getInClauseChunkSize() {
+		return inClauseChunkSize;
+	}
+
+	/**
+	 * @param inClauseChunkSize
+	 *            the inClauseChunkSize to set
+	 */
+	public void setInClauseChunkSize(final int inClauseChunkSize) {
+		this.inClauseChunkSize = inClauseChunkSize;
+	}
+
+	/**
+	 * @return whether Hibernate pads IN clause parameter lists to the next
+	 *         power of two size, so that lists of different sizes share
+	 *         statements
+	 */
+	public boolean isInClauseParameterPadding() {
+		return inClauseParameterPadding;
+	}
+
+	/**
+	 * @param inClauseParameterPadding
+	 *            the inClauseParameterPadding to set
+	 */
+	public void setInClauseParameterPadding(final boolean inClauseParameterPadding) {
+		this.inClauseParameterPadding = inClauseParameterPadding;
+	}
+
+	/**
+	 * @return the JDBC batch size configured in Hibernate (0 for not
+	 *         configuring JDBC batching)
+	 */
+	public int getJdbcBatchSize() {
+		return jdbcBatchSize;
+	}
+
+	/**
+	 * @param jdbcBatchSize
+	 *            the jdbcBatchSize to set
+	 */
+	public void setJdbcBatchSize(final int jdbcBatchSize) {
+		this.jdbcBatchSize = jdbcBatchSize;
+	}
+
+	/**
+	 * @return the maximum depth of selected associations fetched with loaded
+	 *         entities
+	 */
+	public int getFetchMaxDepth() {
+		return fetchMaxDepth;
+	}
+
+	/**
+	 * @param fetchMaxDepth
+	 *            the fetchMaxDepth to set
+	 */
+	public void setFetchMaxDepth(final int fetchMaxDepth) {
+		this.fetchMaxDepth = fetchMaxDepth;
+	}
+
+	/**
+	 * @return the JDBC fetch size of streamed queries
+	 */
+	public int getStreamFetchSize() {
+		return streamFetchSize;
+	}
+
+	/**
+	 * @param streamFetchSize
+	 *            the streamFetchSize to set
+	 */
+	public void setStreamFetchSize(final int streamFetchSize) {
+		this.streamFetchSize = streamFetchSize;
+	}
+
+	/**
+	 * @return the number of streamed rows after which the session of
+	 *         streamed entities is cleared
+	 */
+	public int getStreamClearInterval() {
+		return streamClearInterval;
+	}
+
+	/**
+	 * @param streamClearInterval
+	 *            the streamClearInterval to set
+	 */
+	public void setStreamClearInterval(final int streamClearInterval) {
+		this.streamClearInterval = streamClearInterval;
+	}
+
+	/**
+	 * @return whether entities loaded by query methods of the entity service
+	 *         in read only transactions are read only (no loaded state
+	 *         snapshot nor dirty checking). Query methods joining a writable
+	 *         transaction load writable entities.
+	 */
+	public boolean isReadOnlyQueries() {
+		return readOnlyQueries;
+	}
+
+	/**
+	 * @param readOnlyQueries
+	 *            the readOnlyQueries to set
+	 */
+	public void setReadOnlyQueries(final boolean readOnlyQueries) {
+		this.readOnlyQueries = readOnlyQueries;
+	}
+
+	/**
+	 * @return the class names of entities loaded writable by query methods
+	 *         even if read only queries are enabled
+	 */
+	public Set<String> getWritableQueryEntities() {
+		return writableQueryEntities;
+	}
+
+	/**
+	 * @param writableQueryEntities
+	 *            the writableQueryEntities to set
+	 */
+	public void setWritableQueryEntities(final Set<String> writableQueryEntities) {
+		this.writableQueryEntities = writableQueryEntities;
+	}
+
+	/**
+	 * @return the maximum number of rows loaded for filtering or ordering by
+	 *         dynamic attributes in memory, when they provide no query
+	 *         expression
+	 */
+	public int getDynamicAttributeMaxRows() {
+		return dynamicAttributeMaxRows;
+	}
+
+	/**
+	 * @param dynamicAttributeMaxRows
+	 *            the dynamicAttributeMaxRows to set
+	 */
+	public void setDynamicAttributeMaxRows(final int dynamicAttributeMaxRows) {
+		this.dynamicAttributeMaxRows = dynamicAttributeMaxRows;
+	}
+
+	/**
+	 * @return the class names of entities cached in the second level cache
+	 *         (root classes of entity hierarchies)
+	 */
+	public Set<String> getCachedEntities() {
+		return cachedEntities;
+	}
+
+	/**
+	 * @param cachedEntities
+	 *            the cachedEntities to set
+	 */
+	public void setCachedEntities(final Set<String> cachedEntities) {
+		this.cachedEntities = cachedEntities;
+	}
+
+	/**
+	 * @return the Hibernate cache concurrency strategy of cached entities
+	 *         (read-only, nonstrict-read-write, read-write or transactional)
+	 */
+	public String getCacheConcurrencyStrategy() {
+		return cacheConcurrencyStrategy;
+	}
+
+	/**
+	 * @param cacheConcurrencyStrategy
+	 *            the cacheConcurrencyStrategy to set
+	 */
+	public void setCacheConcurrencyStrategy(final String cacheConcurrencyStrategy) {
+		this.cacheConcurrencyStrategy = cacheConcurrencyStrategy;
+	}
+
+	/**
+	 * @return whether results of list load queries of cached entities are
+	 *         cached in the query cache
+	 */
+	public boolean isCacheQueries() {
+		return cacheQueries;
+	}
+
+	/**
+	 * @param cacheQueries
+	 *            the cacheQueries to set
+	 */
+	public void setCacheQueries(final boolean cacheQueries) {
+		this.cacheQueries = cacheQueries;
+	}
+
+	/**
+	 * @return the time to live of entries of the local cache regions of cached
+	 *         entities and queries
+	 */
+	public Duration getCacheTtl() {
+		return cacheTtl;
+	}
+
+	/**
+	 * @param cacheTtl
+	 *            the cacheTtl to set
+	 */
+	public void setCacheTtl(final Duration cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+
+	/**
+	 * @return the maximum number of entries of each local cache region of
+	 *         cached entities and queries
+	 */
+	public long getCacheMaxSize() {
+		return cacheMaxSize;
+	}
+
+	/**
+	 * @param cacheMaxSize
+	 *            the cacheMaxSize to set
+	 */
+	public void setCacheMaxSize(final long cacheMaxSize) {
+		this.cacheMaxSize = cacheMaxSize;
+	}
+
 }
@@ -0,0 +1,35 @@
+package com.daikit.graphql.spring.jpa.data;
+
+/**
+ * Policy for computing the total number of rows of a paged list load
+ *
+ * @author Thibaut Caselli
+ */
+public enum CountPolicyEnum {
+
+	/**
+	 * Run an exact <code>SELECT COUNT(*)</code> query (skipped when the page
+	 * is the last one as the total is then known)
+	 */
+	EXACT,
+	/**
+	 * Do not count : fetch one more row than the limit to know whether there
+	 * is a next page. The total is then a lower bound : offset + number of
+	 * rows returned + 1 if there is a next page, flagged by
+	 * {@link ListLoadResult#isTotalLowerBound()} (unless the page is the last
+	 * one of offset paging).
+	 */
+	SKIP,
+	/**
+	 * Use the estimate given by the
+	 * <code>com.daikit.graphql.spring.jpa.service.ICountEstimator</code>,
+	 * falling back to {@link #EXACT} when no estimate is available
+	 */
+	ESTIMATED,
+	/**
+	 * Reuse the exact count computed for the same entity and filter while it
+	 * is not older than the configured time to live
+	 */
+	CACHED
+
+}
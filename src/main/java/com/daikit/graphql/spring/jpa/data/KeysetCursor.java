@@ -0,0 +1,127 @@
+package com.daikit.graphql.spring.jpa.data;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Keyset (seek) paging cursor holding the order by values and the ID of the
+ * last row of a page. Its string representation is opaque for clients (URL
+ * safe base 64 encoded JSON array). Dates are encoded as ISO-8601 instants
+ * with nanoseconds, so that rows with timestamps in the same millisecond are
+ * not skipped.
+ *
+ * @author Thibaut Caselli
+ */
+public class KeysetCursor {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	private final List<Object> values;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor.
+	 *
+	 * @param values
+	 *            the order by values of the row, in order by order, the last
+	 *            one being the row ID
+	 */
+	public KeysetCursor(final List<Object> values) {
+		this.values = values;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PUBLIC METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Decode a cursor from its opaque string representation
+	 *
+	 * @param cursor
+	 *            the cursor string, as returned by {@link #encode()}
+	 * @return the decoded {@link KeysetCursor}
+	 */
+	@SuppressWarnings("unchecked")
+	public static KeysetCursor decode(final String cursor) {
+		try {
+			final byte[] json = Base64.getUrlDecoder().decode(cursor);
+			return new KeysetCursor(MAPPER.readValue(json, ArrayList.class));
+		} catch (final IllegalArgumentException | IOException e) {
+			throw new IllegalArgumentException("Invalid keyset cursor : " + cursor, e);
+		}
+	}
+
+	/**
+	 * Encode this cursor in its opaque string representation
+	 *
+	 * @return the cursor string
+	 */
+	public String encode() {
+		try {
+			final List<Object> encodedValues = values.stream()
+					.map(value -> value instanceof Date ? toInstant((Date) value).toString() : value)
+					.collect(Collectors.toList());
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(encodedValues));
+		} catch (final IOException e) {
+			throw new IllegalArgumentException("Unable to encode keyset cursor : " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Get the value at given index converted to given type
+	 *
+	 * @param index
+	 *            the value index
+	 * @param type
+	 *            the expected type
+	 * @param <T>
+	 *            the expected type
+	 * @return the converted value
+	 */
+	public <T> T getValue(final int index, final Class<T> type) {
+		final Object value = values.get(index);
+		try {
+			if (value instanceof String && Date.class.isAssignableFrom(type)) {
+				final Instant instant = Instant.parse((String) value);
+				return type.isAssignableFrom(Timestamp.class)
+						? type.cast(Timestamp.from(instant))
+						: MAPPER.convertValue(Long.valueOf(instant.toEpochMilli()), type);
+			}
+			return value == null ? null : MAPPER.convertValue(value, type);
+		} catch (final IllegalArgumentException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid keyset cursor value : " + value, e);
+		}
+	}
+
+	/**
+	 * @return the number of values in this cursor
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private static Instant toInstant(final Date date) {
+		// Timestamps keep their nanoseconds, java.sql.Date and Time do not
+		// support toInstant()
+		return date instanceof Timestamp ? ((Timestamp) date).toInstant() : Instant.ofEpochMilli(date.getTime());
+	}
+
+}
@@ -0,0 +1,156 @@
+package com.daikit.graphql.spring.jpa.data;
+
+import java.util.Collection;
+
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.datafetcher.GQLDynamicAttributeRegistry;
+
+/**
+ * Additional options for loading entity lists, completing the
+ * {@link GQLListLoadConfig}
+ *
+ * @author Thibaut Caselli
+ */
+public class ListLoadOptions {
+
+	private boolean keyset;
+	private String cursor;
+	private CountPolicyEnum countPolicy = CountPolicyEnum.EXACT;
+	private boolean totalSelected = true;
+	private Collection<String> selectedFields;
+	private GQLDynamicAttributeRegistry dynamicAttributeRegistry;
+	private boolean ignoreCase;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return whether paging must be done with a keyset (seek) cursor instead
+	 *         of an offset. In this mode the offset of the
+	 *         {@link GQLListLoadConfig} is ignored and the next page is
+	 *         requested with the cursor returned in
+	 *         {@link ListLoadResult#getNextCursor()}.
+	 */
+	public boolean isKeyset() {
+		return keyset;
+	}
+
+	/**
+	 * @param keyset
+	 *            the keyset to set
+	 */
+	public void setKeyset(final boolean keyset) {
+		this.keyset = keyset;
+	}
+
+	/**
+	 * @return the opaque keyset cursor of the last row of the previous page
+	 *         (null for the first page). Setting a cursor enables keyset
+	 *         paging.
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * @param cursor
+	 *            the cursor to set
+	 */
+	public void setCursor(final String cursor) {
+		this.cursor = cursor;
+		if (cursor != null) {
+			keyset = true;
+		}
+	}
+
+	/**
+	 * @return the {@link CountPolicyEnum} for computing the total of paged
+	 *         loads (default is {@link CountPolicyEnum#EXACT})
+	 */
+	public CountPolicyEnum getCountPolicy() {
+		return countPolicy;
+	}
+
+	/**
+	 * @param countPolicy
+	 *            the countPolicy to set
+	 */
+	public void setCountPolicy(final CountPolicyEnum countPolicy) {
+		this.countPolicy = countPolicy;
+	}
+
+	/**
+	 * @return whether the total field is selected by the client. If not, no
+	 *         count is done whatever the count policy and the total is a lower
+	 *         bound like with {@link CountPolicyEnum#SKIP} (see
+	 *         {@link ListLoadResult#isTotalLowerBound()}).
+	 */
+	public boolean isTotalSelected() {
+		return totalSelected;
+	}
+
+	/**
+	 * @param totalSelected
+	 *            the totalSelected to set
+	 */
+	public void setTotalSelected(final boolean totalSelected) {
+		this.totalSelected = totalSelected;
+	}
+
+	/**
+	 * @return the paths of the entity fields selected by the client, nested
+	 *         fields being dotted (null if unknown). When all selected fields
+	 *         are scalar fields, only their columns are loaded into new
+	 *         untracked entity instances, other fields being left null.
+	 *         Otherwise selected associations are fetched with the entities.
+	 */
+	public Collection<String> getSelectedFields() {
+		return selectedFields;
+	}
+
+	/**
+	 * @param selectedFields
+	 *            the selectedFields to set
+	 */
+	public void setSelectedFields(final Collection<String> selectedFields) {
+		this.selectedFields = selectedFields;
+	}
+
+	/**
+	 * @return the {@link GQLDynamicAttributeRegistry} of the dynamic
+	 *         attributes filtered or ordered by (may be null if there are
+	 *         none). Getters implementing
+	 *         <code>com.daikit.graphql.spring.jpa.service.IDynamicAttributeQueryFactory</code>
+	 *         are filtered and ordered by in database, other ones in memory.
+	 */
+	public GQLDynamicAttributeRegistry getDynamicAttributeRegistry() {
+		return dynamicAttributeRegistry;
+	}
+
+	/**
+	 * @param dynamicAttributeRegistry
+	 *            the dynamicAttributeRegistry to set
+	 */
+	public void setDynamicAttributeRegistry(final GQLDynamicAttributeRegistry dynamicAttributeRegistry) {
+		this.dynamicAttributeRegistry = dynamicAttributeRegistry;
+	}
+
+	/**
+	 * @return whether filters on String fields ignore case. Equality and like
+	 *         filters then compare lower cased columns, which can use
+	 *         <code>lower(column)</code> function based indexes.
+	 */
+	public boolean isIgnoreCase() {
+		return ignoreCase;
+	}
+
+	/**
+	 * @param ignoreCase
+	 *            the ignoreCase to set
+	 */
+	public void setIgnoreCase(final boolean ignoreCase) {
+		this.ignoreCase = ignoreCase;
+	}
+
+}
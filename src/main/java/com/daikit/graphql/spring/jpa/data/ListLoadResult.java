@@ -0,0 +1,71 @@
+package com.daikit.graphql.spring.jpa.data;
+
+import com.daikit.graphql.data.output.GQLListLoadResult;
+
+/**
+ * {@link GQLListLoadResult} completed with keyset paging and total information
+ *
+ * @author Thibaut Caselli
+ */
+public class ListLoadResult extends GQLListLoadResult {
+
+	private boolean hasNext;
+	private String nextCursor;
+	private boolean totalLowerBound;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return whether there are more rows after this page
+	 */
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	/**
+	 * @param hasNext
+	 *            the hasNext to set
+	 */
+	public void setHasNext(final boolean hasNext) {
+		this.hasNext = hasNext;
+	}
+
+	/**
+	 * @return the opaque cursor to be given in
+	 *         {@link ListLoadOptions#setCursor(String)} for loading the next
+	 *         page in keyset mode (null if there is no next page)
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * @param nextCursor
+	 *            the nextCursor to set
+	 */
+	public void setNextCursor(final String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * @return whether the paging total is only a lower bound because rows were
+	 *         not counted ({@link CountPolicyEnum#SKIP} policy or total not
+	 *         selected) : offset + number of rows returned + 1 if there is a
+	 *         next page. The total of the last page of offset paging is exact
+	 *         though.
+	 */
+	public boolean isTotalLowerBound() {
+		return totalLowerBound;
+	}
+
+	/**
+	 * @param totalLowerBound
+	 *            the totalLowerBound to set
+	 */
+	public void setTotalLowerBound(final boolean totalLowerBound) {
+		this.totalLowerBound = totalLowerBound;
+	}
+
+}
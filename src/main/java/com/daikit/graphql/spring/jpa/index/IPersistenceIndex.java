@@ -0,0 +1,22 @@
+package com.daikit.graphql.spring.jpa.index;
+
+import java.util.List;
+
+import com.daikit.graphql.spring.jpa.service.DefaultPersistenceRegistry;
+
+/**
+ * Static index of query DSL entity paths, generated at build time by the
+ * {@link PersistenceIndexProcessor} and loaded with
+ * {@link java.util.ServiceLoader} by the {@link DefaultPersistenceRegistry} so
+ * that entity paths are registered without any reflection.
+ *
+ * @author Thibaut Caselli
+ */
+public interface IPersistenceIndex {
+
+	/**
+	 * @return the {@link PersistenceIndexEntry} of each indexed entity
+	 */
+	List<PersistenceIndexEntry> getEntries();
+
+}
@@ -0,0 +1,68 @@
+package com.daikit.graphql.spring.jpa.index;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.EntityPathBase;
+
+/**
+ * Entry of an {@link IPersistenceIndex} : the query DSL entity path of an
+ * entity and the paths of its fields
+ *
+ * @author Thibaut Caselli
+ */
+public final class PersistenceIndexEntry {
+
+	private final Class<?> entityClass;
+	private final EntityPathBase<?> entityPath;
+	private final Map<String, Path<?>> fieldPaths;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param entityPath
+	 *            the query DSL entity path instance
+	 * @param fieldPaths
+	 *            the query DSL paths of entity fields by field name
+	 */
+	public PersistenceIndexEntry(final Class<?> entityClass, final EntityPathBase<?> entityPath,
+			final Map<String, Path<?>> fieldPaths) {
+		this.entityClass = entityClass;
+		this.entityPath = entityPath;
+		this.fieldPaths = Collections.unmodifiableMap(fieldPaths);
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the entity class
+	 */
+	public Class<?> getEntityClass() {
+		return entityClass;
+	}
+
+	/**
+	 * @return the query DSL entity path instance
+	 */
+	public EntityPathBase<?> getEntityPath() {
+		return entityPath;
+	}
+
+	/**
+	 * @return the unmodifiable map of query DSL paths of entity fields by
+	 *         field name
+	 */
+	public Map<String, Path<?>> getFieldPaths() {
+		return fieldPaths;
+	}
+
+}
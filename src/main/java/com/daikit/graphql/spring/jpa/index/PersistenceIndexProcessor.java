@@ -0,0 +1,249 @@
+package com.daikit.graphql.spring.jpa.index;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor generating the {@link IPersistenceIndex} of the
+ * compiled entities, to be run alongside the query DSL <code>apt</code>
+ * processor. The generated class references query DSL entity paths and field
+ * paths directly, and is registered in
+ * <code>META-INF/services</code>.<br>
+ * The generated class name is given by the {@value #OPTION_CLASS_NAME}
+ * processor option and defaults to {@value #DEFAULT_SIMPLE_CLASS_NAME} in the
+ * common package of entities.<br>
+ * This processor is not registered as a service : it must be declared in the
+ * compiler annotation processors.
+ *
+ * @author Thibaut Caselli
+ */
+@SupportedAnnotationTypes(PersistenceIndexProcessor.ENTITY_ANNOTATION)
+public class PersistenceIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * Name of the processor option giving the fully qualified name of the
+	 * generated class
+	 */
+	public static final String OPTION_CLASS_NAME = "gql.persistenceIndexClassName";
+	/**
+	 * Default simple name of the generated class
+	 */
+	public static final String DEFAULT_SIMPLE_CLASS_NAME = "GQLPersistenceIndex";
+
+	static final String ENTITY_ANNOTATION = "javax.persistence.Entity";
+	private static final String PATH_CLASS_NAME = "com.querydsl.core.types.Path";
+
+	private final Set<String> entityClassNames = new TreeSet<>();
+	private boolean generated;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return Collections.singleton(OPTION_CLASS_NAME);
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+		if (generated) {
+			return false;
+		}
+		final TypeElement entityAnnotation = processingEnv.getElementUtils().getTypeElement(ENTITY_ANNOTATION);
+		if (entityAnnotation != null) {
+			for (final Element element : roundEnv.getElementsAnnotatedWith(entityAnnotation)) {
+				if (element.getKind() == ElementKind.CLASS) {
+					entityClassNames.add(((TypeElement) element).getQualifiedName().toString());
+				}
+			}
+		}
+		if (entityClassNames.isEmpty()) {
+			return false;
+		}
+		// Entity paths are generated by the query DSL processor in the round
+		// entities are found : the index is generated in a following round,
+		// once all entity paths can be resolved
+		final Map<TypeElement, TypeElement> entityPathElements = new LinkedHashMap<>();
+		for (final String entityClassName : entityClassNames) {
+			final TypeElement entityElement = processingEnv.getElementUtils().getTypeElement(entityClassName);
+			final TypeElement entityPathElement = processingEnv.getElementUtils()
+					.getTypeElement(getEntityPathClassName(entityElement));
+			if (entityPathElement == null) {
+				if (roundEnv.processingOver()) {
+					processingEnv.getMessager().printMessage(Kind.WARNING,
+							"Persistence index not generated : no query DSL entity path found for entity "
+									+ entityClassName);
+				}
+				return false;
+			}
+			if (getInstanceName(entityPathElement) == null) {
+				// Left to the persistence registry fallback
+				processingEnv.getMessager().printMessage(Kind.WARNING,
+						"Entity not indexed : no static instance found in query DSL entity path "
+								+ entityPathElement.getQualifiedName());
+			} else {
+				entityPathElements.put(entityElement, entityPathElement);
+			}
+		}
+		if (!entityPathElements.isEmpty()) {
+			generate(entityPathElements);
+		}
+		generated = true;
+		return false;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private void generate(final Map<TypeElement, TypeElement> entityPathElements) {
+		final String className = getClassName(entityPathElements.keySet());
+		final int lastDot = className.lastIndexOf('.');
+		final StringBuilder source = new StringBuilder();
+		if (lastDot > 0) {
+			source.append("package ").append(className, 0, lastDot).append(";\n\n");
+		}
+		source.append("import java.util.Arrays;\nimport java.util.HashMap;\nimport java.util.List;\n")
+				.append("import java.util.Map;\n\n").append("import ").append(IPersistenceIndex.class.getName())
+				.append(";\nimport ").append(PersistenceIndexEntry.class.getName()).append(";\nimport ")
+				.append(PATH_CLASS_NAME).append(";\n\n");
+		source.append("/**\n * Persistence index generated by ").append(getClass().getName()).append("\n */\n");
+		source.append("public final class ").append(className.substring(lastDot + 1))
+				.append(" implements IPersistenceIndex {\n\n");
+		source.append("\t@Override\n\tpublic List<PersistenceIndexEntry> getEntries() {\n")
+				.append("\t\treturn Arrays.asList(");
+		for (int i = 0; i < entityPathElements.size(); i++) {
+			source.append(i == 0 ? "" : ", ").append("entry").append(i).append("()");
+		}
+		source.append(");\n\t}\n");
+		// One method by entity to stay far below the method size limit
+		int i = 0;
+		for (final Map.Entry<TypeElement, TypeElement> entry : entityPathElements.entrySet()) {
+			final String entityPath = entry.getValue().getQualifiedName() + "." + getInstanceName(entry.getValue());
+			source.append("\n\tprivate static PersistenceIndexEntry entry").append(i++).append("() {\n")
+					.append("\t\tfinal Map<String, Path<?>> fieldPaths = new HashMap<>();\n");
+			for (final String fieldName : getFieldNames(entry.getValue())) {
+				source.append("\t\tfieldPaths.put(\"").append(fieldName).append("\", ").append(entityPath).append('.')
+						.append(fieldName).append(");\n");
+			}
+			source.append("\t\treturn new PersistenceIndexEntry(").append(entry.getKey().getQualifiedName())
+					.append(".class, ").append(entityPath).append(", fieldPaths);\n\t}\n");
+		}
+		source.append("\n}\n");
+
+		final Element[] originatingElements = entityPathElements.keySet().toArray(new Element[0]);
+		try {
+			try (Writer writer = processingEnv.getFiler().createSourceFile(className, originatingElements)
+					.openWriter()) {
+				writer.write(source.toString());
+			}
+			try (Writer writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					"META-INF/services/" + IPersistenceIndex.class.getName(), originatingElements).openWriter()) {
+				writer.write(className + "\n");
+			}
+		} catch (final IOException e) {
+			processingEnv.getMessager().printMessage(Kind.ERROR,
+					"Unable to generate persistence index " + className + " : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Get the generated class name : the processor option or the default
+	 * class name in the common package of entities
+	 */
+	private String getClassName(final Set<TypeElement> entityElements) {
+		final String option = processingEnv.getOptions().get(OPTION_CLASS_NAME);
+		if (option != null && !option.trim().isEmpty()) {
+			return option.trim();
+		}
+		String commonPackage = null;
+		for (final TypeElement entityElement : entityElements) {
+			final String packageName = processingEnv.getElementUtils().getPackageOf(entityElement).getQualifiedName()
+					.toString();
+			if (commonPackage == null) {
+				commonPackage = packageName;
+			}
+			while (!commonPackage.isEmpty() && !(packageName.equals(commonPackage)
+					|| packageName.startsWith(commonPackage + "."))) {
+				commonPackage = commonPackage.contains(".")
+						? commonPackage.substring(0, commonPackage.lastIndexOf('.'))
+						: "";
+			}
+		}
+		return commonPackage == null || commonPackage.isEmpty()
+				? DEFAULT_SIMPLE_CLASS_NAME
+				: commonPackage + "." + DEFAULT_SIMPLE_CLASS_NAME;
+	}
+
+	/**
+	 * Get the entity path class name following the query DSL naming :
+	 * <code>QFoo</code> in the package of <code>Foo</code>
+	 * (<code>QOuter_Foo</code> for nested classes)
+	 */
+	private String getEntityPathClassName(final TypeElement entityElement) {
+		final String packageName = processingEnv.getElementUtils().getPackageOf(entityElement).getQualifiedName()
+				.toString();
+		final String packagePrefix = packageName.isEmpty() ? "" : packageName + ".";
+		return packagePrefix + "Q"
+				+ entityElement.getQualifiedName().toString().substring(packagePrefix.length()).replace('.', '_');
+	}
+
+	/**
+	 * Get the name of the static entity path instance of given entity path
+	 * class (null if not found)
+	 */
+	private String getInstanceName(final TypeElement entityPathElement) {
+		for (final VariableElement field : ElementFilter.fieldsIn(entityPathElement.getEnclosedElements())) {
+			if (field.getModifiers().contains(Modifier.STATIC) && field.getModifiers().contains(Modifier.PUBLIC)
+					&& processingEnv.getTypeUtils().isSameType(field.asType(), entityPathElement.asType())) {
+				return field.getSimpleName().toString();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the names of the public path fields of given entity path class
+	 */
+	private List<String> getFieldNames(final TypeElement entityPathElement) {
+		final TypeMirror pathType = processingEnv.getTypeUtils()
+				.erasure(processingEnv.getElementUtils().getTypeElement(PATH_CLASS_NAME).asType());
+		final List<String> fieldNames = new ArrayList<>();
+		for (final VariableElement field : ElementFilter.fieldsIn(entityPathElement.getEnclosedElements())) {
+			if (!field.getModifiers().contains(Modifier.STATIC) && field.getModifiers().contains(Modifier.PUBLIC)
+					&& !field.getSimpleName().toString().startsWith("_") && processingEnv.getTypeUtils()
+							.isAssignable(processingEnv.getTypeUtils().erasure(field.asType()), pathType)) {
+				fieldNames.add(field.getSimpleName().toString());
+			}
+		}
+		return fieldNames;
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import com.daikit.graphql.spring.jpa.utils.LruCache;
+
+/**
+ * Cache of entity counts by entity class and count query, used for the
+ * {@link com.daikit.graphql.spring.jpa.data.CountPolicyEnum#CACHED} count
+ * policy. Counts are not invalidated on writes : they expire after the
+ * configured time to live.
+ *
+ * @author Thibaut Caselli
+ */
+public class CountCache {
+
+	private final LruCache<CountKey, CachedCount> counts;
+	private final long timeToLiveMillis;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxSize
+	 *            the maximum number of cached counts
+	 * @param timeToLive
+	 *            the time to live of a cached count
+	 */
+	public CountCache(final int maxSize, final Duration timeToLive) {
+		counts = new LruCache<>(maxSize);
+		timeToLiveMillis = timeToLive.toMillis();
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PUBLIC METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Get the cached count for given entity class and count query, or compute
+	 * and cache it if missing or expired
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param query
+	 *            the count query identity : its JPQL and bound values
+	 * @param counter
+	 *            the exact count supplier
+	 * @return the count
+	 */
+	public long getCount(final Class<?> entityClass, final List<Object> query, final Supplier<Long> counter) {
+		final CountKey key = new CountKey(entityClass, query);
+		final long now = System.currentTimeMillis();
+		final CachedCount cached = counts.get(key);
+		if (cached != null && cached.expiresAt > now) {
+			return cached.count;
+		}
+		final long count = counter.get().longValue();
+		counts.put(key, new CachedCount(count, now + timeToLiveMillis));
+		return count;
+	}
+
+	/**
+	 * Remove all cached counts
+	 */
+	public void clear() {
+		counts.clear();
+	}
+
+	/**
+	 * @return the underlying {@link LruCache} (for hit/miss statistics)
+	 */
+	public LruCache<?, ?> getCounts() {
+		return counts;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private static class CachedCount {
+
+		private final long count;
+		private final long expiresAt;
+
+		CachedCount(final long count, final long expiresAt) {
+			this.count = count;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private static class CountKey {
+
+		private final Class<?> entityClass;
+		private final List<Object> query;
+
+		CountKey(final Class<?> entityClass, final List<Object> query) {
+			this.entityClass = entityClass;
+			this.query = query;
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CountKey)) {
+				return false;
+			}
+			final CountKey otherKey = (CountKey) other;
+			return entityClass.equals(otherKey.entityClass) && query.equals(otherKey.query);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(entityClass, query);
+		}
+	}
+
+}
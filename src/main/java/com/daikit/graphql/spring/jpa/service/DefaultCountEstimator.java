@@ -0,0 +1,64 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.querydsl.core.types.Predicate;
+
+/**
+ * Default {@link ICountEstimator} reading table row count statistics from
+ * PostgreSQL and MySQL catalogs. Estimates are only given for unfiltered
+ * loads : statistics do not say anything about the selectivity of a filter.
+ *
+ * @author Thibaut Caselli
+ */
+public class DefaultCountEstimator implements ICountEstimator {
+
+	@Autowired
+	private IPersistenceRegistry persistenceRegistry;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PUBLIC METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	@Override
+	public Optional<Long> estimate(final Class<?> entityClass, final Predicate predicate) {
+		if (predicate != null) {
+			return Optional.empty();
+		}
+		final EntityManager entityManager = persistenceRegistry.getEntityManager(entityClass);
+		final SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+				.unwrap(SessionFactoryImplementor.class);
+		final EntityPersister persister = sessionFactory.getMetamodel().entityPersister(entityClass);
+		if (!(persister instanceof AbstractEntityPersister)) {
+			return Optional.empty();
+		}
+		final String tableName = ((AbstractEntityPersister) persister).getTableName();
+		final Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+		String statisticsQuery;
+		if (dialect instanceof PostgreSQL81Dialect) {
+			statisticsQuery = "select reltuples from pg_class where oid = to_regclass(?1)";
+		} else if (dialect instanceof MySQLDialect) {
+			statisticsQuery = "select table_rows from information_schema.tables where table_schema = database() and table_name = ?1";
+		} else {
+			return Optional.empty();
+		}
+		final List<?> rows = entityManager.createNativeQuery(statisticsQuery).setParameter(1, tableName)
+				.getResultList();
+		if (rows.isEmpty() || !(rows.get(0) instanceof Number) || ((Number) rows.get(0)).longValue() < 0) {
+			return Optional.empty();
+		}
+		return Optional.of(((Number) rows.get(0)).longValue());
+	}
+
+}
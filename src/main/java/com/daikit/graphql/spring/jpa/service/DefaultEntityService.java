@@ -1,18 +1,63 @@
 package com.daikit.graphql.spring.jpa.service;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.Query;
+import javax.persistence.Subgraph;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.Attribute.PersistentAttributeType;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.PluralAttribute;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hibernate.FlushMode;
+import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.envers.Audited;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.querydsl.QPageRequest;
+import org.springframework.core.ResolvableType;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.daikit.graphql.config.GQLSchemaConfig;
 import com.daikit.graphql.data.input.GQLFilterEntry;
@@ -20,117 +65,455 @@ import com.daikit.graphql.data.input.GQLListLoadConfig;
 import com.daikit.graphql.data.output.GQLListLoadResult;
 import com.daikit.graphql.data.output.GQLOrderByEntry;
 import com.daikit.graphql.datafetcher.GQLDynamicAttributeRegistry;
+import com.daikit.graphql.dynamicattribute.IGQLDynamicAttributeGetter;
 import com.daikit.graphql.dynamicattribute.IGQLDynamicAttributeSetter;
 import com.daikit.graphql.enums.GQLFilterOperatorEnum;
 import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties;
+import com.daikit.graphql.spring.jpa.data.CountPolicyEnum;
+import com.daikit.graphql.spring.jpa.data.KeysetCursor;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.data.ListLoadResult;
+import com.daikit.graphql.spring.jpa.usertype.JsonFunctionsContributor;
+import com.daikit.graphql.spring.jpa.usertype.LazyJsonValue;
+import com.daikit.graphql.spring.jpa.utils.LruCache;
+import com.daikit.graphql.utils.Assert;
+import com.querydsl.core.types.ConstantImpl;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
 import com.querydsl.core.types.Path;
-import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.PathMetadataFactory;
 import com.querydsl.core.types.dsl.ArrayPath;
+import com.querydsl.core.types.dsl.BeanPath;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.BooleanPath;
 import com.querydsl.core.types.dsl.CollectionPathBase;
 import com.querydsl.core.types.dsl.ComparableExpression;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
 import com.querydsl.core.types.dsl.ComparablePath;
 import com.querydsl.core.types.dsl.DatePath;
 import com.querydsl.core.types.dsl.DateTimePath;
 import com.querydsl.core.types.dsl.DslPath;
 import com.querydsl.core.types.dsl.EntityPathBase;
 import com.querydsl.core.types.dsl.EnumPath;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.MapPath;
 import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.SimpleExpression;
 import com.querydsl.core.types.dsl.SimplePath;
 import com.querydsl.core.types.dsl.StringPath;
 import com.querydsl.core.types.dsl.TimePath;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPADeleteClause;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
 
 /**
  * Implementation of {@link IEntityService}
  *
  * @author Thibaut Caselli
  */
-public class DefaultEntityService implements IEntityService {
+public class DefaultEntityService implements IEntityService, InitializingBean {
+
+	private static Logger logger = LoggerFactory.getLogger(DefaultEntityService.class);
 
 	@Autowired
 	private IPersistenceRegistry persistenceRegistry;
 	@Autowired
 	private GQLSchemaConfig schemaConfig;
+	@Autowired
+	private SpringDataGraphqlJpaProperties properties;
+	@Autowired
+	private ICountEstimator countEstimator;
+
+	private CountCache countCache;
+	private QueryPlanCompiler queryPlanCompiler;
+	private final Map<Class<?>, Boolean> bulkDeletables = new ConcurrentHashMap<>();
+	private final Map<Path<?>, Boolean> jsonColumns = new ConcurrentHashMap<>();
+	private final Map<String, Path<?>> nestedFieldPaths = new ConcurrentHashMap<>();
+	private final Map<Path<?>, IFilterExpressionFactory> filterExpressionFactories = new ConcurrentHashMap<>();
 
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 	// PUBLIC METHODS
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 
+	/**
+	 * Bean initialization method
+	 */
 	@Override
+	public void afterPropertiesSet() {
+		countCache = new CountCache(properties.getCountCacheMaxSize(), properties.getCountCacheTtl());
+		queryPlanCompiler = createQueryPlanCompiler();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public <T> Optional<T> findById(final Class<T> entityClass, final Long id) {
-		return persistenceRegistry.getRepository(entityClass).findById(id);
+		return findById(entityClass, id, null);
 	}
 
 	@Override
-	public GQLListLoadResult findAll(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig) {
-		final GQLListLoadResult result = new GQLListLoadResult();
-		final EntityPathBase<?> basePath = persistenceRegistry.getEntityPath(entityClass);
-
-		// Apply filtering
-		Predicate predicate = null;
-		if (listLoadConfig.isFiltered()) {
-			BooleanExpression expression = null;
-			for (final GQLFilterEntry filter : listLoadConfig.getFilters()) {
-				BooleanExpression current;
-				try {
-					current = applyFilter(basePath, filter);
-				} catch (final IllegalAccessException e) {
-					throw new RuntimeException(e);
-				}
-				expression = expression == null ? current : expression.and(current);
+	@Transactional(readOnly = true)
+	public <T> Optional<T> findById(final Class<T> entityClass, final Long id,
+			final Collection<String> selectedFields) {
+		final EntityManager entityManager = persistenceRegistry.getEntityManager(entityClass);
+		final SortedSet<String> fetchPaths = getFetchPaths(entityClass, selectedFields);
+		// Entities already found during the request are reused if they have
+		// the associations to be fetched
+		final EntityRequestCache requestCache = EntityRequestCache.getCurrent();
+		if (requestCache != null) {
+			final T cached = requestCache.get(entityClass, id);
+			if (cached != null && isFetched(entityManager, cached, fetchPaths)) {
+				return Optional.of(cached);
+			}
+		}
+		final Map<String, Object> hints = fetchPaths.isEmpty()
+				? Collections.emptyMap()
+				: Collections.singletonMap(QueryHints.HINT_LOADGRAPH,
+						createEntityGraph(entityClass, entityManager, fetchPaths));
+		T entity;
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			entity = entityManager.find(entityClass, id, hints);
+		} else {
+			// Finding an entity has no read only hint : the session default is
+			// used instead
+			final Session session = entityManager.unwrap(Session.class);
+			final boolean defaultReadOnly = session.isDefaultReadOnly();
+			session.setDefaultReadOnly(isReadOnly(entityClass));
+			try {
+				entity = session.find(entityClass, id, hints);
+			} finally {
+				session.setDefaultReadOnly(defaultReadOnly);
 			}
-			predicate = expression;
 		}
+		if (entity != null && requestCache != null) {
+			requestCache.put(entityClass, id, entity);
+		}
+		return Optional.ofNullable(entity);
+	}
 
-		// Apply ordering
-		final List<OrderSpecifier<?>> orders = new ArrayList<>();
-		if (listLoadConfig.isOrdered()) {
-			for (final GQLOrderByEntry orderBy : listLoadConfig.getOrderBy()) {
-				try {
-					orders.add(applyOrderBy(basePath, orderBy));
-				} catch (final IllegalAccessException e) {
-					throw new RuntimeException(e);
+	@Override
+	@Transactional(readOnly = true)
+	public <T> Map<Long, T> findByIds(final Class<T> entityClass, final Collection<Long> ids) {
+		return findByIds(entityClass, ids, null);
+	}
+
+	/**
+	 * Find entities by their IDs, fetching associations of given entity graph
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param ids
+	 *            the IDs
+	 * @param entityGraph
+	 *            the {@link EntityGraph} of associations to be fetched (may be
+	 *            null)
+	 * @param <T>
+	 *            the entity type
+	 * @return a map of found entities by ID
+	 */
+	protected <T> Map<Long, T> findByIds(final Class<T> entityClass, final Collection<Long> ids,
+			final EntityGraph<?> entityGraph) {
+		final Map<Long, T> entities = new HashMap<>();
+		if (ids.isEmpty()) {
+			return entities;
+		}
+		final EntityManager entityManager = persistenceRegistry.getEntityManager(entityClass);
+		final PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory()
+				.getPersistenceUnitUtil();
+		final EntityPathBase<T> basePath = persistenceRegistry.getEntityPath(entityClass);
+		final NumberPath<Long> idPath = persistenceRegistry.getIdPath(entityClass);
+		final List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+		// Entities already found during the request are not queried again
+		// (unless associations are to be fetched)
+		final EntityRequestCache requestCache = EntityRequestCache.getCurrent();
+		if (requestCache != null && entityGraph == null) {
+			for (final Iterator<Long> iterator = distinctIds.iterator(); iterator.hasNext();) {
+				final Long id = iterator.next();
+				final T cached = requestCache.get(entityClass, id);
+				if (cached != null) {
+					entities.put(id, cached);
+					iterator.remove();
 				}
 			}
 		}
+		// Cached entities are found in the second level cache without query
+		// (associations to be fetched would be loaded one by one)
+		if (entityGraph == null && isCached(entityClass)) {
+			final Cache cache = entityManager.getEntityManagerFactory().getCache();
+			final Session session = entityManager.unwrap(Session.class);
+			final boolean defaultReadOnly = session.isDefaultReadOnly();
+			session.setDefaultReadOnly(isReadOnly(entityClass));
+			try {
+				for (final Iterator<Long> iterator = distinctIds.iterator(); iterator.hasNext();) {
+					final Long id = iterator.next();
+					final T entity = cache.contains(entityClass, id) ? session.find(entityClass, id) : null;
+					if (entity != null) {
+						entities.put(id, entity);
+						iterator.remove();
+					}
+				}
+			} finally {
+				session.setDefaultReadOnly(defaultReadOnly);
+			}
+		}
+		final int chunkSize = properties.getInClauseChunkSize();
+		for (int start = 0; start < distinctIds.size(); start += chunkSize) {
+			final List<Long> chunk = distinctIds.subList(start, Math.min(start + chunkSize, distinctIds.size()));
+			final JPAQuery<T> query = new JPAQuery<T>(entityManager).select(basePath).from(basePath)
+					.where(idPath.in(chunk));
+			if (entityGraph != null) {
+				query.setHint(QueryHints.HINT_LOADGRAPH, entityGraph);
+			}
+			applyReadOnly(entityClass, query::setHint);
+			for (final T entity : query.fetch()) {
+				entities.put((Long) persistenceUnitUtil.getIdentifier(entity), entity);
+			}
+		}
+		if (requestCache != null) {
+			entities.forEach((id, entity) -> requestCache.put(entityClass, id, entity));
+		}
+		return entities;
+	}
 
-		final OrderSpecifier<?>[] orderSpecifiers = orders.toArray(new OrderSpecifier[orders.size()]);
+	@Override
+	@Transactional(readOnly = true)
+	public GQLListLoadResult findAll(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig) {
+		return findAll(entityClass, listLoadConfig, new ListLoadOptions());
+	}
 
-		// Apply paging
+	@Override
+	@Transactional(readOnly = true)
+	public ListLoadResult findAll(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig,
+			final ListLoadOptions options) {
+		final ListLoadResult result = new ListLoadResult();
+		final boolean keyset = listLoadConfig.isPaged() && options.isKeyset();
+		final KeysetCursor cursor = keyset && options.getCursor() != null
+				? KeysetCursor.decode(options.getCursor())
+				: null;
+
+		final QueryPlan queryPlan = queryPlanCompiler.getQueryPlan(entityClass, listLoadConfig, options, keyset,
+				cursor);
+		final Map<ParamExpression<?>, Object> parameters = queryPlanCompiler.bindParameters(entityClass, queryPlan,
+				listLoadConfig, cursor);
+
+		// Filter or order by dynamic attributes without query expression in
+		// memory
+		if (queryPlan.isInMemory()) {
+			Assert.assertTrue(!keyset, "Keyset paging is not supported when filtering or ordering by dynamic"
+					+ " attributes without query expression");
+			return findAllInMemory(entityClass, listLoadConfig, options, queryPlan, parameters);
+		}
+
+		// Select IDs first when a fetched collection prevents paging in
+		// database
+		final Query query = queryPlan.getIdQuery() == null
+				? createQuery(entityClass, queryPlan.getQuery(), queryPlan.getQueryConstants(), parameters)
+				: createQuery(entityClass, queryPlan.getIdQuery(), queryPlan.getIdQueryConstants(), parameters);
+
+		// Apply paging, fetching one more row than the limit for knowing
+		// whether there is a next page
 		if (listLoadConfig.isPaged()) {
-			final int page = listLoadConfig.getOffset() % listLoadConfig.getLimit();
-			final Pageable pageable = new QPageRequest(page, listLoadConfig.getLimit(), orderSpecifiers);
-			final Page<?> resultPage = persistenceRegistry.getRepository(entityClass).findAll(predicate, pageable);
-			result.setData(resultPage.getContent());
-			result.setPaging(listLoadConfig.getLimit(), listLoadConfig.getOffset(),
-					Long.valueOf(resultPage.getTotalElements()).intValue());
+			final int limit = listLoadConfig.getLimit();
+			// Keyset paging seeks after the cursor row instead of using an
+			// offset
+			final int offset = keyset ? 0 : listLoadConfig.getOffset();
+			final List<?> rows = fetch(entityClass, queryPlan,
+					query.setFirstResult(offset).setMaxResults(limit + 1));
+			final boolean hasNext = rows.size() > limit;
+			final List<?> data = hasNext ? rows.subList(0, limit) : rows;
+			result.setData(data);
+			result.setHasNext(hasNext);
+			if (keyset && hasNext) {
+				try {
+					result.setNextCursor(
+							queryPlanCompiler.createKeysetCursor(queryPlan.getOrders(), data.get(data.size() - 1))
+									.encode());
+				} catch (final IllegalAccessException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			// Compute total, which is known without counting on the last page
+			// of offset paging
+			final CountPolicyEnum countPolicy = options.isTotalSelected()
+					? options.getCountPolicy()
+					: CountPolicyEnum.SKIP;
+			final boolean lastOffsetPage = !keyset && !hasNext && (offset == 0 || !data.isEmpty());
+			long total;
+			if (lastOffsetPage || CountPolicyEnum.SKIP.equals(countPolicy)) {
+				total = offset + data.size() + (hasNext ? 1 : 0);
+				result.setTotalLowerBound(!lastOffsetPage);
+			} else {
+				total = count(entityClass, queryPlan, parameters, countPolicy);
+			}
+			result.setPaging(limit, listLoadConfig.getOffset(), Long.valueOf(total).intValue());
 			result.setOrderBy(listLoadConfig.getOrderBy());
 		}
 		// Else if no paging then return all data
 		else {
-			final List<Object> data = new ArrayList<>();
-			persistenceRegistry.getRepository(entityClass).findAll(predicate, orderSpecifiers).forEach(data::add);
-			result.setData(data);
+			result.setData(fetch(entityClass, queryPlan, query));
 			result.setOrderBy(listLoadConfig.getOrderBy());
 		}
 
 		return result;
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public long stream(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig,
+			final ListLoadOptions options, final Consumer<Object> consumer) {
+		final EntityManager entityManager = persistenceRegistry.getEntityManager(entityClass);
+		final QueryPlan queryPlan = queryPlanCompiler.getQueryPlan(entityClass, listLoadConfig, options, false,
+				null);
+		Assert.assertTrue(!queryPlan.isInMemoryOrder(),
+				"Streaming is not supported when ordering by dynamic attributes without order expression");
+		// Scroll within a dedicated session sharing the connection of the
+		// current transaction, so that it can be cleared without detaching
+		// entities of the caller persistence context. Pending changes of the
+		// caller are flushed first for being streamed.
+		final Session session = entityManager.unwrap(Session.class);
+		if (!FlushMode.MANUAL.equals(session.getHibernateFlushMode())) {
+			session.flush();
+		}
+		try (Session streamSession = session.sessionWithOptions().connection().openSession()) {
+			streamSession.setHibernateFlushMode(FlushMode.MANUAL);
+			final org.hibernate.query.Query<?> query = createQuery(streamSession, entityClass, queryPlan.getQuery(),
+					queryPlan.getQueryConstants(),
+					queryPlanCompiler.bindParameters(entityClass, queryPlan, listLoadConfig, null))
+							.unwrap(org.hibernate.query.Query.class);
+			// Fetched collections would duplicate scrolled rows
+			if (queryPlan.getEntityGraph() != null && !isCollectionFetched(entityClass, entityManager,
+					getFetchPaths(entityClass, options.getSelectedFields()))) {
+				query.setHint(QueryHints.HINT_LOADGRAPH, queryPlan.getEntityGraph());
+			}
+			// Rows filtered in memory are paged while scrolling
+			final Function<Object, Boolean> inMemoryFilter = createInMemoryFilter(entityClass, listLoadConfig,
+					options, queryPlan);
+			if (listLoadConfig.isPaged() && inMemoryFilter == null) {
+				query.setFirstResult(listLoadConfig.getOffset()).setMaxResults(listLoadConfig.getLimit());
+			}
+			query.setFetchSize(properties.getStreamFetchSize());
+			long count = 0;
+			long scrolled = 0;
+			long skipped = 0;
+			try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+				while (results.next()) {
+					final Object row = queryPlan.getProjection() == null
+							? results.get(0)
+							: queryPlan.getProjection().newInstance(results.get());
+					if (inMemoryFilter == null) {
+						consumer.accept(row);
+						count++;
+					} else if (inMemoryFilter.apply(row).booleanValue()) {
+						if (listLoadConfig.isPaged() && skipped < listLoadConfig.getOffset()) {
+							skipped++;
+						} else if (listLoadConfig.isPaged() && count >= listLoadConfig.getLimit()) {
+							break;
+						} else {
+							consumer.accept(row);
+							count++;
+						}
+					}
+					// Release streamed entities from the stream session
+					if (++scrolled % properties.getStreamClearInterval() == 0) {
+						streamSession.clear();
+					}
+				}
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * @return the {@link LruCache} of {@link QueryPlan} by load shape (for
+	 *         hit/miss statistics)
+	 */
+	public LruCache<String, QueryPlan> getQueryPlans() {
+		return queryPlanCompiler.getQueryPlans();
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public void save(final Object entity) {
-		persistenceRegistry.getRepository((Class<Object>) entity.getClass()).save(entity);
+		final Object saved = persistenceRegistry.getRepository((Class<Object>) entity.getClass()).save(entity);
+		cacheSaved(persistenceRegistry.getEntityClass(entity.getClass()), Collections.singletonList(saved));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Transactional
+	public void saveAll(final Collection<?> entities) {
+		final Map<Class<?>, List<Object>> entitiesByClass = new LinkedHashMap<>();
+		for (final Object entity : entities) {
+			entitiesByClass.computeIfAbsent(persistenceRegistry.getEntityClass(entity.getClass()),
+					entityClass -> new ArrayList<>()).add(entity);
+		}
+		for (final Entry<Class<?>, List<Object>> entry : entitiesByClass.entrySet()) {
+			cacheSaved(entry.getKey(),
+					persistenceRegistry.getRepository((Class<Object>) entry.getKey()).saveAll(entry.getValue()));
+		}
+	}
+
+	/**
+	 * Put saved entities in the {@link EntityRequestCache} bound to the
+	 * current thread, if any : saving a detached entity returns the managed
+	 * instance it was merged into, which replaces any instance cached earlier
+	 * in the request for the same ID.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param savedEntities
+	 *            the entities returned by the repository
+	 */
+	protected void cacheSaved(final Class<?> entityClass, final Iterable<?> savedEntities) {
+		final EntityRequestCache requestCache = EntityRequestCache.getCurrent();
+		if (requestCache == null) {
+			return;
+		}
+		final PersistenceUnitUtil persistenceUnitUtil = persistenceRegistry.getEntityManager(entityClass)
+				.getEntityManagerFactory().getPersistenceUnitUtil();
+		for (final Object savedEntity : savedEntities) {
+			requestCache.put(entityClass, (Long) persistenceUnitUtil.getIdentifier(savedEntity), savedEntity);
+		}
 	}
 
 	@Override
 	public void delete(final Class<?> entityClass, final Long id) {
 		persistenceRegistry.getRepository(entityClass).deleteById(id);
+		if (EntityRequestCache.getCurrent() != null) {
+			EntityRequestCache.getCurrent().remove(entityClass, id);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Transactional
+	public void deleteAll(final Class<?> entityClass, final Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		if (bulkDeletables.computeIfAbsent(entityClass, this::isBulkDeletable).booleanValue()) {
+			final EntityManager entityManager = persistenceRegistry.getEntityManager(entityClass);
+			final EntityPathBase<?> basePath = persistenceRegistry.getEntityPath(entityClass);
+			final NumberPath<Long> idPath = persistenceRegistry.getIdPath(entityClass);
+			final List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+			final int chunkSize = properties.getInClauseChunkSize();
+			for (int start = 0; start < distinctIds.size(); start += chunkSize) {
+				new JPADeleteClause(entityManager, basePath)
+						.where(idPath.in(distinctIds.subList(start, Math.min(start + chunkSize, distinctIds.size()))))
+						.execute();
+			}
+		} else {
+			persistenceRegistry.getRepository((Class<Object>) entityClass)
+					.deleteAll(findByIds((Class<Object>) entityClass, ids).values());
+		}
+		if (EntityRequestCache.getCurrent() != null) {
+			ids.forEach(id -> EntityRequestCache.getCurrent().remove(entityClass, id));
+		}
 	}
 
 	@SuppressWarnings("unchecked")
@@ -149,12 +532,25 @@ public class DefaultEntityService implements IEntityService {
 				throw new RuntimeException(e);
 			}
 		} else {
-			final Optional<?> existing = findById((Class<?>) entityClass, Long.valueOf(id));
-			if (existing.isPresent()) {
-				entity = existing.get();
+			final EntityRequestCache requestCache = EntityRequestCache.getCurrent();
+			final Object cached = requestCache == null ? null : requestCache.get(entityClass, Long.valueOf(id));
+			if (cached != null) {
+				entity = cached;
 			} else {
-				throw new RuntimeException("No [" + entityClass.getName() + "] exists with ID : " + id);
+				final Optional<?> existing = persistenceRegistry.getRepository(entityClass)
+						.findById(Long.valueOf(id));
+				if (existing.isPresent()) {
+					entity = existing.get();
+				} else {
+					throw new RuntimeException("No [" + entityClass.getName() + "] exists with ID : " + id);
+				}
+				if (requestCache != null) {
+					requestCache.put(entityClass, Long.valueOf(id), entity);
+				}
 			}
+			// Entity is modified : it may have been loaded read only by a
+			// query method earlier in the same persistence context
+			entity = toWritable(entityClass, entity);
 		}
 		// Set properties
 		for (final Entry<String, Object> entry : propertyValueMap.entrySet()) {
@@ -162,7 +558,17 @@ public class DefaultEntityService implements IEntityService {
 					.getSetter(entityClass, entry.getKey());
 			if (!schemaConfig.getAttributeIdName().equals(entry.getKey())) {
 				Object value = entry.getValue();
-				if (entry.getValue() instanceof Map) {
+				final Field field = FieldUtils.getField(entity.getClass(), entry.getKey(), true);
+				if (field != null && LazyJsonValue.class.equals(field.getType())) {
+					// Lazy JSON values are set wrapped, embedded objects being
+					// created with the wrapped type
+					final Class<?> wrappedType = ResolvableType.forField(field).resolveGeneric(0);
+					if (value instanceof Map && wrappedType != null && !Map.class.isAssignableFrom(wrappedType)) {
+						value = findOrCreateAndSetProperties(wrappedType, dynamicAttributeRegistry,
+								(Map<String, Object>) value);
+					}
+					value = value instanceof LazyJsonValue ? value : LazyJsonValue.of(value);
+				} else if (entry.getValue() instanceof Map) {
 					final Class<?> propertyType = FieldUtils.getField(entity.getClass(), entry.getKey(), true)
 							.getType();
 					value = findOrCreateAndSetProperties(propertyType, dynamicAttributeRegistry,
@@ -186,62 +592,988 @@ public class DefaultEntityService implements IEntityService {
 	// PRIVATE METHODS
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 
+	/**
+	 * Create the {@link QueryPlanCompiler} of list loads, called once at bean
+	 * initialization
+	 *
+	 * @return the {@link QueryPlanCompiler}
+	 */
+	protected QueryPlanCompiler createQueryPlanCompiler() {
+		return new QueryPlanCompiler(this, persistenceRegistry, schemaConfig, properties);
+	}
+
 	@SuppressWarnings("unchecked")
-	protected OrderSpecifier<?> applyOrderBy(final EntityPathBase<?> basePath, final GQLOrderByEntry orderBy)
-			throws IllegalAccessException {
-		final Path<? extends Comparable<?>> path = (Path<? extends Comparable<?>>) FieldUtils.readField(basePath,
-				orderBy.getField(), true);
+	protected OrderSpecifier<?> applyOrderBy(final EntityPathBase<?> basePath, final GQLOrderByEntry orderBy) {
+		final Path<? extends Comparable<?>> path = (Path<? extends Comparable<?>>) resolveFieldPath(basePath.getType(),
+				orderBy.getField());
 		return new OrderSpecifier<>(
 				GQLOrderByDirectionEnum.DESC.equals(orderBy.getDirection()) ? Order.DESC : Order.ASC, path);
 	}
 
+	/**
+	 * Apply given order by, on a field, a dotted field path or a dynamic
+	 * attribute. Associations of field paths are left joined, so that entities
+	 * with null associations are not excluded.
+	 *
+	 * @param basePath
+	 *            the entity {@link EntityPathBase}
+	 * @param orderBy
+	 *            the {@link GQLOrderByEntry}
+	 * @param dynamicAttributeRegistry
+	 *            the {@link GQLDynamicAttributeRegistry} (may be null)
+	 * @param joins
+	 *            the association paths to be left joined, by alias, completed
+	 *            by this method
+	 * @return the {@link OrderSpecifier} or null if ordering by this dynamic
+	 *         attribute must be done in memory
+	 */
+	@SuppressWarnings("unchecked")
+	protected OrderSpecifier<?> applyOrderBy(final EntityPathBase<?> basePath, final GQLOrderByEntry orderBy,
+			final GQLDynamicAttributeRegistry dynamicAttributeRegistry, final Map<Path<?>, EntityPathBase<?>> joins) {
+		if (orderBy.getField().indexOf('.') >= 0) {
+			final Path<? extends Comparable<?>> path = (Path<? extends Comparable<?>>) resolveOrderPath(basePath,
+					orderBy.getField(), joins);
+			return new OrderSpecifier<>(
+					GQLOrderByDirectionEnum.DESC.equals(orderBy.getDirection()) ? Order.DESC : Order.ASC, path);
+		} else if (persistenceRegistry.getFieldPaths(basePath.getType()).containsKey(orderBy.getField())) {
+			return applyOrderBy(basePath, orderBy);
+		}
+		final IDynamicAttributeQueryFactory factory = getDynamicAttributeQueryFactory(basePath.getType(),
+				orderBy.getField(), dynamicAttributeRegistry);
+		final ComparableExpressionBase<?> expression = factory == null ? null : factory.getOrderExpression(basePath);
+		return expression == null
+				? null
+				: GQLOrderByDirectionEnum.DESC.equals(orderBy.getDirection()) ? expression.desc() : expression.asc();
+	}
+
+	/**
+	 * Count entities matching the filters of given query plan according to
+	 * given count policy
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param queryPlan
+	 *            the {@link QueryPlan}
+	 * @param parameters
+	 *            the bound parameter values
+	 * @param countPolicy
+	 *            the {@link CountPolicyEnum} (other than
+	 *            {@link CountPolicyEnum#SKIP})
+	 * @return the count
+	 */
+	protected long count(final Class<?> entityClass, final QueryPlan queryPlan,
+			final Map<ParamExpression<?>, Object> parameters, final CountPolicyEnum countPolicy) {
+		final Supplier<Long> exactCounter = () -> (Long) createQuery(entityClass, queryPlan.getCountQuery(),
+				queryPlan.getCountQueryConstants(), parameters).getSingleResult();
+		switch (countPolicy) {
+			case ESTIMATED :
+				return countEstimator.estimate(entityClass, queryPlan.getPredicate()).orElseGet(exactCounter)
+						.longValue();
+			case CACHED :
+				final List<Object> countKey = new ArrayList<>();
+				countKey.add(queryPlan.getCountQuery());
+				queryPlan.getFilterParams().forEach(param -> countKey.add(parameters.get(param)));
+				queryPlan.getInClauseChunkParams().values()
+						.forEach(params -> params.forEach(param -> countKey.add(parameters.get(param))));
+				return countCache.getCount(entityClass, countKey, exactCounter);
+			default :
+				return exactCounter.get().longValue();
+		}
+	}
+
+	/**
+	 * Load entities of given query plan filtered or ordered by dynamic
+	 * attributes in memory : at most
+	 * {@link SpringDataGraphqlJpaProperties#getDynamicAttributeMaxRows()}
+	 * entities matching the filters applied in database are loaded, then
+	 * filtered, ordered and paged in memory.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @param queryPlan
+	 *            the {@link QueryPlan}
+	 * @param parameters
+	 *            the bound parameter values
+	 * @return the {@link ListLoadResult}
+	 */
+	protected ListLoadResult findAllInMemory(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig,
+			final ListLoadOptions options, final QueryPlan queryPlan,
+			final Map<ParamExpression<?>, Object> parameters) {
+		final int maxRows = properties.getDynamicAttributeMaxRows();
+		final Query query = queryPlan.getIdQuery() == null
+				? createQuery(entityClass, queryPlan.getQuery(), queryPlan.getQueryConstants(), parameters)
+				: createQuery(entityClass, queryPlan.getIdQuery(), queryPlan.getIdQueryConstants(), parameters);
+		final List<?> rows = fetch(entityClass, queryPlan, query.setMaxResults(maxRows + 1));
+		if (rows.size() > maxRows) {
+			throw new IllegalArgumentException("More than " + maxRows + " entities of type " + entityClass.getName()
+					+ " to be filtered or ordered in memory by dynamic attributes : add filters or provide query"
+					+ " expressions for these dynamic attributes");
+		}
+
+		final Function<Object, Boolean> inMemoryFilter = createInMemoryFilter(entityClass, listLoadConfig, options,
+				queryPlan);
+		final List<Object> data = inMemoryFilter == null
+				? new ArrayList<>(rows)
+				: rows.stream().filter(row -> inMemoryFilter.apply(row).booleanValue()).collect(Collectors.toList());
+		if (queryPlan.isInMemoryOrder()) {
+			// Stable sort : orders applied in database are kept for equal rows
+			data.sort(createInMemoryComparator(entityClass, listLoadConfig, options));
+		}
+
+		final ListLoadResult result = new ListLoadResult();
+		if (listLoadConfig.isPaged()) {
+			final int limit = listLoadConfig.getLimit();
+			final int offset = listLoadConfig.getOffset();
+			result.setData(data.subList(Math.min(offset, data.size()), Math.min(offset + limit, data.size())));
+			result.setHasNext(offset + limit < data.size());
+			result.setPaging(limit, offset, data.size());
+		} else {
+			result.setData(data);
+		}
+		result.setOrderBy(listLoadConfig.getOrderBy());
+		return result;
+	}
+
+	/**
+	 * Create the filter of entities applying the in memory filters of given
+	 * query plan
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @param queryPlan
+	 *            the {@link QueryPlan}
+	 * @return the filter telling whether an entity matches, or null if there
+	 *         is no filter to be applied in memory
+	 */
+	protected Function<Object, Boolean> createInMemoryFilter(final Class<?> entityClass,
+			final GQLListLoadConfig listLoadConfig, final ListLoadOptions options, final QueryPlan queryPlan) {
+		if (queryPlan.getInMemoryFilters().isEmpty()) {
+			return null;
+		}
+		final List<GQLFilterEntry> filters = new ArrayList<>();
+		final List<Function<Object, Object>> readers = new ArrayList<>();
+		for (final Integer index : queryPlan.getInMemoryFilters()) {
+			final GQLFilterEntry filter = listLoadConfig.getFilters().get(index.intValue());
+			filters.add(filter);
+			readers.add(createAttributeReader(entityClass, filter.getFieldName(),
+					options.getDynamicAttributeRegistry()));
+		}
+		return entity -> {
+			for (int i = 0; i < filters.size(); i++) {
+				final GQLFilterEntry filter = filters.get(i);
+				if (!matchesFilter(filter.getOperator(), readers.get(i).apply(entity), filter.getValue())) {
+					return Boolean.FALSE;
+				}
+			}
+			return Boolean.TRUE;
+		};
+	}
+
+	/**
+	 * Create the comparator of entities for all orders of given load, values
+	 * being compared with {@link #compareValues(Object, Object)} and null
+	 * values coming first in ascending order
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @return the {@link Comparator}
+	 */
+	protected Comparator<Object> createInMemoryComparator(final Class<?> entityClass,
+			final GQLListLoadConfig listLoadConfig, final ListLoadOptions options) {
+		Comparator<Object> comparator = null;
+		for (final GQLOrderByEntry orderBy : listLoadConfig.getOrderBy()) {
+			final Function<Object, Object> reader = createAttributeReader(entityClass, orderBy.getField(),
+					options.getDynamicAttributeRegistry());
+			Comparator<Object> current = Comparator.comparing(reader, Comparator.nullsFirst(this::compareValues));
+			if (GQLOrderByDirectionEnum.DESC.equals(orderBy.getDirection())) {
+				current = current.reversed();
+			}
+			comparator = comparator == null ? current : comparator.thenComparing(current);
+		}
+		return comparator;
+	}
+
+	/**
+	 * Create the reader of given field or dynamic attribute of entities
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param name
+	 *            the field or dynamic attribute name
+	 * @param dynamicAttributeRegistry
+	 *            the {@link GQLDynamicAttributeRegistry} (may be null)
+	 * @return the reader of the value from an entity
+	 */
+	protected Function<Object, Object> createAttributeReader(final Class<?> entityClass, final String name,
+			final GQLDynamicAttributeRegistry dynamicAttributeRegistry) {
+		final String[] fieldNames = StringUtils.split(name, '.');
+		if (persistenceRegistry.getFieldPaths(entityClass).containsKey(fieldNames[0])) {
+			return entity -> {
+				// Dotted field paths are read through null associations
+				Object value = entity;
+				for (int i = 0; value != null && i < fieldNames.length; i++) {
+					try {
+						value = FieldUtils.readField(Hibernate.unproxy(value), fieldNames[i], true);
+					} catch (final IllegalAccessException e) {
+						throw new RuntimeException(e);
+					}
+				}
+				return value;
+			};
+		}
+		final Optional<IGQLDynamicAttributeGetter<Object, Object>> getter = dynamicAttributeRegistry == null
+				? Optional.empty()
+				: dynamicAttributeRegistry.getGetter(entityClass, name);
+		if (!getter.isPresent()) {
+			throw new IllegalArgumentException(
+					"No field or dynamic attribute [" + name + "] for entity type : " + entityClass.getName());
+		}
+		return getter.get()::getValue;
+	}
+
+	/**
+	 * Get the query expression factory of given dynamic attribute : its getter
+	 * if it implements {@link IDynamicAttributeQueryFactory}
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param name
+	 *            the dynamic attribute name
+	 * @param dynamicAttributeRegistry
+	 *            the {@link GQLDynamicAttributeRegistry} (may be null)
+	 * @return the {@link IDynamicAttributeQueryFactory} or null if the dynamic
+	 *         attribute must be filtered and ordered by in memory
+	 */
+	protected IDynamicAttributeQueryFactory getDynamicAttributeQueryFactory(final Class<?> entityClass,
+			final String name, final GQLDynamicAttributeRegistry dynamicAttributeRegistry) {
+		final Optional<IGQLDynamicAttributeGetter<Object, Object>> getter = dynamicAttributeRegistry == null
+				? Optional.empty()
+				: dynamicAttributeRegistry.getGetter(entityClass, name);
+		return getter.filter(IDynamicAttributeQueryFactory.class::isInstance)
+				.map(IDynamicAttributeQueryFactory.class::cast).orElse(null);
+	}
+
+	/**
+	 * Tell whether given value matches given filter, with the semantics of
+	 * database filters : null values only match
+	 * {@link GQLFilterOperatorEnum#NULL}, {@link GQLFilterOperatorEnum#EMPTY}
+	 * and {@link GQLFilterOperatorEnum#NOT_IN}.
+	 *
+	 * @param operator
+	 *            the {@link GQLFilterOperatorEnum}
+	 * @param value
+	 *            the attribute value
+	 * @param filterValue
+	 *            the filter value
+	 * @return whether the value matches
+	 */
+	protected boolean matchesFilter(final GQLFilterOperatorEnum operator, final Object value,
+			final Object filterValue) {
+		switch (operator) {
+			case NULL :
+				return value == null;
+			case NOT_NULL :
+				return value != null;
+			case EMPTY :
+				return value == null || value instanceof String && ((String) value).isEmpty()
+						|| value instanceof Collection && ((Collection<?>) value).isEmpty()
+						|| value instanceof Map && ((Map<?, ?>) value).isEmpty();
+			case NOT_EMPTY :
+				return !matchesFilter(GQLFilterOperatorEnum.EMPTY, value, filterValue);
+			case IN :
+				return value != null && ((Collection<?>) filterValue).stream()
+						.anyMatch(element -> element != null && compareValues(value, element) == 0);
+			case NOT_IN :
+				return value == null || ((Collection<?>) filterValue).stream()
+						.noneMatch(element -> element != null && compareValues(value, element) == 0);
+			default :
+				break;
+		}
+		if (value == null || filterValue == null) {
+			return false;
+		}
+		switch (operator) {
+			case EQUAL :
+				return compareValues(value, filterValue) == 0;
+			case NOT_EQUAL :
+				return compareValues(value, filterValue) != 0;
+			case GREATER_THAN :
+				return compareValues(value, filterValue) > 0;
+			case GREATER_EQUAL :
+				return compareValues(value, filterValue) >= 0;
+			case LOWER_THAN :
+				return compareValues(value, filterValue) < 0;
+			case LOWER_EQUAL :
+				return compareValues(value, filterValue) <= 0;
+			case STARTS_WITH :
+				return value.toString().startsWith(filterValue.toString());
+			case ENDS_WITH :
+				return value.toString().endsWith(filterValue.toString());
+			case CONTAINS :
+				return value instanceof Collection
+						? ((Collection<?>) value).contains(filterValue)
+						: value.toString().contains(filterValue.toString());
+			case LIKE :
+				final StringBuilder regex = new StringBuilder();
+				for (final String part : filterValue.toString().split("(?=[%_])|(?<=[%_])")) {
+					regex.append("%".equals(part) ? ".*" : "_".equals(part) ? "." : Pattern.quote(part));
+				}
+				return Pattern.compile(regex.toString(), Pattern.DOTALL).matcher(value.toString()).matches();
+			default :
+				throw new IllegalArgumentException("Unhandled operator : " + operator);
+		}
+	}
+
+	/**
+	 * Compare given non null values : numbers by value, enums with names and
+	 * other values as {@link Comparable} or with their String representation
+	 *
+	 * @param value
+	 *            the value
+	 * @param other
+	 *            the other value
+	 * @return the comparison result
+	 */
 	@SuppressWarnings({"unchecked", "rawtypes"})
-	protected BooleanExpression applyFilter(final EntityPathBase<?> basePath, final GQLFilterEntry filter)
-			throws IllegalAccessException {
+	protected int compareValues(final Object value, final Object other) {
+		if (value instanceof Number && other instanceof Number) {
+			return new BigDecimal(value.toString()).compareTo(new BigDecimal(other.toString()));
+		} else if (value instanceof Enum && !(other instanceof Enum)) {
+			return ((Enum<?>) value).name().compareTo(other.toString());
+		} else if (value instanceof Comparable && value.getClass().isInstance(other)) {
+			return ((Comparable) value).compareTo(other);
+		}
+		return value.toString().compareTo(other.toString());
+	}
+
+	/**
+	 * Get whether entities of given type can be deleted with a bulk delete
+	 * query, which bypasses the persistence context : the entity must not
+	 * cascade to other entities, own collections or be audited.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return whether a bulk delete can be used
+	 */
+	protected Boolean isBulkDeletable(final Class<?> entityClass) {
+		final EntityPersister persister = persistenceRegistry.getEntityManager(entityClass).getEntityManagerFactory()
+				.unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersister(entityClass);
+		return Boolean.valueOf(!persister.hasCascades() && !persister.hasCollections()
+				&& !entityClass.isAnnotationPresent(Audited.class));
+	}
+
+	/**
+	 * Fetch the results of a query of given plan : creating untracked entities
+	 * from selected columns if the plan has a projection, fetching the
+	 * associations of the plan entity graph (from selected IDs if the plan has
+	 * an ID query)
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param queryPlan
+	 *            the {@link QueryPlan}
+	 * @param query
+	 *            the {@link Query}
+	 * @return the entity list
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<?> fetch(final Class<?> entityClass, final QueryPlan queryPlan, final Query query) {
+		if (queryPlan.getIdQuery() != null) {
+			final List<Long> ids = query.getResultList();
+			final Map<Long, ?> entitiesById = findByIds(entityClass, ids, queryPlan.getEntityGraph());
+			return ids.stream().map(entitiesById::get).collect(Collectors.toList());
+		}
+		if (queryPlan.getEntityGraph() != null) {
+			query.setHint(QueryHints.HINT_LOADGRAPH, queryPlan.getEntityGraph());
+			// Fetched collections duplicate rows
+			final Set<Object> entities = Collections.newSetFromMap(new IdentityHashMap<>());
+			return ((List<Object>) query.getResultList()).stream().filter(entities::add)
+					.collect(Collectors.toList());
+		}
+		final List<?> rows = query.getResultList();
+		if (queryPlan.getProjection() == null) {
+			return rows;
+		}
+		final List<Object> entities = new ArrayList<>(rows.size());
+		for (final Object row : rows) {
+			entities.add(queryPlan.getProjection()
+					.newInstance(row instanceof Object[] ? (Object[]) row : new Object[] {row}));
+		}
+		return entities;
+	}
+
+	/**
+	 * Get the paths of the associations to be fetched for given selected
+	 * fields : dotted selected field paths are followed while they go through
+	 * associations, up to
+	 * {@link SpringDataGraphqlJpaProperties#getFetchMaxDepth()} associations.
+	 * At most one collection is fetched (Hibernate cannot fetch several bags
+	 * at once), other collections being lazily loaded.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param selectedFields
+	 *            the selected field paths (may be null)
+	 * @return the sorted association paths (including their parent paths)
+	 */
+	protected SortedSet<String> getFetchPaths(final Class<?> entityClass, final Collection<String> selectedFields) {
+		final SortedSet<String> fetchPaths = new TreeSet<>();
+		if (selectedFields == null) {
+			return fetchPaths;
+		}
+		final Metamodel metamodel = persistenceRegistry.getEntityManager(entityClass).getMetamodel();
+		String fetchedCollectionPath = null;
+		for (final String selectedField : new TreeSet<>(selectedFields)) {
+			final String[] fieldNames = selectedField.split("\\.");
+			ManagedType<?> managedType = metamodel.managedType(entityClass);
+			String fetchPath = null;
+			for (int depth = 0; depth < fieldNames.length && depth < properties.getFetchMaxDepth(); depth++) {
+				final Attribute<?, ?> attribute = findAttribute(managedType, fieldNames[depth]);
+				if (attribute == null || !attribute.isAssociation()) {
+					break;
+				}
+				fetchPath = fetchPath == null ? fieldNames[depth] : fetchPath + "." + fieldNames[depth];
+				if (attribute.isCollection()) {
+					if (fetchedCollectionPath != null && !fetchedCollectionPath.equals(fetchPath)) {
+						break;
+					}
+					fetchedCollectionPath = fetchPath;
+				}
+				fetchPaths.add(fetchPath);
+				final Class<?> associationType = attribute instanceof PluralAttribute
+						? ((PluralAttribute<?, ?, ?>) attribute).getElementType().getJavaType()
+						: attribute.getJavaType();
+				managedType = metamodel.managedType(associationType);
+			}
+		}
+		return fetchPaths;
+	}
+
+	/**
+	 * Create the {@link EntityGraph} fetching given association paths
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param entityManager
+	 *            the {@link EntityManager}
+	 * @param fetchPaths
+	 *            the sorted association paths (including their parent paths)
+	 * @return the {@link EntityGraph}
+	 */
+	protected EntityGraph<?> createEntityGraph(final Class<?> entityClass, final EntityManager entityManager,
+			final SortedSet<String> fetchPaths) {
+		final EntityGraph<?> entityGraph = entityManager.createEntityGraph(entityClass);
+		final Map<String, Subgraph<?>> subgraphs = new HashMap<>();
+		for (final String fetchPath : fetchPaths) {
+			final int lastDot = fetchPath.lastIndexOf('.');
+			subgraphs.put(fetchPath, lastDot < 0
+					? entityGraph.addSubgraph(fetchPath)
+					: subgraphs.get(fetchPath.substring(0, lastDot)).addSubgraph(fetchPath.substring(lastDot + 1)));
+		}
+		return entityGraph;
+	}
+
+	/**
+	 * Get whether given association paths go through a collection
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param entityManager
+	 *            the {@link EntityManager}
+	 * @param fetchPaths
+	 *            the sorted association paths (including their parent paths)
+	 * @return whether a collection is fetched
+	 */
+	protected boolean isCollectionFetched(final Class<?> entityClass, final EntityManager entityManager,
+			final SortedSet<String> fetchPaths) {
+		final Metamodel metamodel = entityManager.getMetamodel();
+		for (final String fetchPath : fetchPaths) {
+			ManagedType<?> managedType = metamodel.managedType(entityClass);
+			for (final String fieldName : fetchPath.split("\\.")) {
+				final Attribute<?, ?> attribute = findAttribute(managedType, fieldName);
+				if (attribute.isCollection()) {
+					return true;
+				}
+				managedType = metamodel.managedType(attribute.getJavaType());
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Create a JPA query from a rendered JPQL query and bind its constants and
+	 * parameters
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param jpql
+	 *            the JPQL query
+	 * @param constants
+	 *            the constant (or parameter) to label map of the JPQL query
+	 * @param parameters
+	 *            the parameter values
+	 * @return the created {@link Query}
+	 */
+	protected Query createQuery(final Class<?> entityClass, final String jpql, final Map<Object, String> constants,
+			final Map<ParamExpression<?>, Object> parameters) {
+		return createQuery(persistenceRegistry.getEntityManager(entityClass), entityClass, jpql, constants,
+				parameters);
+	}
+
+	/**
+	 * Create a JPA query in given {@link EntityManager} from a rendered JPQL
+	 * query and bind its constants and parameters
+	 *
+	 * @param entityManager
+	 *            the {@link EntityManager}
+	 * @param entityClass
+	 *            the entity class
+	 * @param jpql
+	 *            the JPQL query
+	 * @param constants
+	 *            the constant (or parameter) to label map of the JPQL query
+	 * @param parameters
+	 *            the parameter values
+	 * @return the created {@link Query}
+	 */
+	protected Query createQuery(final EntityManager entityManager, final Class<?> entityClass, final String jpql,
+			final Map<Object, String> constants, final Map<ParamExpression<?>, Object> parameters) {
+		final Query query = entityManager.createQuery(jpql);
+		JPAUtil.setConstants(query, constants, parameters);
+		applyReadOnly(entityClass, query::setHint);
+		if (isCached(entityClass) && properties.isCacheQueries()) {
+			query.setHint(QueryHints.HINT_CACHEABLE, Boolean.TRUE);
+		}
+		return query;
+	}
+
+	/**
+	 * Apply read only query hints for given entity type : entities are loaded
+	 * read only (without loaded state snapshot nor dirty checking) if
+	 * {@link #isReadOnly(Class)}, and queries do not flush the session within
+	 * read only transactions.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param hintSetter
+	 *            the query hint setter
+	 */
+	protected void applyReadOnly(final Class<?> entityClass, final BiConsumer<String, Object> hintSetter) {
+		hintSetter.accept(QueryHints.HINT_READONLY, Boolean.valueOf(isReadOnly(entityClass)));
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			hintSetter.accept(QueryHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+		}
+	}
+
+	/**
+	 * Get whether entities of given type are loaded read only by query
+	 * methods, according to
+	 * {@link SpringDataGraphqlJpaProperties#isReadOnlyQueries()} and
+	 * {@link SpringDataGraphqlJpaProperties#getWritableQueryEntities()}.
+	 * Entities are only loaded read only within read only transactions (like
+	 * the ones opened by query methods) : query methods joining a writable
+	 * transaction of the caller load writable entities, whose changes are
+	 * flushed with this transaction.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return whether entities are loaded read only
+	 */
+	protected boolean isReadOnly(final Class<?> entityClass) {
+		return properties.isReadOnlyQueries() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+				&& !properties.getWritableQueryEntities().contains(entityClass.getName());
+	}
+
+	/**
+	 * Get whether entities of given type are cached in the second level cache,
+	 * according to {@link SpringDataGraphqlJpaProperties#getCachedEntities()}.
+	 * List load queries of cached entities are cached in the query cache if
+	 * {@link SpringDataGraphqlJpaProperties#isCacheQueries()}.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return whether entities are cached
+	 */
+	protected boolean isCached(final Class<?> entityClass) {
+		return properties.getCachedEntities().contains(entityClass.getName());
+	}
+
+	/**
+	 * Get whether the first associations of given fetch paths are loaded in
+	 * given entity, for reusing an entity of the {@link EntityRequestCache}
+	 *
+	 * @param entityManager
+	 *            the {@link EntityManager}
+	 * @param entity
+	 *            the entity
+	 * @param fetchPaths
+	 *            the association paths to be fetched
+	 * @return whether the entity can be reused
+	 */
+	protected boolean isFetched(final EntityManager entityManager, final Object entity,
+			final SortedSet<String> fetchPaths) {
+		final PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory()
+				.getPersistenceUnitUtil();
+		for (final String fetchPath : fetchPaths) {
+			if (fetchPath.indexOf('.') < 0 && !persistenceUnitUtil.isLoaded(entity, fetchPath)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Make an entity writable before modifying it : an entity loaded read only
+	 * in the current persistence context (by a query method or from the
+	 * {@link EntityRequestCache}) is made writable (detached entities are
+	 * merged when saved)
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param entity
+	 *            the found entity
+	 * @return the entity
+	 */
+	protected Object toWritable(final Class<?> entityClass, final Object entity) {
+		final EntityManager entityManager = persistenceRegistry.getEntityManager(entityClass);
+		if (TransactionSynchronizationManager.isActualTransactionActive() && entityManager.contains(entity)) {
+			final Session session = entityManager.unwrap(Session.class);
+			if (session.isReadOnly(entity)) {
+				session.setReadOnly(entity, false);
+			}
+		}
+		return entity;
+	}
+
+	/**
+	 * Get the value bound to the query plan parameter of a filter. Like
+	 * patterns of {@link GQLFilterOperatorEnum#STARTS_WITH},
+	 * {@link GQLFilterOperatorEnum#ENDS_WITH} and
+	 * {@link GQLFilterOperatorEnum#CONTAINS} are built here and escaped the
+	 * same way QueryDSL escapes constants. Values of JSON column filters are
+	 * bound as is.
+	 *
+	 * @param path
+	 *            the filtered field {@link Path} (null for dynamic attributes)
+	 * @param operator
+	 *            the {@link GQLFilterOperatorEnum}
+	 * @param value
+	 *            the filter value
+	 * @return the value to bind
+	 */
+	protected Object bindFilterValue(final Path<?> path, final GQLFilterOperatorEnum operator, final Object value) {
+		if (value instanceof Collection && (GQLFilterOperatorEnum.IN.equals(operator)
+				|| GQLFilterOperatorEnum.NOT_IN.equals(operator))) {
+			return new ArrayList<>(new LinkedHashSet<>((Collection<?>) value));
+		} else if (!(value instanceof String) || path != null && isJsonColumn(path)) {
+			return value;
+		}
+		final StringBuilder escaped = new StringBuilder();
+		for (final char character : ((String) value).toCharArray()) {
+			if (character == JPQLTemplates.DEFAULT_ESCAPE || character == '%' || character == '_') {
+				escaped.append(JPQLTemplates.DEFAULT_ESCAPE);
+			}
+			escaped.append(character);
+		}
+		switch (operator) {
+			case STARTS_WITH :
+				return escaped.append('%').toString();
+			case ENDS_WITH :
+				return escaped.insert(0, '%').toString();
+			case CONTAINS :
+				return escaped.insert(0, '%').append('%').toString();
+			default :
+				return value;
+		}
+	}
+
+	/**
+	 * Resolve the path of given field of entities of given type. Dotted field
+	 * paths (like <code>author.country.code</code>) walk through embedded
+	 * fields, associations (rendered as implicit joins) and collections
+	 * (rendered as <code>exists</code> sub queries with
+	 * {@link CollectionPathBase#any()}).
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param fieldPath
+	 *            the field name or dotted field path
+	 * @return the field {@link Path}
+	 */
+	protected Path<?> resolveFieldPath(final Class<?> entityClass, final String fieldPath) {
+		if (fieldPath.indexOf('.') < 0) {
+			return persistenceRegistry.getFieldPath(entityClass, fieldPath);
+		}
+		return nestedFieldPaths.computeIfAbsent(entityClass.getName() + ':' + fieldPath, key -> {
+			final String[] fieldNames = StringUtils.split(fieldPath, '.');
+			Path<?> path = persistenceRegistry.getFieldPath(entityClass, fieldNames[0]);
+			for (int i = 1; i < fieldNames.length; i++) {
+				path = getChildPath(
+						path instanceof CollectionPathBase ? (Path<?>) ((CollectionPathBase<?, ?, ?>) path).any() : path,
+						fieldNames[i]);
+			}
+			return path;
+		});
+	}
+
+	/**
+	 * Resolve the path of given dotted field path for ordering : associations
+	 * are left joined (with aliases added to given joins) instead of being
+	 * implicitly inner joined.
+	 *
+	 * @param basePath
+	 *            the entity {@link EntityPathBase}
+	 * @param fieldPath
+	 *            the dotted field path
+	 * @param joins
+	 *            the association paths to be left joined, by alias
+	 * @return the field {@link Path}, from the alias of its association
+	 */
+	protected Path<?> resolveOrderPath(final EntityPathBase<?> basePath, final String fieldPath,
+			final Map<Path<?>, EntityPathBase<?>> joins) {
+		final String[] fieldNames = StringUtils.split(fieldPath, '.');
+		Path<?> path = persistenceRegistry.getFieldPath(basePath.getType(), fieldNames[0]);
+		for (int i = 1; i < fieldNames.length; i++) {
+			if (path instanceof CollectionPathBase || path instanceof MapPath) {
+				throw new IllegalArgumentException("Cannot order by a field of collection : " + fieldPath);
+			}
+			if (path instanceof EntityPathBase) {
+				final String alias = "join_" + StringUtils.join(fieldNames, '_', 0, i);
+				path = joins.computeIfAbsent(path, association -> {
+					try {
+						return association.getClass().asSubclass(EntityPathBase.class).getConstructor(String.class)
+								.newInstance(alias);
+					} catch (InstantiationException | IllegalAccessException | InvocationTargetException
+							| NoSuchMethodException e) {
+						throw new RuntimeException("Unable to create alias of path : " + association, e);
+					}
+				});
+			}
+			path = getChildPath(path, fieldNames[i]);
+		}
+		return path;
+	}
+
+	/**
+	 * Get the child path of given path. Paths of associations left
+	 * uninitialized by the QueryDSL path init depth are created.
+	 *
+	 * @param parent
+	 *            the parent {@link Path} (an embedded or entity path)
+	 * @param name
+	 *            the child field name
+	 * @return the child {@link Path}
+	 */
+	protected Path<?> getChildPath(final Path<?> parent, final String name) {
+		final Field field = parent instanceof BeanPath ? FieldUtils.getField(parent.getClass(), name) : null;
+		if (field == null || Modifier.isStatic(field.getModifiers()) || !Path.class.isAssignableFrom(field.getType())) {
+			throw new IllegalArgumentException("No APT path registered for field [" + name + "] of path : " + parent);
+		}
+		try {
+			final Path<?> child = (Path<?>) field.get(parent);
+			return child != null
+					? child
+					: (Path<?>) field.getType().getConstructor(PathMetadata.class)
+							.newInstance(PathMetadataFactory.forProperty(parent, name));
+		} catch (InstantiationException | IllegalAccessException | InvocationTargetException
+				| NoSuchMethodException e) {
+			throw new RuntimeException("Unable to create path of field [" + name + "] of path : " + parent, e);
+		}
+	}
+
+	protected BooleanExpression applyFilter(final EntityPathBase<?> basePath, final GQLFilterEntry filter) {
+		return applyFilter(basePath, filter, filter.getValue(), new ListLoadOptions());
+	}
+
+	/**
+	 * Apply given filter with given value
+	 *
+	 * @param basePath
+	 *            the entity {@link EntityPathBase}
+	 * @param filter
+	 *            the {@link GQLFilterEntry}
+	 * @param value
+	 *            the filter value : a constant or a query plan parameter
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @return the filter {@link BooleanExpression} or null if this filter on a
+	 *         dynamic attribute must be applied in memory
+	 */
+	protected BooleanExpression applyFilter(final EntityPathBase<?> basePath, final GQLFilterEntry filter,
+			final Object value, final ListLoadOptions options) {
 		BooleanExpression expression;
 		if (filter.isDynamic()) {
-			// TODO
-			expression = null;
+			final IDynamicAttributeQueryFactory factory = getDynamicAttributeQueryFactory(basePath.getType(),
+					filter.getFieldName(), options.getDynamicAttributeRegistry());
+			expression = factory == null
+					? null
+					: factory.createFilter(basePath, filter.getOperator(), toValueExpression(value));
 		} else {
-			final Path<?> path = (Path<?>) FieldUtils.readField(basePath, filter.getFieldName(), true);
-			final GQLFilterOperatorEnum operator = filter.getOperator();
-			final Object value = filter.getValue();
-			if (path instanceof ArrayPath) {
-				expression = applyFilter((ArrayPath<?, ?>) path, operator, value);
-			} else if (path instanceof EntityPathBase) {
-				expression = applyFilter((EntityPathBase<?>) path, operator, value);
-			} else if (path instanceof SimplePath) {
-				expression = applyFilter((SimplePath<?>) path, operator, value);
-			} else if (path instanceof BooleanPath) {
-				expression = applyFilter((BooleanPath) path, operator, value);
-			} else if (path instanceof CollectionPathBase) {
-				expression = applyFilter((CollectionPathBase<?, ?, ?>) path, operator, value);
-			} else if (path instanceof ComparablePath) {
-				expression = applyFilter((ComparablePath<?>) path, operator, value);
-			} else if (path instanceof DatePath) {
-				expression = applyFilter((DatePath<?>) path, operator, value);
-			} else if (path instanceof DateTimePath) {
-				expression = applyFilter((DateTimePath<?>) path, operator, value);
-			} else if (path instanceof DslPath) {
-				expression = applyFilter((DslPath<?>) path, operator, value);
-			} else if (path instanceof EnumPath) {
-				expression = applyFilter((EnumPath<?>) path, operator, value);
-			} else if (path instanceof MapPath) {
-				expression = applyFilter((MapPath<?, ?, ?>) path, operator, value);
-			} else if (path instanceof NumberPath) {
-				expression = applyFilter((NumberPath) path, operator, value);
-			} else if (path instanceof StringPath) {
-				expression = applyFilter((StringPath) path, operator, value);
-			} else if (path instanceof TimePath) {
-				expression = applyFilter((TimePath<?>) path, operator, value);
-			} else {
-				throw new IllegalArgumentException(
-						"Unhandled attribute type with path : " + path == null ? null : path.getClass().getName());
-			}
+			final Path<?> path = resolveFieldPath(basePath.getType(), filter.getFieldName());
+			expression = options.isIgnoreCase() && path instanceof StringPath
+					? applyIgnoreCaseFilter((StringPath) path, filter.getOperator(), value)
+					: filterExpressionFactories.computeIfAbsent(path, this::createFilterExpressionFactory)
+							.create(filter.getOperator(), value);
+		}
+		return expression;
+	}
+
+	/**
+	 * Apply given filter ignoring case : the lower cased column is compared to
+	 * the lower cased value, so that a <code>lower(column)</code> index can be
+	 * used. Other operators than equality and like ones are applied as usual.
+	 *
+	 * @param path
+	 *            the {@link StringPath}
+	 * @param operator
+	 *            the {@link GQLFilterOperatorEnum}
+	 * @param value
+	 *            the filter value : a constant or a query plan parameter
+	 * @return the filter {@link BooleanExpression}
+	 */
+	protected BooleanExpression applyIgnoreCaseFilter(final StringPath path, final GQLFilterOperatorEnum operator,
+			final Object value) {
+		final Expression<String> lowerValue = Expressions.stringOperation(Ops.LOWER,
+				this.<String>toValueExpression(value));
+		BooleanExpression expression;
+		switch (operator) {
+			case EQUAL :
+				expression = path.lower().eq(lowerValue);
+				break;
+			case NOT_EQUAL :
+				expression = path.lower().ne(lowerValue);
+				break;
+			case LIKE :
+				expression = path.lower().like(lowerValue);
+				break;
+			case ENDS_WITH :
+			case STARTS_WITH :
+			case CONTAINS :
+				expression = value instanceof Expression
+						? path.lower().like(lowerValue, JPQLTemplates.DEFAULT_ESCAPE)
+						: GQLFilterOperatorEnum.CONTAINS.equals(operator)
+								? path.containsIgnoreCase((String) value)
+								: GQLFilterOperatorEnum.STARTS_WITH.equals(operator)
+										? path.startsWithIgnoreCase((String) value)
+										: path.endsWithIgnoreCase((String) value);
+				break;
+			default :
+				expression = applyFilter(path, operator, value);
 		}
 		return expression;
 	}
 
+	/**
+	 * Create the filter expression factory for given field path, choosing the
+	 * typed applyFilter method once for all requests
+	 *
+	 * @param path
+	 *            the field {@link Path}
+	 * @return the {@link IFilterExpressionFactory}
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	protected IFilterExpressionFactory createFilterExpressionFactory(final Path<?> path) {
+		IFilterExpressionFactory factory;
+		if (path instanceof ArrayPath) {
+			factory = (operator, value) -> applyFilter((ArrayPath<?, ?>) path, operator, value);
+		} else if (path instanceof EntityPathBase) {
+			factory = (operator, value) -> applyFilter((EntityPathBase<?>) path, operator, value);
+		} else if (path instanceof SimplePath) {
+			factory = (operator, value) -> applyFilter((SimplePath<?>) path, operator, value);
+		} else if (path instanceof BooleanPath) {
+			factory = (operator, value) -> applyFilter((BooleanPath) path, operator, value);
+		} else if (path instanceof CollectionPathBase) {
+			factory = (operator, value) -> applyFilter((CollectionPathBase<?, ?, ?>) path, operator, value);
+		} else if (path instanceof ComparablePath) {
+			factory = (operator, value) -> applyFilter((ComparablePath<?>) path, operator, value);
+		} else if (path instanceof DatePath) {
+			factory = (operator, value) -> applyFilter((DatePath<?>) path, operator, value);
+		} else if (path instanceof DateTimePath) {
+			factory = (operator, value) -> applyFilter((DateTimePath<?>) path, operator, value);
+		} else if (path instanceof DslPath) {
+			factory = (operator, value) -> applyFilter((DslPath<?>) path, operator, value);
+		} else if (path instanceof EnumPath) {
+			factory = (operator, value) -> applyFilter((EnumPath<?>) path, operator, value);
+		} else if (path instanceof MapPath) {
+			factory = (operator, value) -> applyFilter((MapPath<?, ?, ?>) path, operator, value);
+		} else if (path instanceof NumberPath) {
+			factory = (operator, value) -> applyFilter((NumberPath) path, operator, value);
+		} else if (path instanceof StringPath) {
+			factory = (operator, value) -> applyFilter((StringPath) path, operator, value);
+		} else if (path instanceof TimePath) {
+			factory = (operator, value) -> applyFilter((TimePath<?>) path, operator, value);
+		} else {
+			throw new IllegalArgumentException(
+					"Unhandled attribute type with path : " + (path == null ? null : path.getClass().getName()));
+		}
+		return factory;
+	}
+
+	/**
+	 * Get the expression of a filter value : the value itself if it already is
+	 * an expression (query plan parameter), a constant otherwise
+	 *
+	 * @param value
+	 *            the filter value
+	 * @param <T>
+	 *            the value type
+	 * @return the value {@link Expression}
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> Expression<T> toValueExpression(final Object value) {
+		return value instanceof Expression ? (Expression<T>) value : ConstantImpl.create((T) value);
+	}
+
+	/**
+	 * Apply IN operator with given value : a collection or a query plan
+	 * parameter
+	 *
+	 * @param path
+	 *            the {@link SimpleExpression}
+	 * @param value
+	 *            the filter value
+	 * @param <T>
+	 *            the path type
+	 * @return the filter {@link BooleanExpression}
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> BooleanExpression applyIn(final SimpleExpression<T> path, final Object value) {
+		return value instanceof Expression
+				? Expressions.booleanOperation(Ops.IN, path, (Expression<?>) value)
+				: path.in((Collection<T>) value);
+	}
+
+	/**
+	 * Apply NOT IN operator with given value : a collection or a query plan
+	 * parameter
+	 *
+	 * @param path
+	 *            the {@link SimpleExpression}
+	 * @param value
+	 *            the filter value
+	 * @param <T>
+	 *            the path type
+	 * @return the filter {@link BooleanExpression}
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> BooleanExpression applyNotIn(final SimpleExpression<T> path, final Object value) {
+		return value instanceof Expression
+				? Expressions.booleanOperation(Ops.NOT_IN, path, (Expression<?>) value)
+				: path.notIn((Collection<T>) value);
+	}
+
 	protected BooleanExpression applyFilter(final DslPath<?> path, final GQLFilterOperatorEnum operator,
 			final Object value) {
 		throw new IllegalArgumentException("Unhandled path : " + path);
@@ -249,12 +1581,87 @@ public class DefaultEntityService implements IEntityService {
 
 	protected BooleanExpression applyFilter(final MapPath<?, ?, ?> path, final GQLFilterOperatorEnum operator,
 			final Object value) {
-		throw new IllegalArgumentException("Unhandled path : " + path);
+		if (!isJsonColumn(path)) {
+			throw new IllegalArgumentException("Unhandled path : " + path);
+		}
+		return applyJsonFilter(path, JsonFunctionsContributor.HAS_KEY, operator, value);
 	}
 
 	protected BooleanExpression applyFilter(final CollectionPathBase<?, ?, ?> path,
 			final GQLFilterOperatorEnum operator, final Object value) {
-		throw new IllegalArgumentException("Unhandled path : " + path);
+		if (!isJsonColumn(path)) {
+			throw new IllegalArgumentException("Unhandled path : " + path);
+		}
+		return applyJsonFilter(path, JsonFunctionsContributor.CONTAINS, operator, value);
+	}
+
+	/**
+	 * Apply a filter on a JSON user type column with the functions of
+	 * {@link JsonFunctionsContributor} :
+	 * {@link GQLFilterOperatorEnum#EQUAL}, {@link GQLFilterOperatorEnum#CONTAINS}
+	 * and {@link GQLFilterOperatorEnum#IN} match columns containing the value
+	 * or one of the values (an element for arrays, a key for objects),
+	 * {@link GQLFilterOperatorEnum#NOT_EQUAL} and
+	 * {@link GQLFilterOperatorEnum#NOT_IN} match the other ones, and
+	 * {@link GQLFilterOperatorEnum#EMPTY} / {@link GQLFilterOperatorEnum#NULL}
+	 * match null or empty columns.
+	 *
+	 * @param path
+	 *            the JSON column {@link Path}
+	 * @param function
+	 *            the name of the function matching values
+	 * @param operator
+	 *            the {@link GQLFilterOperatorEnum}
+	 * @param value
+	 *            the filter value : a value, a collection of values or a query
+	 *            plan parameter
+	 * @return the filter {@link BooleanExpression}
+	 */
+	protected BooleanExpression applyJsonFilter(final Path<?> path, final String function,
+			final GQLFilterOperatorEnum operator, final Object value) {
+		switch (operator) {
+			case EQUAL :
+			case CONTAINS :
+			case IN :
+				return Expressions.booleanTemplate(function + "({0}, {1}) = true", path, toValueExpression(value));
+			case NOT_EQUAL :
+			case NOT_IN :
+				// Null columns do not contain any value
+				return Expressions.booleanTemplate("{0} is null", path).or(
+						Expressions.booleanTemplate(function + "({0}, {1}) = true", path, toValueExpression(value)).not());
+			case EMPTY :
+			case NULL :
+				return Expressions.booleanTemplate(JsonFunctionsContributor.IS_EMPTY + "({0}) = true", path);
+			case NOT_EMPTY :
+			case NOT_NULL :
+				return Expressions.booleanTemplate(JsonFunctionsContributor.IS_EMPTY + "({0}) = true", path).not();
+			default :
+				throw new IllegalArgumentException("Unhandled operator : " + operator);
+		}
+	}
+
+	/**
+	 * Get whether given collection or map field path is a column mapped with a
+	 * JSON user type (basic attribute) rather than an association or an
+	 * element collection
+	 *
+	 * @param path
+	 *            the field {@link Path}
+	 * @return true if the path is a JSON user type column
+	 */
+	protected boolean isJsonColumn(final Path<?> path) {
+		return jsonColumns.computeIfAbsent(path, key -> {
+			if (!(key instanceof CollectionPathBase || key instanceof MapPath)
+					|| key.getMetadata().getParent() == null) {
+				return Boolean.FALSE;
+			}
+			// The parent may be an embedded type of the root entity
+			final Class<?> parentClass = key.getMetadata().getParent().getType();
+			final Attribute<?, ?> attribute = findAttribute(persistenceRegistry.getEntityManager(key.getRoot().getType())
+					.getMetamodel().managedType(parentClass), key.getMetadata().getName());
+			return Boolean.valueOf(
+					attribute != null && attribute.getPersistentAttributeType() == PersistentAttributeType.BASIC);
+		}).booleanValue();
 	}
 
 	protected <T> BooleanExpression applyFilter(final ArrayPath<T, ?> path, final GQLFilterOperatorEnum operator,
@@ -272,7 +1679,6 @@ public class DefaultEntityService implements IEntityService {
 		return applyFilter((SimpleExpression<T>) path, operator, value);
 	}
 
-	@SuppressWarnings("unchecked")
 	protected <T> BooleanExpression applyFilter(final SimpleExpression<T> path, final GQLFilterOperatorEnum operator,
 			final Object value) {
 		BooleanExpression expression;
@@ -284,16 +1690,16 @@ public class DefaultEntityService implements IEntityService {
 				expression = path.isNotNull();
 				break;
 			case EQUAL :
-				expression = path.eq((T) value);
+				expression = path.eq(this.<T>toValueExpression(value));
 				break;
 			case NOT_EQUAL :
-				expression = path.ne((T) value);
+				expression = path.ne(this.<T>toValueExpression(value));
 				break;
 			case IN :
-				expression = path.in((Collection<T>) value);
+				expression = applyIn(path, value);
 				break;
 			case NOT_IN :
-				expression = path.notIn((Collection<T>) value);
+				expression = applyNotIn(path, value);
 				break;
 			default :
 				throw new IllegalArgumentException("Unhandled operator : " + operator);
@@ -321,7 +1727,6 @@ public class DefaultEntityService implements IEntityService {
 		return applyFilter((ComparableExpression<T>) path, operator, value);
 	}
 
-	@SuppressWarnings("unchecked")
 	protected <T extends Comparable<T>> BooleanExpression applyFilter(final ComparableExpression<T> path,
 			final GQLFilterOperatorEnum operator, final Object value) {
 		BooleanExpression expression;
@@ -333,28 +1738,28 @@ public class DefaultEntityService implements IEntityService {
 				expression = path.isNotNull();
 				break;
 			case EQUAL :
-				expression = path.eq((T) value);
+				expression = path.eq(this.<T>toValueExpression(value));
 				break;
 			case NOT_EQUAL :
-				expression = path.ne((T) value);
+				expression = path.ne(this.<T>toValueExpression(value));
 				break;
 			case GREATER_THAN :
-				expression = path.gt((T) value);
+				expression = path.gt(this.<T>toValueExpression(value));
 				break;
 			case GREATER_EQUAL :
-				expression = path.gt((T) value).or(path.eq((T) value));
+				expression = path.goe(this.<T>toValueExpression(value));
 				break;
 			case LOWER_THAN :
-				expression = path.lt((T) value);
+				expression = path.lt(this.<T>toValueExpression(value));
 				break;
 			case LOWER_EQUAL :
-				expression = path.lt((T) value).or(path.eq((T) value));
+				expression = path.loe(this.<T>toValueExpression(value));
 				break;
 			case IN :
-				expression = path.in((Collection<T>) value);
+				expression = applyIn(path, value);
 				break;
 			case NOT_IN :
-				expression = path.notIn((Collection<T>) value);
+				expression = applyNotIn(path, value);
 				break;
 			default :
 				throw new IllegalArgumentException("Unhandled operator : " + operator);
@@ -362,7 +1767,6 @@ public class DefaultEntityService implements IEntityService {
 		return expression;
 	}
 
-	@SuppressWarnings("unchecked")
 	protected BooleanExpression applyFilter(final BooleanPath path, final GQLFilterOperatorEnum operator,
 			final Object value) {
 		BooleanExpression expression;
@@ -374,16 +1778,16 @@ public class DefaultEntityService implements IEntityService {
 				expression = path.isNotNull();
 				break;
 			case EQUAL :
-				expression = path.eq((Boolean) value);
+				expression = path.eq(this.<Boolean>toValueExpression(value));
 				break;
 			case NOT_EQUAL :
-				expression = path.ne((Boolean) value);
+				expression = path.ne(this.<Boolean>toValueExpression(value));
 				break;
 			case IN :
-				expression = path.in((Collection<Boolean>) value);
+				expression = applyIn(path, value);
 				break;
 			case NOT_IN :
-				expression = path.notIn((Collection<Boolean>) value);
+				expression = applyNotIn(path, value);
 				break;
 			default :
 				throw new IllegalArgumentException("Unhandled operator : " + operator);
@@ -391,7 +1795,6 @@ public class DefaultEntityService implements IEntityService {
 		return expression;
 	}
 
-	@SuppressWarnings("unchecked")
 	protected <T extends Enum<T>> BooleanExpression applyFilter(final EnumPath<T> path,
 			final GQLFilterOperatorEnum operator, final Object value) {
 		BooleanExpression expression;
@@ -403,16 +1806,16 @@ public class DefaultEntityService implements IEntityService {
 				expression = path.isNotNull();
 				break;
 			case EQUAL :
-				expression = path.eq((T) value);
+				expression = path.eq(this.<T>toValueExpression(value));
 				break;
 			case NOT_EQUAL :
-				expression = path.ne((T) value);
+				expression = path.ne(this.<T>toValueExpression(value));
 				break;
 			case IN :
-				expression = path.in((Collection<T>) value);
+				expression = applyIn(path, value);
 				break;
 			case NOT_IN :
-				expression = path.notIn((Collection<T>) value);
+				expression = applyNotIn(path, value);
 				break;
 			default :
 				throw new IllegalArgumentException("Unhandled operator : " + operator);
@@ -420,7 +1823,6 @@ public class DefaultEntityService implements IEntityService {
 		return expression;
 	}
 
-	@SuppressWarnings("unchecked")
 	protected <T extends Number & Comparable<T>> BooleanExpression applyFilter(final NumberPath<T> path,
 			final GQLFilterOperatorEnum operator, final Object value) {
 		BooleanExpression expression;
@@ -432,28 +1834,28 @@ public class DefaultEntityService implements IEntityService {
 				expression = path.isNotNull();
 				break;
 			case EQUAL :
-				expression = path.eq((T) value);
+				expression = path.eq(this.<T>toValueExpression(value));
 				break;
 			case NOT_EQUAL :
-				expression = path.ne((T) value);
+				expression = path.ne(this.<T>toValueExpression(value));
 				break;
 			case GREATER_THAN :
-				expression = path.gt((T) value);
+				expression = path.gt(this.<T>toValueExpression(value));
 				break;
 			case GREATER_EQUAL :
-				expression = path.gt((T) value).or(path.eq((T) value));
+				expression = path.goe(this.<T>toValueExpression(value));
 				break;
 			case LOWER_THAN :
-				expression = path.lt((T) value);
+				expression = path.lt(this.<T>toValueExpression(value));
 				break;
 			case LOWER_EQUAL :
-				expression = path.lt((T) value).or(path.eq((T) value));
+				expression = path.loe(this.<T>toValueExpression(value));
 				break;
 			case IN :
-				expression = path.in((Collection<T>) value);
+				expression = applyIn(path, value);
 				break;
 			case NOT_IN :
-				expression = path.notIn((Collection<T>) value);
+				expression = applyNotIn(path, value);
 				break;
 			default :
 				throw new IllegalArgumentException("Unhandled operator : " + operator);
@@ -461,7 +1863,6 @@ public class DefaultEntityService implements IEntityService {
 		return expression;
 	}
 
-	@SuppressWarnings("unchecked")
 	protected BooleanExpression applyFilter(final StringPath path, final GQLFilterOperatorEnum operator,
 			final Object value) {
 		BooleanExpression expression;
@@ -479,28 +1880,34 @@ public class DefaultEntityService implements IEntityService {
 				expression = path.isNotNull();
 				break;
 			case ENDS_WITH :
-				expression = path.endsWith((String) value);
+				expression = value instanceof Expression
+						? path.like(this.<String>toValueExpression(value), JPQLTemplates.DEFAULT_ESCAPE)
+						: path.endsWith((String) value);
 				break;
 			case STARTS_WITH :
-				expression = path.startsWith((String) value);
+				expression = value instanceof Expression
+						? path.like(this.<String>toValueExpression(value), JPQLTemplates.DEFAULT_ESCAPE)
+						: path.startsWith((String) value);
 				break;
 			case CONTAINS :
-				expression = path.contains((String) value);
+				expression = value instanceof Expression
+						? path.like(this.<String>toValueExpression(value), JPQLTemplates.DEFAULT_ESCAPE)
+						: path.contains((String) value);
 				break;
 			case LIKE :
-				expression = path.like((String) value);
+				expression = path.like(this.<String>toValueExpression(value));
 				break;
 			case EQUAL :
-				expression = path.eq((String) value);
+				expression = path.eq(this.<String>toValueExpression(value));
 				break;
 			case NOT_EQUAL :
-				expression = path.ne((String) value);
+				expression = path.ne(this.<String>toValueExpression(value));
 				break;
 			case IN :
-				expression = path.in((Collection<String>) value);
+				expression = applyIn(path, value);
 				break;
 			case NOT_IN :
-				expression = path.notIn((Collection<String>) value);
+				expression = applyNotIn(path, value);
 				break;
 			default :
 				throw new IllegalArgumentException("Unhandled operator : " + operator);
@@ -508,4 +1915,17 @@ public class DefaultEntityService implements IEntityService {
 		return expression;
 	}
 
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private Attribute<?, ?> findAttribute(final ManagedType<?> managedType, final String name) {
+		for (final Attribute<?, ?> attribute : managedType.getAttributes()) {
+			if (attribute.getName().equals(name)) {
+				return attribute;
+			}
+		}
+		return null;
+	}
+
 }
@@ -1,12 +1,19 @@
 package com.daikit.graphql.spring.jpa.service;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.metamodel.EntityType;
 
@@ -19,10 +26,16 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
 
 import com.daikit.generics.utils.GenericsUtils;
+import com.daikit.graphql.spring.jpa.index.IPersistenceIndex;
+import com.daikit.graphql.spring.jpa.index.PersistenceIndexEntry;
 import com.daikit.graphql.utils.Assert;
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.EntityPathBase;
+import com.querydsl.core.types.dsl.NumberPath;
 
 /**
  * Default persistence registry {@link IPersistenceRegistry}
@@ -34,9 +47,10 @@ public class DefaultPersistenceRegistry implements IPersistenceRegistry, Applica
 	@Autowired
 	private ApplicationContext applicationContext;
 
-	private final Map<Class<?>, JpaRepository<?, ?>> repositories = new HashMap<>();
-	private final Set<Class<?>> allEntityTypes = new HashSet<>();
-	private final Map<Class<?>, EntityPathBase<?>> entityPaths = new HashMap<>();
+	// Registrations are published as a whole : lookups read a consistent
+	// snapshot without locking
+	private volatile Snapshot snapshot = new Snapshot();
+	private final AtomicBoolean registered = new AtomicBoolean();
 
 	private final Collection<String> queryDslParentPackages;
 
@@ -75,43 +89,35 @@ public class DefaultPersistenceRegistry implements IPersistenceRegistry, Applica
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 
 	/**
-	 * Bean initialization method
+	 * Bean initialization method, calling {@link #register()} on the first
+	 * refresh of the application context of this registry
 	 */
-	@SuppressWarnings("rawtypes")
 	@Override
 	public void onApplicationEvent(final ContextRefreshedEvent event) {
-		// Register entities
-		for (final EntityManagerFactory entityManagerFactory : applicationContext
-				.getBeansOfType(EntityManagerFactory.class, false, false).values()) {
-			for (final EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
-				allEntityTypes.add(entityType.getJavaType());
-			}
-		}
-		// Register repositories for entities
-		for (final JpaRepository<?, ?> repository : applicationContext.getBeansOfType(JpaRepository.class, false, false)
-				.values()) {
-			final Class<?> repositoryEntityClass = GenericsUtils
-					.getTypeArgumentsAsClasses(repository.getClass(), JpaRepository.class).get(0);
-			repositories.put(repositoryEntityClass, repository);
-		}
-		// Register queryDSL for each entity
-		final Reflections reflections = new Reflections(queryDslParentPackages);
-		final Set<Class<? extends EntityPathBase>> entityPathClasses = reflections.getSubTypesOf(EntityPathBase.class);
-		for (final Class<? extends EntityPathBase> entityPathClass : entityPathClasses) {
-			final Class<?> entityClass = GenericsUtils.getTypeArgumentsAsClasses(entityPathClass, EntityPathBase.class)
-					.get(0);
-			EntityPathBase<?> entityPath;
-			try {
-				entityPath = (EntityPathBase<?>) FieldUtils.readDeclaredStaticField(entityPathClass,
-						WordUtils.uncapitalize(entityClass.getSimpleName()));
-			} catch (final IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
-			entityPaths.put(entityClass, entityPath);
+		// Child contexts publish their refresh events to this context too, and
+		// registration is done once
+		if (event.getApplicationContext() == applicationContext && registered.compareAndSet(false, true)) {
+			register();
 		}
+	}
+
+	/**
+	 * Register all entities, repositories and entity paths, replacing previous
+	 * registrations at once (lookups running meanwhile use the previous
+	 * ones). Entity paths are taken from the {@link IPersistenceIndex}
+	 * generated at build time if any, then found by name from entity classes
+	 * (see {@link #getEntityPathClassName(Class)}), query DSL parent packages
+	 * being scanned only for entity paths not found these ways. This method
+	 * may be called again to take new entities or repositories into account.
+	 */
+	public synchronized void register() {
+		final Snapshot registration = new Snapshot();
+		registerEntities(registration);
+		registerRepositories(registration);
+		registerEntityPaths(registration);
 		// Validate all repositories and queryDSL are present
-		for (final Class<?> entityClass : allEntityTypes) {
-			final Object repository = repositories.get(entityClass);
+		for (final Class<?> entityClass : registration.allEntityTypes) {
+			final Object repository = registration.repositories.get(entityClass);
 			if (repository == null) {
 				throw new RuntimeException("No repository registered for entity : " + entityClass.getName());
 			}
@@ -120,10 +126,11 @@ public class DefaultPersistenceRegistry implements IPersistenceRegistry, Applica
 						"Repository should be extending " + QuerydslPredicateExecutor.class.getSimpleName() + " and "
 								+ JpaRepository.class.getSimpleName() + " : " + entityClass.getName());
 			}
-			if (!entityPaths.containsKey(entityClass)) {
+			if (!registration.entityPaths.containsKey(entityClass)) {
 				throw new RuntimeException("No queryDSL class registered for entity : " + entityClass.getName());
 			}
 		}
+		snapshot = registration;
 	}
 
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
@@ -134,7 +141,7 @@ public class DefaultPersistenceRegistry implements IPersistenceRegistry, Applica
 	@Override
 	public <ENTITY_TYPE, ID_TYPE, RETURN_TYPE extends JpaRepository<ENTITY_TYPE, ID_TYPE> & QuerydslPredicateExecutor<ENTITY_TYPE>> RETURN_TYPE getRepository(
 			final Class<ENTITY_TYPE> entityClass) {
-		final Object repository = repositories.get(entityClass);
+		final Object repository = getRegistered(current -> current.repositories, entityClass);
 		if (repository == null) {
 			throw new IllegalArgumentException("No repository registered for entity : " + entityClass.getName());
 		}
@@ -144,10 +151,242 @@ public class DefaultPersistenceRegistry implements IPersistenceRegistry, Applica
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> EntityPathBase<T> getEntityPath(final Class<T> entityClass) {
-		final EntityPathBase<T> entityPath = (EntityPathBase<T>) entityPaths.get(entityClass);
+		final EntityPathBase<T> entityPath = (EntityPathBase<T>) getRegistered(current -> current.entityPaths,
+				entityClass);
 		if (entityPath == null) {
 			throw new IllegalArgumentException("No APT entity path registered for entity : " + entityClass.getName());
 		}
 		return entityPath;
 	}
+
+	@Override
+	public Path<?> getFieldPath(final Class<?> entityClass, final String fieldName) {
+		final Path<?> fieldPath = getFieldPaths(entityClass).get(fieldName);
+		if (fieldPath == null) {
+			throw new IllegalArgumentException(
+					"No APT path registered for field [" + fieldName + "] of entity : " + entityClass.getName());
+		}
+		return fieldPath;
+	}
+
+	@Override
+	public Map<String, Path<?>> getFieldPaths(final Class<?> entityClass) {
+		final Map<String, Path<?>> entityFieldPaths = getRegistered(current -> current.fieldPaths,
+				entityClass);
+		if (entityFieldPaths == null) {
+			throw new IllegalArgumentException("No APT entity path registered for entity : " + entityClass.getName());
+		}
+		return entityFieldPaths;
+	}
+
+	@Override
+	public <T> NumberPath<Long> getIdPath(final Class<T> entityClass) {
+		final NumberPath<Long> idPath = getRegistered(current -> current.idPaths, entityClass);
+		if (idPath == null) {
+			throw new IllegalArgumentException("No numeric ID path registered for entity : " + entityClass.getName());
+		}
+		return idPath;
+	}
+
+	@Override
+	public Class<?> getEntityClass(final Class<?> type) {
+		return snapshot.getEntityClass(type);
+	}
+
+	@Override
+	public EntityManager getEntityManager(final Class<?> entityClass) {
+		final EntityManager entityManager = getRegistered(current -> current.entityManagers, entityClass);
+		if (entityManager == null) {
+			throw new IllegalArgumentException("No entity manager registered for entity : " + entityClass.getName());
+		}
+		return entityManager;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PROTECTED METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Get the name of the query DSL entity path class of given entity class,
+	 * following the apt plugin naming : <code>QFoo</code> in the package of
+	 * <code>Foo</code> (<code>QOuter_Foo</code> for nested classes). Override
+	 * this method for another naming strategy.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return the entity path class name
+	 */
+	protected String getEntityPathClassName(final Class<?> entityClass) {
+		final String packagePrefix = entityClass.getPackage() == null
+				? ""
+				: entityClass.getPackage().getName() + ".";
+		return packagePrefix + "Q" + entityClass.getName().substring(packagePrefix.length()).replace('$', '_');
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Get the registration of given entity class (or of its registered super
+	 * class for proxy classes and subclasses) from the current snapshot
+	 */
+	private <T> T getRegistered(final Function<Snapshot, Map<Class<?>, T>> map, final Class<?> type) {
+		final Snapshot current = snapshot;
+		return current.get(map.apply(current), type);
+	}
+
+	private void registerEntities(final Snapshot registration) {
+		for (final EntityManagerFactory entityManagerFactory : applicationContext
+				.getBeansOfType(EntityManagerFactory.class, false, false).values()) {
+			final EntityManager entityManager = SharedEntityManagerCreator
+					.createSharedEntityManager(entityManagerFactory);
+			for (final EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+				registration.allEntityTypes.add(entityType.getJavaType());
+				registration.entityManagers.put(entityType.getJavaType(), entityManager);
+				if (entityType.hasSingleIdAttribute()) {
+					registration.idAttributeNames.put(entityType.getJavaType(),
+							entityType.getId(entityType.getIdType().getJavaType()).getName());
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private void registerRepositories(final Snapshot registration) {
+		// Spring data repositories know their domain type, other repositories
+		// are resolved from their generic types
+		final Repositories springDataRepositories = new Repositories(applicationContext);
+		registration.allEntityTypes.parallelStream()
+				.forEach(entityClass -> springDataRepositories.getRepositoryFor(entityClass)
+						.filter(JpaRepository.class::isInstance).ifPresent(repository -> registration.repositories
+								.put(entityClass, (JpaRepository<?, ?>) repository)));
+		if (registration.repositories.size() < registration.allEntityTypes.size()) {
+			applicationContext.getBeansOfType(JpaRepository.class, false, false).values().parallelStream()
+					.forEach(repository -> registration.repositories.putIfAbsent(GenericsUtils
+							.getTypeArgumentsAsClasses(repository.getClass(), JpaRepository.class).get(0),
+							repository));
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	private void registerEntityPaths(final Snapshot registration) {
+		// Generated indexes need no reflection
+		for (final IPersistenceIndex index : ServiceLoader.load(IPersistenceIndex.class,
+				applicationContext.getClassLoader())) {
+			for (final PersistenceIndexEntry entry : index.getEntries()) {
+				if (registration.allEntityTypes.contains(entry.getEntityClass())) {
+					registerEntityPath(registration, entry.getEntityClass(), entry.getEntityPath(),
+							entry.getFieldPaths());
+				}
+			}
+		}
+		final Map<Class<?>, Class<?>> entityPathClasses = new ConcurrentHashMap<>();
+		registration.allEntityTypes.stream().filter(entityClass -> !registration.entityPaths.containsKey(entityClass))
+				.parallel()
+				.forEach(entityClass -> {
+					try {
+						final Class<?> entityPathClass = Class.forName(getEntityPathClassName(entityClass), false,
+								entityClass.getClassLoader());
+						if (EntityPathBase.class.isAssignableFrom(entityPathClass)) {
+							entityPathClasses.put(entityClass, entityPathClass);
+						}
+					} catch (final ClassNotFoundException e) {
+						// Scanned for below
+					}
+				});
+		// Scan queryDSL parent packages for entity paths not found by name
+		if (registration.entityPaths.size() + entityPathClasses.size() < registration.allEntityTypes.size()) {
+			final Reflections reflections = new Reflections(queryDslParentPackages);
+			for (final Class<? extends EntityPathBase> entityPathClass : reflections
+					.getSubTypesOf(EntityPathBase.class)) {
+				final Class<?> entityClass = GenericsUtils
+						.getTypeArgumentsAsClasses(entityPathClass, EntityPathBase.class).get(0);
+				if (!registration.entityPaths.containsKey(entityClass)) {
+					entityPathClasses.putIfAbsent(entityClass, entityPathClass);
+				}
+			}
+		}
+		entityPathClasses.entrySet().parallelStream()
+				.forEach(entry -> registerEntityPath(registration, entry.getKey(), entry.getValue()));
+	}
+
+	private void registerEntityPath(final Snapshot registration, final Class<?> entityClass,
+			final Class<?> entityPathClass) {
+		EntityPathBase<?> entityPath;
+		final Map<String, Path<?>> entityFieldPaths = new HashMap<>();
+		try {
+			entityPath = (EntityPathBase<?>) FieldUtils.readDeclaredStaticField(entityPathClass,
+					WordUtils.uncapitalize(entityClass.getSimpleName()));
+			for (final Field field : entityPathClass.getFields()) {
+				if (!Modifier.isStatic(field.getModifiers()) && Path.class.isAssignableFrom(field.getType())
+						&& !field.getName().startsWith("_")) {
+					entityFieldPaths.put(field.getName(), (Path<?>) field.get(entityPath));
+				}
+			}
+		} catch (final IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+		registerEntityPath(registration, entityClass, entityPath, Collections.unmodifiableMap(entityFieldPaths));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void registerEntityPath(final Snapshot registration, final Class<?> entityClass,
+			final EntityPathBase<?> entityPath, final Map<String, Path<?>> entityFieldPaths) {
+		registration.entityPaths.put(entityClass, entityPath);
+		registration.fieldPaths.put(entityClass, entityFieldPaths);
+		final Path<?> idPath = entityFieldPaths.get(registration.idAttributeNames.get(entityClass));
+		if (idPath instanceof NumberPath) {
+			registration.idPaths.put(entityClass, (NumberPath<Long>) idPath);
+		}
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Registrations, filled by {@link DefaultPersistenceRegistry#register()}
+	 * and never modified once published
+	 */
+	private static final class Snapshot {
+
+		private final Set<Class<?>> allEntityTypes = ConcurrentHashMap.newKeySet();
+		private final Map<Class<?>, JpaRepository<?, ?>> repositories = new ConcurrentHashMap<>();
+		private final Map<Class<?>, EntityPathBase<?>> entityPaths = new ConcurrentHashMap<>();
+		private final Map<Class<?>, String> idAttributeNames = new ConcurrentHashMap<>();
+		private final Map<Class<?>, Map<String, Path<?>>> fieldPaths = new ConcurrentHashMap<>();
+		private final Map<Class<?>, NumberPath<Long>> idPaths = new ConcurrentHashMap<>();
+		private final Map<Class<?>, EntityManager> entityManagers = new ConcurrentHashMap<>();
+
+		/**
+		 * Registered entity class of proxy and subclasses, resolved once by
+		 * class
+		 */
+		private final ClassValue<Class<?>> entityClasses = new ClassValue<Class<?>>() {
+			@Override
+			protected Class<?> computeValue(final Class<?> type) {
+				for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+					if (allEntityTypes.contains(current)) {
+						return current;
+					}
+				}
+				return type;
+			}
+		};
+
+		private <T> T get(final Map<Class<?>, T> map, final Class<?> type) {
+			if (type == null) {
+				return null;
+			}
+			final T value = map.get(type);
+			return value == null ? map.get(entityClasses.get(type)) : value;
+		}
+
+		private Class<?> getEntityClass(final Class<?> type) {
+			return type == null || allEntityTypes.contains(type) ? type : entityClasses.get(type);
+		}
+
+	}
+
 }
@@ -0,0 +1,99 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+
+/**
+ * Per request {@link DataLoader} holder batching entity lookups by ID : all
+ * IDs of an entity type requested during a GraphQL execution tick are loaded
+ * with a single {@link IEntityService#findByIds(Class, java.util.Collection)}
+ * call. Create one instance for each GraphQL execution and give its
+ * {@link #getRegistry()} to the execution input so that loaders are
+ * dispatched by graphql-java. Loads go through the
+ * {@link EntityRequestCache} bound when the loader of an entity type is
+ * created, if any.
+ *
+ * @author Thibaut Caselli
+ */
+public class EntityDataLoaders {
+
+	private final IEntityService entityService;
+	private final DataLoaderRegistry registry = new DataLoaderRegistry();
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor.
+	 *
+	 * @param entityService
+	 *            the {@link IEntityService}
+	 */
+	public EntityDataLoaders(final IEntityService entityService) {
+		this.entityService = entityService;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PUBLIC METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Get (create if needed) the {@link DataLoader} of given entity type
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param <T>
+	 *            the entity type
+	 * @return the {@link DataLoader} of entities by ID
+	 */
+	public synchronized <T> DataLoader<Long, T> get(final Class<T> entityClass) {
+		DataLoader<Long, T> dataLoader = registry.getDataLoader(entityClass.getName());
+		if (dataLoader == null) {
+			// Loaders are dispatched outside data fetchers : the request cache
+			// bound while creating the loader is bound again for loading
+			final EntityRequestCache requestCache = EntityRequestCache.getCurrent();
+			dataLoader = DataLoader.newMappedDataLoader(ids -> {
+				if (requestCache == null) {
+					return CompletableFuture.completedFuture(entityService.findByIds(entityClass, ids));
+				}
+				try (EntityRequestCache.Scope scope = requestCache.bind()) {
+					return CompletableFuture.completedFuture(entityService.findByIds(entityClass, ids));
+				}
+			});
+			registry.register(entityClass.getName(), dataLoader);
+		}
+		return dataLoader;
+	}
+
+	/**
+	 * Load an entity by its ID within the current batch of its entity type
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param id
+	 *            the entity ID
+	 * @param <T>
+	 *            the entity type
+	 * @return a {@link CompletableFuture} completed with the entity or null
+	 *         if there is none with this ID
+	 */
+	public <T> CompletableFuture<T> load(final Class<T> entityClass, final Long id) {
+		return get(entityClass).load(id);
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the {@link DataLoaderRegistry} to be given to the GraphQL
+	 *         execution input
+	 */
+	public DataLoaderRegistry getRegistry() {
+		return registry;
+	}
+
+}
@@ -0,0 +1,158 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Identity cache of entities found by ID during one request (typically one
+ * GraphQL execution, see {@link EntityRequestCacheInstrumentation}) : while a
+ * cache is bound to the current thread, {@link IEntityService} lookups of an
+ * entity already found return the same instance without querying, and batch
+ * lookups only query entities not found yet. Lookup hits and misses are
+ * counted for measuring deduplication.
+ *
+ * @author Thibaut Caselli
+ */
+public class EntityRequestCache {
+
+	private static final ThreadLocal<EntityRequestCache> CURRENT = new ThreadLocal<>();
+
+	private final Map<Class<?>, Map<Long, Object>> entities = new ConcurrentHashMap<>();
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the cache bound to the current thread or null
+	 */
+	public static EntityRequestCache getCurrent() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Bind this cache to the current thread until the returned {@link Scope}
+	 * is closed, the previously bound cache being then restored
+	 *
+	 * @return the {@link Scope} to be closed
+	 */
+	public Scope bind() {
+		final EntityRequestCache previous = CURRENT.get();
+		CURRENT.set(this);
+		return new Scope(previous);
+	}
+
+	/**
+	 * Get the entity cached for given ID, counting a hit or a miss
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param id
+	 *            the entity ID
+	 * @param <T>
+	 *            the entity type
+	 * @return the cached entity or null
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(final Class<T> entityClass, final Long id) {
+		final Map<Long, Object> entitiesById = entities.get(entityClass);
+		final Object entity = entitiesById == null ? null : entitiesById.get(id);
+		(entity == null ? missCount : hitCount).incrementAndGet();
+		return (T) entity;
+	}
+
+	/**
+	 * Cache an entity
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param id
+	 *            the entity ID
+	 * @param entity
+	 *            the entity
+	 */
+	public void put(final Class<?> entityClass, final Long id, final Object entity) {
+		entities.computeIfAbsent(entityClass, key -> new ConcurrentHashMap<>()).put(id, entity);
+	}
+
+	/**
+	 * Remove the entity cached for given ID
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param id
+	 *            the entity ID
+	 */
+	public void remove(final Class<?> entityClass, final Long id) {
+		final Map<Long, Object> entitiesById = entities.get(entityClass);
+		if (entitiesById != null) {
+			entitiesById.remove(id);
+		}
+	}
+
+	/**
+	 * Remove all cached entities
+	 */
+	public void clear() {
+		entities.clear();
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the number of lookups that found a cached entity
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return the number of lookups that did not find a cached entity
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return the ratio of lookups deduplicated by this cache (0 if there was
+	 *         no lookup)
+	 */
+	public double getDedupeRatio() {
+		final long hits = hitCount.get();
+		final long lookups = hits + missCount.get();
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Binding of a cache to the current thread, to be closed in the same
+	 * thread
+	 */
+	public static final class Scope implements AutoCloseable {
+
+		private final EntityRequestCache previous;
+
+		private Scope(final EntityRequestCache previous) {
+			this.previous = previous;
+		}
+
+		@Override
+		public void close() {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+
+	}
+
+}
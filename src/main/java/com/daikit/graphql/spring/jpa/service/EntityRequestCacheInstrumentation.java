@@ -0,0 +1,111 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+
+/**
+ * GraphQL instrumentation giving each execution its own
+ * {@link EntityRequestCache}, bound to the thread of each data fetcher call
+ * and cleared when the execution completes. Hits and misses of all executions
+ * are summed for measuring deduplication.
+ *
+ * @author Thibaut Caselli
+ */
+public class EntityRequestCacheInstrumentation extends SimpleInstrumentation {
+
+	private static Logger logger = LoggerFactory.getLogger(EntityRequestCacheInstrumentation.class);
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	@Override
+	public InstrumentationState createState() {
+		return new CacheState();
+	}
+
+	@Override
+	public InstrumentationContext<ExecutionResult> beginExecution(final InstrumentationExecutionParameters parameters) {
+		final EntityRequestCache cache = parameters.<CacheState> getInstrumentationState().cache;
+		return new SimpleInstrumentationContext<ExecutionResult>() {
+			@Override
+			public void onCompleted(final ExecutionResult result, final Throwable t) {
+				hitCount.addAndGet(cache.getHitCount());
+				missCount.addAndGet(cache.getMissCount());
+				logger.debug("Entity lookups : {} hits, {} misses (dedupe ratio {})", cache.getHitCount(),
+						cache.getMissCount(), cache.getDedupeRatio());
+				cache.clear();
+			}
+		};
+	}
+
+	@Override
+	public DataFetcher<?> instrumentDataFetcher(final DataFetcher<?> dataFetcher,
+			final InstrumentationFieldFetchParameters parameters) {
+		// Property data fetchers do not look entities up
+		if (parameters.isTrivialDataFetcher()) {
+			return dataFetcher;
+		}
+		final EntityRequestCache cache = parameters.<CacheState> getInstrumentationState().cache;
+		return environment -> {
+			try (EntityRequestCache.Scope scope = cache.bind()) {
+				return dataFetcher.get(environment);
+			}
+		};
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the number of entity lookups of completed executions that found
+	 *         a cached entity
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return the number of entity lookups of completed executions that did
+	 *         not find a cached entity
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return the ratio of entity lookups of completed executions
+	 *         deduplicated by their cache (0 if there was no lookup)
+	 */
+	public double getDedupeRatio() {
+		final long hits = hitCount.get();
+		final long lookups = hits + missCount.get();
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private static final class CacheState implements InstrumentationState {
+
+		private final EntityRequestCache cache = new EntityRequestCache();
+
+	}
+
+}
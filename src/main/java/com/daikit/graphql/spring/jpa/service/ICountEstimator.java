@@ -0,0 +1,28 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import java.util.Optional;
+
+import com.querydsl.core.types.Predicate;
+
+/**
+ * Estimator of entity row counts used for the
+ * {@link com.daikit.graphql.spring.jpa.data.CountPolicyEnum#ESTIMATED} count
+ * policy
+ *
+ * @author Thibaut Caselli
+ */
+public interface ICountEstimator {
+
+	/**
+	 * Estimate the number of entities matching given predicate
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param predicate
+	 *            the filtering {@link Predicate} (may be null)
+	 * @return the {@link Optional} estimated count, empty if no estimate is
+	 *         available (an exact count will then be done)
+	 */
+	Optional<Long> estimate(Class<?> entityClass, Predicate predicate);
+
+}
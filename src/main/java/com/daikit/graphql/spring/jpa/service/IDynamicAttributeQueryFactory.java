@@ -0,0 +1,50 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import com.daikit.graphql.dynamicattribute.IGQLDynamicAttributeGetter;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.core.types.dsl.EntityPathBase;
+
+/**
+ * Factory of query expressions for a dynamic attribute, to be implemented by
+ * its {@link IGQLDynamicAttributeGetter} so that filters and orders on this
+ * attribute are applied in database. Dynamic attributes without factory are
+ * filtered and ordered in memory.
+ *
+ * @author Thibaut Caselli
+ */
+public interface IDynamicAttributeQueryFactory {
+
+	/**
+	 * Create the filter expression of the dynamic attribute
+	 *
+	 * @param basePath
+	 *            the entity {@link EntityPathBase}
+	 * @param operator
+	 *            the {@link GQLFilterOperatorEnum}
+	 * @param value
+	 *            the filter value expression : a constant or a query plan
+	 *            parameter. Values of {@link GQLFilterOperatorEnum#STARTS_WITH},
+	 *            {@link GQLFilterOperatorEnum#ENDS_WITH} and
+	 *            {@link GQLFilterOperatorEnum#CONTAINS} are like patterns, to be
+	 *            used with <code>like</code>.
+	 * @return the filter {@link BooleanExpression} or null if this operator is
+	 *         not handled (the filter is then applied in memory)
+	 */
+	BooleanExpression createFilter(EntityPathBase<?> basePath, GQLFilterOperatorEnum operator, Expression<?> value);
+
+	/**
+	 * Get the expression to order by for the dynamic attribute
+	 *
+	 * @param basePath
+	 *            the entity {@link EntityPathBase}
+	 * @return the {@link ComparableExpressionBase} or null if ordering must be
+	 *         done in memory
+	 */
+	default ComparableExpressionBase<?> getOrderExpression(final EntityPathBase<?> basePath) {
+		return null;
+	}
+
+}
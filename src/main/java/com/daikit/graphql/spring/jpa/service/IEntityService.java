@@ -1,11 +1,15 @@
 package com.daikit.graphql.spring.jpa.service;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.daikit.graphql.data.input.GQLListLoadConfig;
 import com.daikit.graphql.data.output.GQLListLoadResult;
 import com.daikit.graphql.datafetcher.GQLDynamicAttributeRegistry;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.data.ListLoadResult;
 
 /**
  * Service allowing to execute persistence methods on no matter which entity
@@ -28,6 +32,38 @@ public interface IEntityService {
 	 */
 	<T> Optional<T> findById(Class<T> entityClass, Long id);
 
+	/**
+	 * Find an entity by its ID, fetching the associations of given selected
+	 * fields
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param id
+	 *            the ID
+	 * @param selectedFields
+	 *            the selected field paths, nested fields being dotted (may be
+	 *            null)
+	 * @param <T>
+	 *            the entity type
+	 * @return an {@link Optional} entity
+	 */
+	<T> Optional<T> findById(Class<T> entityClass, Long id, Collection<String> selectedFields);
+
+	/**
+	 * Find entities by their IDs with as few queries as possible (IN queries
+	 * chunked according to
+	 * {@link com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties#getInClauseChunkSize()})
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param ids
+	 *            the IDs
+	 * @param <T>
+	 *            the entity type
+	 * @return a map of found entities by ID (missing IDs are not in the map)
+	 */
+	<T> Map<Long, T> findByIds(Class<T> entityClass, Collection<Long> ids);
+
 	/**
 	 * Find all entities with filter/paging/sorting according to given
 	 * {@link GQLListLoadConfig}
@@ -41,13 +77,63 @@ public interface IEntityService {
 	GQLListLoadResult findAll(Class<?> entityClass, GQLListLoadConfig listLoadConfig);
 
 	/**
-	 * Save an entity
+	 * Find all entities with filter/paging/sorting according to given
+	 * {@link GQLListLoadConfig} and additional {@link ListLoadOptions}
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @return a {@link ListLoadResult}
+	 */
+	ListLoadResult findAll(Class<?> entityClass, GQLListLoadConfig listLoadConfig, ListLoadOptions options);
+
+	/**
+	 * Stream all entities with filter/sorting according to given
+	 * {@link GQLListLoadConfig} and additional {@link ListLoadOptions} to
+	 * given consumer. Entities are scrolled forward only in a dedicated
+	 * session sharing the connection of the current (read only by default)
+	 * transaction, which is cleared regularly so that memory does not grow
+	 * with the number of rows : the consumer must not keep references on
+	 * streamed entities nor lazy load their associations after having handled
+	 * them. The persistence context of the caller is left untouched. Paging is
+	 * applied if configured, keyset paging and count policy are ignored.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @param consumer
+	 *            the consumer of each streamed entity
+	 * @return the number of streamed entities
+	 */
+	long stream(Class<?> entityClass, GQLListLoadConfig listLoadConfig, ListLoadOptions options,
+			Consumer<Object> consumer);
+
+	/**
+	 * Save an entity. The saved instance (the managed one a detached entity is
+	 * merged into) replaces any instance found earlier for the same ID in the
+	 * current {@link EntityRequestCache}.
 	 *
 	 * @param entity
 	 *            the entity
 	 */
 	void save(Object entity);
 
+	/**
+	 * Save entities, possibly of different types, within one transaction so
+	 * that their statements are JDBC batched. Saved instances are put in the
+	 * current {@link EntityRequestCache} like by {@link #save(Object)}.
+	 *
+	 * @param entities
+	 *            the entities
+	 */
+	void saveAll(Collection<?> entities);
+
 	/**
 	 * Delete an entity by its ID
 	 *
@@ -58,6 +144,19 @@ public interface IEntityService {
 	 */
 	void delete(Class<?> entityClass, Long id);
 
+	/**
+	 * Delete entities by their IDs within one transaction. A bulk delete
+	 * query is issued when the entity type has no cascade, no collection and
+	 * is not audited, otherwise entities are loaded and removed one by one
+	 * (removals being JDBC batched).
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param ids
+	 *            the entity IDs
+	 */
+	void deleteAll(Class<?> entityClass, Collection<Long> ids);
+
 	/**
 	 * Find existing entity or create a new one and set properties
 	 *
@@ -0,0 +1,25 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.querydsl.core.types.dsl.BooleanExpression;
+
+/**
+ * Factory of filter expressions for one resolved entity field path
+ *
+ * @author Thibaut Caselli
+ */
+@FunctionalInterface
+public interface IFilterExpressionFactory {
+
+	/**
+	 * Create the filter expression for given operator and value
+	 *
+	 * @param operator
+	 *            the {@link GQLFilterOperatorEnum}
+	 * @param value
+	 *            the filter value
+	 * @return the created {@link BooleanExpression}
+	 */
+	BooleanExpression create(GQLFilterOperatorEnum operator, Object value);
+
+}
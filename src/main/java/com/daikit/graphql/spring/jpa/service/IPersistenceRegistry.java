@@ -1,9 +1,15 @@
 package com.daikit.graphql.spring.jpa.service;
 
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.EntityPathBase;
+import com.querydsl.core.types.dsl.NumberPath;
 
 /**
  * Registry for quick access to beans and APT object related to persistence
@@ -39,4 +45,58 @@ public interface IPersistenceRegistry {
 	 */
 	<T> EntityPathBase<T> getEntityPath(Class<T> entityClass);
 
+	/**
+	 * Get the APT path of given field of given entity class. Field paths are
+	 * resolved once at registry initialization.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param fieldName
+	 *            the field name
+	 * @return the field {@link Path}
+	 */
+	Path<?> getFieldPath(Class<?> entityClass, String fieldName);
+
+	/**
+	 * Get the APT paths of all fields of given entity class
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return the unmodifiable map of field {@link Path} by field name
+	 */
+	Map<String, Path<?>> getFieldPaths(Class<?> entityClass);
+
+	/**
+	 * Get the APT path of the ID attribute of given entity class
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param <T>
+	 *            the entity type
+	 * @return the ID {@link NumberPath}
+	 */
+	<T> NumberPath<Long> getIdPath(Class<T> entityClass);
+
+	/**
+	 * Get the registered entity class of given type : the type itself if it is
+	 * a registered entity class, otherwise its registered super class (like
+	 * for proxy classes). All lookups of this registry resolve given classes
+	 * this way.
+	 *
+	 * @param type
+	 *            the type, for example the class of an entity instance
+	 * @return the registered entity class, or given type if it has none
+	 */
+	Class<?> getEntityClass(Class<?> type);
+
+	/**
+	 * Get the shared {@link EntityManager} of the persistence unit managing
+	 * given entity class
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @return the {@link EntityManager}
+	 */
+	EntityManager getEntityManager(Class<?> entityClass);
+
 }
@@ -0,0 +1,241 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityGraph;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Param;
+
+/**
+ * Query plan of an entity list load shape (entity class, selected fields,
+ * filter fields and operators, order by, paging) : JPQL queries rendered once
+ * with parameters in place of filter and keyset cursor values, so that loads
+ * with the same shape only have to bind values.
+ *
+ * @author Thibaut Caselli
+ */
+public class QueryPlan {
+
+	private final Predicate predicate;
+	private final List<OrderSpecifier<?>> orders;
+	private final FactoryExpression<?> projection;
+	private final List<Param<Object>> filterParams;
+	private final Map<Integer, List<Param<Object>>> inClauseChunkParams;
+	private final List<Param<Object>> keysetParams;
+	private final String query;
+	private final Map<Object, String> queryConstants;
+	private final String countQuery;
+	private final Map<Object, String> countQueryConstants;
+	private final EntityGraph<?> entityGraph;
+	private final String idQuery;
+	private final Map<Object, String> idQueryConstants;
+	private final List<Integer> inMemoryFilters;
+	private final boolean inMemoryOrder;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor.
+	 *
+	 * @param predicate
+	 *            the filtering {@link Predicate} (with parameters, may be null)
+	 * @param orders
+	 *            the {@link OrderSpecifier} list
+	 * @param projection
+	 *            the {@link FactoryExpression} creating entities from selected
+	 *            columns (null when entities are selected)
+	 * @param filterParams
+	 *            the parameters of filter values, in filter order
+	 * @param inClauseChunkParams
+	 *            the parameters of the chunks following the first one of IN
+	 *            and NOT_IN filter value lists split into several clauses, by
+	 *            filter index
+	 * @param keysetParams
+	 *            the parameters of keyset cursor values, in order by order
+	 *            (null for null cursor values)
+	 * @param query
+	 *            the rendered JPQL query
+	 * @param queryConstants
+	 *            the constant (or parameter) to label map of the JPQL query
+	 * @param countQuery
+	 *            the rendered JPQL count query
+	 * @param countQueryConstants
+	 *            the constant (or parameter) to label map of the JPQL count
+	 *            query
+	 * @param entityGraph
+	 *            the {@link EntityGraph} of selected associations to be
+	 *            fetched (may be null)
+	 * @param idQuery
+	 *            the rendered JPQL query selecting the IDs of a page, when
+	 *            the entity graph fetches a collection and cannot be applied
+	 *            to a paged query (may be null)
+	 * @param idQueryConstants
+	 *            the constant (or parameter) to label map of the JPQL ID
+	 *            query (may be null)
+	 * @param inMemoryFilters
+	 *            the indexes of the filters on dynamic attributes to be
+	 *            applied in memory, not being part of the predicate
+	 * @param inMemoryOrder
+	 *            whether ordering must be done in memory because of dynamic
+	 *            attributes
+	 */
+	public QueryPlan(final Predicate predicate, final List<OrderSpecifier<?>> orders,
+			final FactoryExpression<?> projection, final List<Param<Object>> filterParams,
+			final Map<Integer, List<Param<Object>>> inClauseChunkParams, final List<Param<Object>> keysetParams,
+			final String query, final Map<Object, String> queryConstants, final String countQuery,
+			final Map<Object, String> countQueryConstants, final EntityGraph<?> entityGraph, final String idQuery,
+			final Map<Object, String> idQueryConstants, final List<Integer> inMemoryFilters,
+			final boolean inMemoryOrder) {
+		this.predicate = predicate;
+		this.orders = orders;
+		this.projection = projection;
+		this.filterParams = filterParams;
+		this.inClauseChunkParams = inClauseChunkParams;
+		this.keysetParams = keysetParams;
+		this.query = query;
+		this.queryConstants = queryConstants;
+		this.countQuery = countQuery;
+		this.countQueryConstants = countQueryConstants;
+		this.entityGraph = entityGraph;
+		this.idQuery = idQuery;
+		this.idQueryConstants = idQueryConstants;
+		this.inMemoryFilters = inMemoryFilters;
+		this.inMemoryOrder = inMemoryOrder;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return whether loaded entities must be filtered or ordered in memory
+	 */
+	public boolean isInMemory() {
+		return inMemoryOrder || !inMemoryFilters.isEmpty();
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the filtering {@link Predicate} (with parameters, may be null)
+	 */
+	public Predicate getPredicate() {
+		return predicate;
+	}
+
+	/**
+	 * @return the {@link OrderSpecifier} list
+	 */
+	public List<OrderSpecifier<?>> getOrders() {
+		return orders;
+	}
+
+	/**
+	 * @return the {@link FactoryExpression} creating entities from selected
+	 *         columns (null when entities are selected)
+	 */
+	public FactoryExpression<?> getProjection() {
+		return projection;
+	}
+
+	/**
+	 * @return the parameters of filter values, in filter order
+	 */
+	public List<Param<Object>> getFilterParams() {
+		return filterParams;
+	}
+
+	/**
+	 * @return the parameters of the chunks following the first one of IN and
+	 *         NOT_IN filter value lists split into several clauses, by filter
+	 *         index
+	 */
+	public Map<Integer, List<Param<Object>>> getInClauseChunkParams() {
+		return inClauseChunkParams;
+	}
+
+	/**
+	 * @return the parameters of keyset cursor values, in order by order (null
+	 *         for null cursor values)
+	 */
+	public List<Param<Object>> getKeysetParams() {
+		return keysetParams;
+	}
+
+	/**
+	 * @return the rendered JPQL query
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return the constant (or parameter) to label map of the JPQL query
+	 */
+	public Map<Object, String> getQueryConstants() {
+		return queryConstants;
+	}
+
+	/**
+	 * @return the rendered JPQL count query
+	 */
+	public String getCountQuery() {
+		return countQuery;
+	}
+
+	/**
+	 * @return the constant (or parameter) to label map of the JPQL count query
+	 */
+	public Map<Object, String> getCountQueryConstants() {
+		return countQueryConstants;
+	}
+
+	/**
+	 * @return the {@link EntityGraph} of selected associations to be fetched
+	 *         (may be null)
+	 */
+	public EntityGraph<?> getEntityGraph() {
+		return entityGraph;
+	}
+
+	/**
+	 * @return the rendered JPQL query selecting the IDs of a page, when the
+	 *         entity graph fetches a collection and cannot be applied to a
+	 *         paged query (may be null)
+	 */
+	public String getIdQuery() {
+		return idQuery;
+	}
+
+	/**
+	 * @return the constant (or parameter) to label map of the JPQL ID query
+	 *         (may be null)
+	 */
+	public Map<Object, String> getIdQueryConstants() {
+		return idQueryConstants;
+	}
+
+	/**
+	 * @return the indexes of the filters on dynamic attributes to be applied
+	 *         in memory
+	 */
+	public List<Integer> getInMemoryFilters() {
+		return inMemoryFilters;
+	}
+
+	/**
+	 * @return whether ordering must be done in memory
+	 */
+	public boolean isInMemoryOrder() {
+		return inMemoryOrder;
+	}
+
+}
@@ -0,0 +1,675 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.daikit.graphql.config.GQLSchemaConfig;
+import com.daikit.graphql.data.input.GQLFilterEntry;
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.data.output.GQLOrderByEntry;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties;
+import com.daikit.graphql.spring.jpa.data.KeysetCursor;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.utils.LruCache;
+import com.daikit.graphql.utils.Assert;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BeanPath;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.CollectionPathBase;
+import com.querydsl.core.types.dsl.ComparablePath;
+import com.querydsl.core.types.dsl.DatePath;
+import com.querydsl.core.types.dsl.DateTimePath;
+import com.querydsl.core.types.dsl.EntityPathBase;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.MapPath;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.TimePath;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+
+/**
+ * Compiler of the {@link QueryPlan} of entity list loads : plans are keyed by
+ * load shape and cached, rendered with parameters in place of filter and
+ * keyset cursor values, and bound to the values of each load. Filter and order
+ * by expressions are created by the {@link DefaultEntityService} the compiler
+ * belongs to.
+ *
+ * @author Thibaut Caselli
+ */
+public class QueryPlanCompiler {
+
+	private static Logger logger = LoggerFactory.getLogger(QueryPlanCompiler.class);
+
+	private final DefaultEntityService entityService;
+	private final IPersistenceRegistry persistenceRegistry;
+	private final GQLSchemaConfig schemaConfig;
+	private final SpringDataGraphqlJpaProperties properties;
+	private final LruCache<String, QueryPlan> queryPlans;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor.
+	 *
+	 * @param entityService
+	 *            the {@link DefaultEntityService} creating filter and order by
+	 *            expressions
+	 * @param persistenceRegistry
+	 *            the {@link IPersistenceRegistry}
+	 * @param schemaConfig
+	 *            the {@link GQLSchemaConfig}
+	 * @param properties
+	 *            the {@link SpringDataGraphqlJpaProperties}
+	 */
+	public QueryPlanCompiler(final DefaultEntityService entityService, final IPersistenceRegistry persistenceRegistry,
+			final GQLSchemaConfig schemaConfig, final SpringDataGraphqlJpaProperties properties) {
+		this.entityService = entityService;
+		this.persistenceRegistry = persistenceRegistry;
+		this.schemaConfig = schemaConfig;
+		this.properties = properties;
+		queryPlans = new LruCache<>(properties.getQueryPlanCacheMaxSize());
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PUBLIC METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Get the query plan of given load shape from cache, creating it if
+	 * missing
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @param keyset
+	 *            whether keyset paging is used
+	 * @param cursor
+	 *            the {@link KeysetCursor} (may be null)
+	 * @return the {@link QueryPlan}
+	 */
+	public QueryPlan getQueryPlan(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig,
+			final ListLoadOptions options, final boolean keyset, final KeysetCursor cursor) {
+		final List<Path<?>> projectionPaths = getProjectionPaths(entityClass, listLoadConfig, options);
+		final SortedSet<String> fetchPaths = projectionPaths == null
+				? entityService.getFetchPaths(entityClass, options.getSelectedFields())
+				: Collections.emptySortedSet();
+		final String queryPlanKey = createQueryPlanKey(entityClass, listLoadConfig, projectionPaths, fetchPaths,
+				keyset, cursor, options.isIgnoreCase());
+		QueryPlan queryPlan = queryPlans.get(queryPlanKey);
+		if (queryPlan == null) {
+			queryPlan = createQueryPlan(entityClass, listLoadConfig, projectionPaths, fetchPaths, keyset, cursor,
+					options);
+			queryPlans.put(queryPlanKey, queryPlan);
+		}
+		return queryPlan;
+	}
+
+	/**
+	 * Bind the filter and keyset cursor values of a load to the parameters of
+	 * its query plan
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param queryPlan
+	 *            the {@link QueryPlan}
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param cursor
+	 *            the {@link KeysetCursor} (may be null)
+	 * @return the parameter values
+	 */
+	public Map<ParamExpression<?>, Object> bindParameters(final Class<?> entityClass, final QueryPlan queryPlan,
+			final GQLListLoadConfig listLoadConfig, final KeysetCursor cursor) {
+		final Map<ParamExpression<?>, Object> parameters = new HashMap<>();
+		if (listLoadConfig.isFiltered()) {
+			for (int i = 0; i < listLoadConfig.getFilters().size(); i++) {
+				final GQLFilterEntry filter = listLoadConfig.getFilters().get(i);
+				final Path<?> path = filter.isDynamic()
+						? null
+						: entityService.resolveFieldPath(entityClass, filter.getFieldName());
+				final Object value = entityService.bindFilterValue(path, filter.getOperator(), filter.getValue());
+				final List<Param<Object>> chunkParams = queryPlan.getInClauseChunkParams().get(Integer.valueOf(i));
+				if (chunkParams == null) {
+					parameters.put(queryPlan.getFilterParams().get(i), value);
+				} else {
+					// Split the value list between the IN clauses
+					final List<?> values = (List<?>) value;
+					final int chunkSize = properties.getInClauseChunkSize();
+					parameters.put(queryPlan.getFilterParams().get(i),
+							values.subList(0, Math.min(chunkSize, values.size())));
+					for (int chunk = 1; chunk <= chunkParams.size(); chunk++) {
+						parameters.put(chunkParams.get(chunk - 1), values.subList(Math.min(chunk * chunkSize,
+								values.size()), Math.min((chunk + 1) * chunkSize, values.size())));
+					}
+				}
+			}
+		}
+		if (cursor != null) {
+			for (int i = 0; i < queryPlan.getKeysetParams().size(); i++) {
+				final Param<Object> keysetParam = queryPlan.getKeysetParams().get(i);
+				if (keysetParam != null) {
+					parameters.put(keysetParam,
+							cursor.getValue(i, queryPlan.getOrders().get(i).getTarget().getType()));
+				}
+			}
+		}
+		return parameters;
+	}
+
+	/**
+	 * Create the keyset cursor of given entity for given orders
+	 *
+	 * @param orders
+	 *            the orders, the last one being on entity ID
+	 * @param entity
+	 *            the entity (last row of the page)
+	 * @return the {@link KeysetCursor}
+	 * @throws IllegalAccessException
+	 *             if an order by field cannot be read
+	 */
+	public KeysetCursor createKeysetCursor(final List<OrderSpecifier<?>> orders, final Object entity)
+			throws IllegalAccessException {
+		final List<Object> values = new ArrayList<>();
+		for (final OrderSpecifier<?> order : orders) {
+			if (!(order.getTarget() instanceof Path)) {
+				throw new IllegalArgumentException(
+						"Keyset paging is not supported when ordering by expression : " + order.getTarget());
+			}
+			values.add(FieldUtils.readField(entity, ((Path<?>) order.getTarget()).getMetadata().getName(), true));
+		}
+		return new KeysetCursor(values);
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PROTECTED METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Create the key of the query plan of given load shape : entity class,
+	 * selected fields, fetched associations, filter fields and operators
+	 * (with the number of clauses of long IN lists and empty IN lists), case
+	 * sensitivity, order by fields and directions, paging and null keyset
+	 * cursor values.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param projectionPaths
+	 *            the selected field paths (null when entities are selected)
+	 * @param fetchPaths
+	 *            the association paths to be fetched
+	 * @param keyset
+	 *            whether keyset paging is used
+	 * @param cursor
+	 *            the {@link KeysetCursor} (may be null)
+	 * @param ignoreCase
+	 *            whether String filters ignore case
+	 * @return the query plan key
+	 */
+	protected String createQueryPlanKey(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig,
+			final List<Path<?>> projectionPaths, final SortedSet<String> fetchPaths, final boolean keyset,
+			final KeysetCursor cursor, final boolean ignoreCase) {
+		final StringBuilder key = new StringBuilder(entityClass.getName());
+		if (projectionPaths != null) {
+			for (final Path<?> projectionPath : projectionPaths) {
+				key.append("|select:").append(projectionPath.getMetadata().getName());
+			}
+		}
+		for (final String fetchPath : fetchPaths) {
+			key.append("|fetch:").append(fetchPath);
+		}
+		if (listLoadConfig.isFiltered()) {
+			for (final GQLFilterEntry filter : listLoadConfig.getFilters()) {
+				key.append(filter.isDynamic() ? "|dynamic:" : "|filter:").append(filter.getFieldName()).append(':')
+						.append(filter.getOperator());
+				final int chunkCount = getInClauseChunkCount(entityClass, filter);
+				if (chunkCount == 0) {
+					key.append(":empty");
+				} else if (chunkCount > 1) {
+					key.append(':').append(chunkCount);
+				}
+			}
+			key.append(ignoreCase ? "|ignoreCase" : "");
+		}
+		if (listLoadConfig.isOrdered()) {
+			for (final GQLOrderByEntry orderBy : listLoadConfig.getOrderBy()) {
+				key.append("|order:").append(orderBy.getField()).append(':').append(orderBy.getDirection());
+			}
+		}
+		key.append(listLoadConfig.isPaged() ? "|paged" : "|all");
+		if (keyset) {
+			key.append("|keyset:");
+			for (int i = 0; cursor != null && i < cursor.size(); i++) {
+				key.append(cursor.getValue(i, Object.class) == null ? 'N' : 'V');
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Create the query plan of given load shape, rendering its JPQL queries
+	 * with parameters in place of filter and keyset cursor values
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param projectionPaths
+	 *            the selected field paths (null when entities are selected)
+	 * @param fetchPaths
+	 *            the association paths to be fetched
+	 * @param keyset
+	 *            whether keyset paging is used
+	 * @param cursor
+	 *            the {@link KeysetCursor} (may be null)
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @return the {@link QueryPlan}
+	 */
+	protected QueryPlan createQueryPlan(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig,
+			final List<Path<?>> projectionPaths, final SortedSet<String> fetchPaths, final boolean keyset,
+			final KeysetCursor cursor, final ListLoadOptions options) {
+		final EntityManager entityManager = persistenceRegistry.getEntityManager(entityClass);
+		final EntityPathBase<?> basePath = persistenceRegistry.getEntityPath(entityClass);
+
+		// Apply filtering, filters on dynamic attributes without query
+		// expression being applied in memory and lower and upper bounds on the
+		// same field being merged into a between
+		final List<Param<Object>> filterParams = new ArrayList<>();
+		final Map<Integer, List<Param<Object>>> inClauseChunkParams = new HashMap<>();
+		final List<Integer> inMemoryFilters = new ArrayList<>();
+		BooleanExpression predicate = null;
+		if (listLoadConfig.isFiltered()) {
+			final List<GQLFilterEntry> filters = listLoadConfig.getFilters();
+			for (int i = 0; i < filters.size(); i++) {
+				filterParams.add(new Param<>(Object.class, "filter" + i));
+			}
+			final Map<Integer, Integer> betweens = findBetweenFilters(entityClass, filters);
+			for (int i = 0; i < filters.size(); i++) {
+				final GQLFilterEntry filter = filters.get(i);
+				final Integer upperBound = betweens.get(Integer.valueOf(i));
+				BooleanExpression current;
+				if (upperBound != null) {
+					current = Expressions.booleanOperation(Ops.BETWEEN,
+							entityService.resolveFieldPath(entityClass, filter.getFieldName()), filterParams.get(i),
+							filterParams.get(upperBound.intValue()));
+				} else if (betweens.containsValue(Integer.valueOf(i))) {
+					continue;
+				} else if (getInClauseChunkCount(entityClass, filter) == 0) {
+					// Empty IN lists match no row and empty NOT_IN lists any row
+					current = Expressions.booleanTemplate(
+							GQLFilterOperatorEnum.IN.equals(filter.getOperator()) ? "1 = 2" : "1 = 1");
+				} else {
+					current = entityService.applyFilter(basePath, filter, filterParams.get(i), options);
+					// Split long IN lists into several clauses
+					final int chunkCount = getInClauseChunkCount(entityClass, filter);
+					if (current != null && chunkCount > 1) {
+						final List<Param<Object>> chunkParams = new ArrayList<>();
+						for (int chunk = 1; chunk < chunkCount; chunk++) {
+							final Param<Object> chunkParam = new Param<>(Object.class, "filter" + i + "_" + chunk);
+							chunkParams.add(chunkParam);
+							final BooleanExpression chunkExpression = entityService.applyFilter(basePath, filter,
+									chunkParam, options);
+							current = GQLFilterOperatorEnum.IN.equals(filter.getOperator())
+									? current.or(chunkExpression)
+									: current.and(chunkExpression);
+						}
+						inClauseChunkParams.put(Integer.valueOf(i), chunkParams);
+					}
+				}
+				if (current == null) {
+					logger.warn("Dynamic attribute [{}] of [{}] has no query expression for operator [{}] :"
+							+ " filtering in memory (at most {} rows)", filter.getFieldName(),
+							entityClass.getName(), filter.getOperator(), properties.getDynamicAttributeMaxRows());
+					inMemoryFilters.add(Integer.valueOf(i));
+				} else {
+					predicate = predicate == null ? current : predicate.and(current);
+				}
+			}
+		}
+
+		// Apply ordering, ordering by dynamic attributes without order
+		// expression being done in memory
+		final List<OrderSpecifier<?>> orders = new ArrayList<>();
+		final Map<Path<?>, EntityPathBase<?>> joins = new LinkedHashMap<>();
+		boolean inMemoryOrder = false;
+		if (listLoadConfig.isOrdered()) {
+			for (final GQLOrderByEntry orderBy : listLoadConfig.getOrderBy()) {
+				final OrderSpecifier<?> order = entityService.applyOrderBy(basePath, orderBy,
+						options.getDynamicAttributeRegistry(), joins);
+				if (order == null) {
+					logger.warn("Dynamic attribute [{}] of [{}] has no order expression : ordering in memory"
+							+ " (at most {} rows)", orderBy.getField(), entityClass.getName(),
+							properties.getDynamicAttributeMaxRows());
+					inMemoryOrder = true;
+				} else {
+					orders.add(order);
+				}
+			}
+		}
+		final boolean inMemory = inMemoryOrder || !inMemoryFilters.isEmpty();
+
+		// Apply keyset paging, ordering by ID last so that the order is total
+		final List<Param<Object>> keysetParams = new ArrayList<>();
+		BooleanExpression pagePredicate = predicate;
+		if (keyset) {
+			Assert.assertTrue(joins.isEmpty(), "Keyset paging is not supported when ordering by nested fields");
+			final NumberPath<Long> idPath = persistenceRegistry.getIdPath(entityClass);
+			if (orders.stream().noneMatch(order -> idPath.equals(order.getTarget()))) {
+				orders.add(idPath.asc());
+			}
+			// Sort null keys last explicitly, databases sorting them either
+			// first or last by default
+			final Metamodel metamodel = entityManager.getMetamodel();
+			for (int i = 0; i < orders.size(); i++) {
+				final OrderSpecifier<?> order = orders.get(i);
+				if (OrderSpecifier.NullHandling.Default.equals(order.getNullHandling())
+						&& isNullable(entityClass, metamodel, order.getTarget())) {
+					orders.set(i, order.nullsLast());
+				}
+			}
+			if (cursor != null) {
+				for (int i = 0; i < orders.size(); i++) {
+					keysetParams.add(cursor.getValue(i, Object.class) == null
+							? null
+							: new Param<>(Object.class, "keyset" + i));
+				}
+				final BooleanExpression keysetPredicate = applyKeyset(orders, new ArrayList<Object>(keysetParams));
+				pagePredicate = predicate == null ? keysetPredicate : predicate.and(keysetPredicate);
+			}
+		}
+
+		// Select only requested columns if possible
+		final FactoryExpression<?> projection = projectionPaths == null
+				? null
+				: Projections.fields(entityClass, projectionPaths.toArray(new Expression<?>[projectionPaths.size()]));
+
+		// Render queries
+		final JPQLTemplates templates = JPAProvider.getTemplates(entityManager);
+		final JPQLSerializer serializer = new JPQLSerializer(templates, entityManager);
+		serializer.serialize(createJoinedQuery(entityManager, basePath, joins)
+				.select(projection == null ? basePath : projection).where(pagePredicate).orderBy(toArray(orders))
+				.getMetadata(), false, null);
+		final JPQLSerializer countSerializer = new JPQLSerializer(templates, entityManager);
+		countSerializer.serialize(
+				new JPAQuery<Void>(entityManager).select(basePath).from(basePath).where(predicate).getMetadata(), true,
+				null);
+
+		// Fetch selected associations, selecting page IDs first if a
+		// collection is fetched as it would be paged (or limited) in memory
+		EntityGraph<?> entityGraph = null;
+		JPQLSerializer idSerializer = null;
+		if (!fetchPaths.isEmpty()) {
+			entityGraph = entityService.createEntityGraph(entityClass, entityManager, fetchPaths);
+			if ((listLoadConfig.isPaged() || inMemory)
+					&& entityService.isCollectionFetched(entityClass, entityManager, fetchPaths)) {
+				idSerializer = new JPQLSerializer(templates, entityManager);
+				idSerializer.serialize(createJoinedQuery(entityManager, basePath, joins)
+						.select(persistenceRegistry.getIdPath(entityClass)).where(pagePredicate)
+						.orderBy(toArray(orders)).getMetadata(), false, null);
+			}
+		}
+		return new QueryPlan(predicate, Collections.unmodifiableList(orders), projection, filterParams,
+				Collections.unmodifiableMap(inClauseChunkParams), keysetParams,
+				serializer.toString(), serializer.getConstantToLabel(), countSerializer.toString(),
+				countSerializer.getConstantToLabel(), entityGraph,
+				idSerializer == null ? null : idSerializer.toString(),
+				idSerializer == null ? null : idSerializer.getConstantToLabel(),
+				Collections.unmodifiableList(inMemoryFilters), inMemoryOrder);
+	}
+
+	/**
+	 * Get the paths of the columns to be selected for given load : the ID,
+	 * selected fields and order by fields. Returns null if entities must be
+	 * selected instead, because selected fields are unknown, one of them is not
+	 * a scalar field (association, embedded or dynamic attribute) or a dynamic
+	 * attribute is filtered (which may be done in memory).
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param listLoadConfig
+	 *            the {@link GQLListLoadConfig}
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @return the {@link Path} list to select or null
+	 */
+	protected List<Path<?>> getProjectionPaths(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig,
+			final ListLoadOptions options) {
+		if (options.getSelectedFields() == null) {
+			return null;
+		}
+		// Dynamic attributes filtered in memory are read from entities
+		if (listLoadConfig.isFiltered() && listLoadConfig.getFilters().stream().anyMatch(GQLFilterEntry::isDynamic)) {
+			return null;
+		}
+		final Map<String, Path<?>> fieldPaths = persistenceRegistry.getFieldPaths(entityClass);
+		final Set<String> fieldNames = new TreeSet<>(options.getSelectedFields());
+		if (listLoadConfig.isOrdered()) {
+			listLoadConfig.getOrderBy().forEach(orderBy -> fieldNames.add(orderBy.getField()));
+		}
+		fieldNames.remove(schemaConfig.getAttributeIdName());
+		final Set<Path<?>> projectionPaths = new LinkedHashSet<>();
+		projectionPaths.add(persistenceRegistry.getIdPath(entityClass));
+		for (final String fieldName : fieldNames) {
+			final Path<?> fieldPath = fieldPaths.get(fieldName);
+			if (fieldPath == null || fieldPath instanceof BeanPath || fieldPath instanceof CollectionPathBase
+					|| fieldPath instanceof MapPath) {
+				return null;
+			}
+			projectionPaths.add(fieldPath);
+		}
+		return new ArrayList<>(projectionPaths);
+	}
+
+	/**
+	 * Get the number of clauses an IN or NOT_IN filter value list is split
+	 * into, for not exceeding
+	 * {@link SpringDataGraphqlJpaProperties#getInClauseChunkSize()} distinct
+	 * values by clause. Values are counted as bound by
+	 * {@link DefaultEntityService#bindFilterValue(Path, GQLFilterOperatorEnum, Object)}
+	 * so that no clause is left without value.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param filter
+	 *            the {@link GQLFilterEntry}
+	 * @return the number of clauses (0 for empty lists, 1 for other filters)
+	 */
+	protected int getInClauseChunkCount(final Class<?> entityClass, final GQLFilterEntry filter) {
+		if (!(filter.getValue() instanceof Collection) || !GQLFilterOperatorEnum.IN.equals(filter.getOperator())
+				&& !GQLFilterOperatorEnum.NOT_IN.equals(filter.getOperator())) {
+			return 1;
+		}
+		final Path<?> path = filter.isDynamic() ? null
+				: entityService.resolveFieldPath(entityClass, filter.getFieldName());
+		final int size = ((Collection<?>) entityService.bindFilterValue(path, filter.getOperator(),
+				filter.getValue())).size();
+		return (size + properties.getInClauseChunkSize() - 1) / properties.getInClauseChunkSize();
+	}
+
+	/**
+	 * Find the filters to be merged into a single <code>between</code> : a
+	 * {@link GQLFilterOperatorEnum#GREATER_EQUAL} and a
+	 * {@link GQLFilterOperatorEnum#LOWER_EQUAL} filter on the same number,
+	 * date or comparable field
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param filters
+	 *            the {@link GQLFilterEntry} list
+	 * @return the index of the upper bound filter by index of the lower bound
+	 *         filter it is merged with
+	 */
+	protected Map<Integer, Integer> findBetweenFilters(final Class<?> entityClass,
+			final List<GQLFilterEntry> filters) {
+		final Map<String, Integer> lowerBounds = new HashMap<>();
+		final Map<String, Integer> upperBounds = new HashMap<>();
+		for (int i = 0; i < filters.size(); i++) {
+			final GQLFilterEntry filter = filters.get(i);
+			if (!filter.isDynamic() && GQLFilterOperatorEnum.GREATER_EQUAL.equals(filter.getOperator())) {
+				lowerBounds.putIfAbsent(filter.getFieldName(), Integer.valueOf(i));
+			} else if (!filter.isDynamic() && GQLFilterOperatorEnum.LOWER_EQUAL.equals(filter.getOperator())) {
+				upperBounds.putIfAbsent(filter.getFieldName(), Integer.valueOf(i));
+			}
+		}
+		final Map<Integer, Integer> betweens = new HashMap<>();
+		for (final Entry<String, Integer> lowerBound : lowerBounds.entrySet()) {
+			final Integer upperBound = upperBounds.get(lowerBound.getKey());
+			if (upperBound != null) {
+				final Path<?> path = entityService.resolveFieldPath(entityClass, lowerBound.getKey());
+				if (path instanceof NumberPath || path instanceof ComparablePath || path instanceof DatePath
+						|| path instanceof DateTimePath || path instanceof TimePath) {
+					betweens.put(lowerBound.getValue(), upperBound);
+				}
+			}
+		}
+		return betweens;
+	}
+
+	/**
+	 * Build the keyset predicate selecting rows strictly after the cursor row
+	 * for given orders : <code>(k1 &gt; v1) or (k1 = v1 and k2 &gt; v2) or
+	 * ...</code> (comparisons being reversed for descending orders). Keys of
+	 * orders with explicit null handling may be null : with nulls last, rows
+	 * with a null key are after any non null value and no row is after a null
+	 * value (and conversely with nulls first). Keys of orders without null
+	 * handling must not be null.
+	 *
+	 * @param orders
+	 *            the orders, the last one being on entity ID
+	 * @param values
+	 *            the cursor row values (constants or query plan parameters,
+	 *            null for null values), in order by order
+	 * @return the keyset {@link BooleanExpression}
+	 */
+	protected BooleanExpression applyKeyset(final List<OrderSpecifier<?>> orders, final List<Object> values) {
+		Assert.assertTrue(values.size() == orders.size(), "Keyset cursor does not match requested order by");
+		BooleanExpression keyset = null;
+		BooleanExpression previousKeysEqual = null;
+		for (int i = 0; i < orders.size(); i++) {
+			final OrderSpecifier<?> order = orders.get(i);
+			final Expression<?> target = order.getTarget();
+			final Object value = values.get(i);
+			BooleanExpression after = null;
+			if (value != null) {
+				after = Expressions.booleanOperation(order.isAscending() ? Ops.GT : Ops.LT, target,
+						entityService.toValueExpression(value));
+				if (OrderSpecifier.NullHandling.NullsLast.equals(order.getNullHandling())) {
+					after = after.or(Expressions.booleanOperation(Ops.IS_NULL, target));
+				}
+			} else if (OrderSpecifier.NullHandling.NullsFirst.equals(order.getNullHandling())) {
+				after = Expressions.booleanOperation(Ops.IS_NOT_NULL, target);
+			} else {
+				Assert.assertTrue(OrderSpecifier.NullHandling.NullsLast.equals(order.getNullHandling()),
+						"Keyset cursor has a null value for an order by without null handling : " + target);
+			}
+			if (after != null) {
+				after = previousKeysEqual == null ? after : previousKeysEqual.and(after);
+				keyset = keyset == null ? after : keyset.or(after);
+			}
+			final BooleanExpression equal = value == null
+					? Expressions.booleanOperation(Ops.IS_NULL, target)
+					: Expressions.booleanOperation(Ops.EQ, target, entityService.toValueExpression(value));
+			previousKeysEqual = previousKeysEqual == null ? equal : previousKeysEqual.and(equal);
+		}
+		return keyset;
+	}
+
+	/**
+	 * Get whether given order by target of entities of given type may be null.
+	 * Only identifiers, primitive fields and non optional fields of the entity
+	 * are known not to be null.
+	 *
+	 * @param entityClass
+	 *            the entity class
+	 * @param metamodel
+	 *            the {@link Metamodel}
+	 * @param target
+	 *            the order by target
+	 * @return whether the target may be null
+	 */
+	protected boolean isNullable(final Class<?> entityClass, final Metamodel metamodel, final Expression<?> target) {
+		if (!(target instanceof Path) || ((Path<?>) target).getMetadata().getParent() == null
+				|| !((Path<?>) target).getMetadata().getParent().getMetadata().isRoot()) {
+			return true;
+		}
+		final String fieldName = ((Path<?>) target).getMetadata().getName();
+		final Optional<? extends Attribute<?, ?>> attribute = metamodel.managedType(entityClass).getAttributes()
+				.stream().filter(candidate -> candidate.getName().equals(fieldName)).findFirst();
+		if (!attribute.isPresent() || !(attribute.get() instanceof SingularAttribute)) {
+			return true;
+		}
+		final SingularAttribute<?, ?> singularAttribute = (SingularAttribute<?, ?>) attribute.get();
+		return !singularAttribute.isId() && !singularAttribute.getJavaType().isPrimitive()
+				&& singularAttribute.isOptional();
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the {@link LruCache} of {@link QueryPlan} by load shape (for
+	 *         hit/miss statistics)
+	 */
+	public LruCache<String, QueryPlan> getQueryPlans() {
+		return queryPlans;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private JPAQuery<Void> createJoinedQuery(final EntityManager entityManager, final EntityPathBase<?> basePath,
+			final Map<Path<?>, EntityPathBase<?>> joins) {
+		final JPAQuery<Void> query = new JPAQuery<Void>(entityManager).from(basePath);
+		for (final Entry<Path<?>, EntityPathBase<?>> join : joins.entrySet()) {
+			query.leftJoin((EntityPath) join.getKey(), (Path) join.getValue());
+		}
+		return query;
+	}
+
+	private OrderSpecifier<?>[] toArray(final List<OrderSpecifier<?>> orders) {
+		return orders.toArray(new OrderSpecifier[orders.size()]);
+	}
+
+}
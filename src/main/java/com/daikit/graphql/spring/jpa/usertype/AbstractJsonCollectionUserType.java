@@ -5,26 +5,38 @@ import java.lang.reflect.InvocationTargetException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Types;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
 
 import org.hibernate.HibernateException;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.ParameterizedType;
 import org.hibernate.usertype.UserType;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
-import com.daikit.graphql.spring.jpa.utils.JsonUtils;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.core.type.TypeReference;
 
 /**
+ * Abstract super class for JSON collection user types. The column storage
+ * format is given by the {@value JsonStorageFormatEnum#PARAMETER_NAME} type
+ * parameter (see {@link JsonStorageFormatEnum}).
+ *
  * @param <JAVA_VALUE_DATA_TYPE>
  *            the collection, generic type
  * @author Thibaut Caselli
  */
-public abstract class AbstractJsonCollectionUserType<JAVA_VALUE_DATA_TYPE> implements UserType {
+public abstract class AbstractJsonCollectionUserType<JAVA_VALUE_DATA_TYPE> implements UserType, ParameterizedType {
 
-	private static final int[] SQL_TYPES = {Types.LONGVARCHAR};
+	private static final Collection<String> EMPTY_JSONS = Arrays.asList("[]", "{}");
+
+	private JsonStorageFormatEnum storageFormat;
+	private boolean streaming;
+	private JsonColumn column;
 
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 	// ABSTRACT METHODS
@@ -32,46 +44,102 @@ public abstract class AbstractJsonCollectionUserType<JAVA_VALUE_DATA_TYPE> imple
 
 	protected abstract TypeReference<?> getTypeReference();
 
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PROTECTED METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the {@link ObjectReader} bound to the type of
+	 *         {@link #getTypeReference()}, resolved once (concurrent
+	 *         resolutions give the same result)
+	 */
+	protected ObjectReader getReader() {
+		return getColumn().getReader();
+	}
+
+	/**
+	 * @return the {@link ObjectWriter} bound to the type of
+	 *         {@link #getTypeReference()}
+	 */
+	protected ObjectWriter getWriter() {
+		return getColumn().getWriter();
+	}
+
+	/**
+	 * @return the {@link JsonStorageFormatEnum} of the column, given by the
+	 *         {@value JsonStorageFormatEnum#PARAMETER_NAME} type parameter
+	 *         (default is {@link JsonStorageFormatEnum#TEXT})
+	 */
+	protected JsonStorageFormatEnum getStorageFormat() {
+		return storageFormat == null ? JsonStorageFormatEnum.TEXT : storageFormat;
+	}
+
+	/**
+	 * @return whether values are parsed from the column stream and dirty
+	 *         checked on a digest of their JSON, given by the
+	 *         {@value JsonStorageFormatEnum#STREAMING_PARAMETER_NAME} type
+	 *         parameter (default is false). Recommended for large documents
+	 *         mostly read.
+	 */
+	protected boolean isStreaming() {
+		return streaming;
+	}
+
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 	// METHODS
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 
+	@Override
+	public void setParameterValues(final Properties parameters) {
+		final String format = parameters == null ? null : parameters.getProperty(JsonStorageFormatEnum.PARAMETER_NAME);
+		if (StringUtils.hasText(format)) {
+			storageFormat = JsonStorageFormatEnum.valueOf(format.trim().toUpperCase());
+		}
+		streaming = parameters != null
+				&& Boolean.parseBoolean(parameters.getProperty(JsonStorageFormatEnum.STREAMING_PARAMETER_NAME));
+	}
+
 	@Override
 	public int[] sqlTypes() {
-		return SQL_TYPES;
+		return new int[]{getStorageFormat().getSqlType()};
 	}
 
 	@Override
 	public boolean equals(final Object x, final Object y) throws HibernateException {
-		return (x == null || ((Collection<?>) x).isEmpty()) && (y == null || ((Collection<?>) y).isEmpty())
-				|| ObjectUtils.nullSafeEquals(x, y);
+		// Loaded state snapshots are compared with snapshots of current values
+		return isEmpty(x) && isEmpty(y) || (x instanceof JsonSnapshot || y instanceof JsonSnapshot
+				? ObjectUtils.nullSafeEquals(toSnapshot(x), toSnapshot(y))
+				: ObjectUtils.nullSafeEquals(x, y));
 	}
 
 	@Override
 	public int hashCode(final Object x) throws HibernateException {
-		return x == null ? 0 : x.hashCode();
+		return isEmpty(x) ? 0 : toSnapshot(x).hashCode();
 	}
 
 	@Override
 	public Object nullSafeGet(final ResultSet rs, final String[] names, final SharedSessionContractImplementor session,
 			final Object owner) throws HibernateException, SQLException {
-		final String json = rs.getString(names[0]);
-		return StringUtils.hasText(json) ? JsonUtils.fromJson(json, getTypeReference()) : createEmptyInstance();
+		final Object value = getColumn().read(rs, names[0]);
+		return value == null ? createEmptyInstance() : value;
 	}
 
 	@Override
 	public void nullSafeSet(final PreparedStatement st, final Object value, final int index,
 			final SharedSessionContractImplementor session) throws HibernateException, SQLException {
 		if (value == null) {
-			st.setNull(index, SQL_TYPES[0]);
+			getColumn().setNull(st, index);
 		} else {
-			st.setString(index, value instanceof Collection ? JsonUtils.toJson(value) : value.toString());
+			getColumn().set(st, index,
+					value instanceof String ? getColumn().formatJson((String) value) : getColumn().format(value));
 		}
 	}
 
 	@Override
 	public Object deepCopy(final Object value) throws HibernateException {
-		return JsonUtils.copy(value);
+		// Only the JSON representation of the value (or its digest in
+		// streaming mode) is kept as loaded state
+		return toSnapshot(value);
 	}
 
 	@Override
@@ -81,26 +149,45 @@ public abstract class AbstractJsonCollectionUserType<JAVA_VALUE_DATA_TYPE> imple
 
 	@Override
 	public Serializable disassemble(final Object value) throws HibernateException {
-		// serialize value for cache
-		return JsonUtils.toJson(value);
+		// serialize value for cache as stored in the column, binary storage
+		// formats being more compact
+		return value == null ? null : getColumn().formatSerializable(value);
 	}
 
 	@Override
 	public Object assemble(final Serializable cached, final Object owner) throws HibernateException {
-		// deserialize value from cache
-		return deepCopy(cached);
+		// deserialize value from cache (JSON String or bytes)
+		return getColumn().isEmpty(cached) ? createEmptyInstance() : getColumn().parse(cached);
 	}
 
 	@Override
 	public Object replace(final Object original, final Object target, final Object owner) throws HibernateException {
 		// get a new value from the given original object
-		return deepCopy(original);
+		return original == null ? null : getColumn().parse(JsonSnapshot.toJson(original, getWriter()));
 	}
 
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 	// PRIVATE UTILS
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 
+	private JsonSnapshot toSnapshot(final Object value) {
+		return JsonSnapshot.of(value, getWriter(), isStreaming());
+	}
+
+	private JsonColumn getColumn() {
+		// Created once (concurrent creations give equivalent columns)
+		if (column == null) {
+			column = new JsonColumn(getStorageFormat(), isStreaming(), getTypeReference().getType());
+		}
+		return column;
+	}
+
+	private boolean isEmpty(final Object value) {
+		return value == null || value instanceof Collection && ((Collection<?>) value).isEmpty()
+				|| value instanceof Map && ((Map<?, ?>) value).isEmpty()
+				|| value instanceof JsonSnapshot && EMPTY_JSONS.stream().anyMatch(((JsonSnapshot) value)::hasJson);
+	}
+
 	@SuppressWarnings("unchecked")
 	private Object createEmptyInstance() {
 		try {
@@ -6,30 +6,38 @@ import java.lang.reflect.Modifier;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Types;
+import java.util.Properties;
 
 import org.hibernate.HibernateException;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.ParameterizedType;
 import org.hibernate.usertype.UserType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 
 import com.daikit.generics.utils.GenericsUtils;
-import com.daikit.graphql.spring.jpa.utils.JsonUtils;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
- * Abstract super class for all
+ * Abstract super class for all JSON user types. The column storage format is
+ * given by the {@value JsonStorageFormatEnum#PARAMETER_NAME} type parameter
+ * (see {@link JsonStorageFormatEnum}).
  *
  * @author Thibaut Caselli
  * @param <JAVA_DATA_TYPE>
  *            the type of the wrapped data
  */
-public abstract class AbstractJsonUserType<JAVA_DATA_TYPE> implements UserType {
+public abstract class AbstractJsonUserType<JAVA_DATA_TYPE> implements UserType, ParameterizedType {
 
 	private static Logger logger = LoggerFactory.getLogger(AbstractJsonUserType.class);
 
-	private static final int[] SQL_TYPES = {Types.LONGVARCHAR};
+	private Class<JAVA_DATA_TYPE> returnedType;
+	private JsonStorageFormatEnum storageFormat;
+	private boolean streaming;
+	private JsonColumn column;
 
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 	// PROTECTED METHODS
@@ -37,16 +45,65 @@ public abstract class AbstractJsonUserType<JAVA_DATA_TYPE> implements UserType {
 
 	@SuppressWarnings("unchecked")
 	protected Class<JAVA_DATA_TYPE> getReturnedType() {
-		return (Class<JAVA_DATA_TYPE>) GenericsUtils.getTypeArguments(getClass(), AbstractJsonUserType.class).get(0);
+		// Resolved once (concurrent resolutions give the same result)
+		if (returnedType == null) {
+			returnedType = (Class<JAVA_DATA_TYPE>) GenericsUtils
+					.getTypeArguments(getClass(), AbstractJsonUserType.class).get(0);
+		}
+		return returnedType;
+	}
+
+	/**
+	 * @return the {@link ObjectReader} bound to the returned type
+	 */
+	protected ObjectReader getReader() {
+		return getColumn().getReader();
+	}
+
+	/**
+	 * @return the {@link ObjectWriter} bound to the returned type
+	 */
+	protected ObjectWriter getWriter() {
+		return getColumn().getWriter();
+	}
+
+	/**
+	 * @return the {@link JsonStorageFormatEnum} of the column, given by the
+	 *         {@value JsonStorageFormatEnum#PARAMETER_NAME} type parameter
+	 *         (default is {@link JsonStorageFormatEnum#TEXT})
+	 */
+	protected JsonStorageFormatEnum getStorageFormat() {
+		return storageFormat == null ? JsonStorageFormatEnum.TEXT : storageFormat;
+	}
+
+	/**
+	 * @return whether values are parsed from the column stream and dirty
+	 *         checked on a digest of their JSON, given by the
+	 *         {@value JsonStorageFormatEnum#STREAMING_PARAMETER_NAME} type
+	 *         parameter (default is false). Recommended for large documents
+	 *         mostly read.
+	 */
+	protected boolean isStreaming() {
+		return streaming;
 	}
 
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 	// METHODS
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 
+	@Override
+	public void setParameterValues(final Properties parameters) {
+		final String format = parameters == null ? null : parameters.getProperty(JsonStorageFormatEnum.PARAMETER_NAME);
+		if (StringUtils.hasText(format)) {
+			storageFormat = JsonStorageFormatEnum.valueOf(format.trim().toUpperCase());
+		}
+		streaming = parameters != null
+				&& Boolean.parseBoolean(parameters.getProperty(JsonStorageFormatEnum.STREAMING_PARAMETER_NAME));
+	}
+
 	@Override
 	public int[] sqlTypes() {
-		return SQL_TYPES;
+		return new int[]{getStorageFormat().getSqlType()};
 	}
 
 	@Override
@@ -56,22 +113,24 @@ public abstract class AbstractJsonUserType<JAVA_DATA_TYPE> implements UserType {
 
 	@Override
 	public boolean equals(final Object x, final Object y) throws HibernateException {
-		return ObjectUtils.nullSafeEquals(x, y);
+		// Loaded state snapshots are compared with snapshots of current values
+		return x instanceof JsonSnapshot || y instanceof JsonSnapshot
+				? ObjectUtils.nullSafeEquals(toSnapshot(x), toSnapshot(y))
+				: ObjectUtils.nullSafeEquals(x, y);
 	}
 
 	@Override
 	public int hashCode(final Object x) throws HibernateException {
-		return x == null ? 0 : x.hashCode();
+		return x == null ? 0 : toSnapshot(x).hashCode();
 	}
 
 	@Override
 	public Object nullSafeGet(final ResultSet rs, final String[] names, final SharedSessionContractImplementor session,
 			final Object owner) throws HibernateException, SQLException {
 		Object ret = null;
-		final String json = rs.getString(names[0]);
 		try {
-			ret = JsonUtils.fromJson(json, getReturnedType());
-		} catch (final Exception e) {
+			ret = getColumn().read(rs, names[0]);
+		} catch (final IllegalArgumentException e) {
 			logger.error("Error during conversion [{}]. IGNORED", e.getMessage());
 		}
 		// Create empty instance if stored value is null
@@ -86,27 +145,25 @@ public abstract class AbstractJsonUserType<JAVA_DATA_TYPE> implements UserType {
 			final SharedSessionContractImplementor session) throws HibernateException, SQLException {
 		boolean setNull = true;
 		if (value != null) {
-			final String valueJson = JsonUtils.toJson(value);
+			final Object columnValue = getColumn().format(value);
 			// Do not store empty object
-			if (!"{}".equals(valueJson)) {
-				st.setString(index, valueJson);
+			if (!getColumn().isEmptyObject(columnValue)) {
+				getColumn().set(st, index, columnValue);
 				setNull = false;
 			}
 		}
 		if (setNull) {
-			st.setNull(index, SQL_TYPES[0]);
+			getColumn().setNull(st, index);
 		}
 	}
 
 	@Override
 	public Object deepCopy(final Object value) throws HibernateException {
-		// Copy the value. Used for storing state from database to further know
-		// if property value was modified.
-		// This would not be necessary if this type would implement
-		// DirtyCheckableUserType , to see if we can improve performance here
-		// LogUtil.debug(AbstractJsonUserType.class, "COPY JSON {} [{}]",
-		// getReturnedType().getSimpleName(), copy);
-		return JsonUtils.copy(value);
+		// Used for storing state from database to further know if property
+		// value was modified : only the JSON representation of the value (or
+		// its digest in streaming mode) is kept instead of a copy of the
+		// value, which would need parsing it back
+		return toSnapshot(value);
 	}
 
 	@Override
@@ -116,26 +173,39 @@ public abstract class AbstractJsonUserType<JAVA_DATA_TYPE> implements UserType {
 
 	@Override
 	public Object assemble(final Serializable cached, final Object owner) throws HibernateException {
-		// deserialize value from cache
-		return deepCopy(cached);
+		// deserialize value from cache (JSON String or bytes)
+		return getColumn().parse(cached);
 	}
 
 	@Override
 	public Serializable disassemble(final Object value) throws HibernateException {
-		// serialize value for cache
-		return JsonUtils.toJson(value);
+		// serialize value for cache as stored in the column, binary storage
+		// formats being more compact
+		return value == null ? null : getColumn().formatSerializable(value);
 	}
 
 	@Override
 	public Object replace(final Object original, final Object target, final Object owner) throws HibernateException {
 		// get a new value from the given original object
-		return deepCopy(original);
+		return getColumn().parse(JsonSnapshot.toJson(original, getWriter()));
 	}
 
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 	// PRIVATE UTILS
 	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
 
+	private JsonSnapshot toSnapshot(final Object value) {
+		return JsonSnapshot.of(value, getWriter(), isStreaming());
+	}
+
+	private JsonColumn getColumn() {
+		// Created once (concurrent creations give equivalent columns)
+		if (column == null) {
+			column = new JsonColumn(getStorageFormat(), isStreaming(), getReturnedType());
+		}
+		return column;
+	}
+
 	private Object createEmptyInstance() {
 		try {
 			return Modifier.isAbstract(returnedClass().getModifiers())
@@ -0,0 +1,211 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Properties;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.ParameterizedType;
+import org.hibernate.usertype.UserType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import com.daikit.generics.utils.GenericsUtils;
+
+/**
+ * Abstract super class for JSON user types of properties declared as
+ * {@link LazyJsonValue}. Column contents are kept as loaded and parsed on
+ * first access to the value, so that entities whose JSON properties are not
+ * used (for example in list queries not selecting them) are loaded without
+ * any JSON parsing. Values not accessed are dirty checked by comparing column
+ * contents. The column storage format is given by the
+ * {@value JsonStorageFormatEnum#PARAMETER_NAME} type parameter (see
+ * {@link JsonStorageFormatEnum}).
+ *
+ * @author Thibaut Caselli
+ * @param <JAVA_DATA_TYPE>
+ *            the type of the wrapped data
+ */
+public abstract class AbstractLazyJsonUserType<JAVA_DATA_TYPE> implements UserType, ParameterizedType {
+
+	private static Logger logger = LoggerFactory.getLogger(AbstractLazyJsonUserType.class);
+
+	private Class<JAVA_DATA_TYPE> dataType;
+	private JsonStorageFormatEnum storageFormat;
+	private JsonColumn column;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PROTECTED METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the type of the wrapped data
+	 */
+	@SuppressWarnings("unchecked")
+	protected Class<JAVA_DATA_TYPE> getDataType() {
+		// Resolved once (concurrent resolutions give the same result)
+		if (dataType == null) {
+			dataType = (Class<JAVA_DATA_TYPE>) GenericsUtils
+					.getTypeArguments(getClass(), AbstractLazyJsonUserType.class).get(0);
+		}
+		return dataType;
+	}
+
+	/**
+	 * @return the {@link JsonStorageFormatEnum} of the column, given by the
+	 *         {@value JsonStorageFormatEnum#PARAMETER_NAME} type parameter
+	 *         (default is {@link JsonStorageFormatEnum#TEXT})
+	 */
+	protected JsonStorageFormatEnum getStorageFormat() {
+		return storageFormat == null ? JsonStorageFormatEnum.TEXT : storageFormat;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	@Override
+	public void setParameterValues(final Properties parameters) {
+		final String format = parameters == null ? null : parameters.getProperty(JsonStorageFormatEnum.PARAMETER_NAME);
+		if (StringUtils.hasText(format)) {
+			storageFormat = JsonStorageFormatEnum.valueOf(format.trim().toUpperCase());
+		}
+	}
+
+	@Override
+	public int[] sqlTypes() {
+		return new int[]{getStorageFormat().getSqlType()};
+	}
+
+	@Override
+	public Class<?> returnedClass() {
+		return LazyJsonValue.class;
+	}
+
+	@Override
+	public boolean equals(final Object x, final Object y) throws HibernateException {
+		if (x == y) {
+			return true;
+		} else if (x == null || y == null) {
+			return false;
+		}
+		final Object xColumnValue = toColumnValue(x);
+		final Object yColumnValue = toColumnValue(y);
+		return xColumnValue instanceof byte[] && yColumnValue instanceof byte[]
+				? Arrays.equals((byte[]) xColumnValue, (byte[]) yColumnValue)
+				: Objects.equals(xColumnValue, yColumnValue);
+	}
+
+	@Override
+	public int hashCode(final Object x) throws HibernateException {
+		final Object columnValue = x == null ? null : toColumnValue(x);
+		return columnValue instanceof byte[] ? Arrays.hashCode((byte[]) columnValue) : Objects.hashCode(columnValue);
+	}
+
+	@Override
+	public Object nullSafeGet(final ResultSet rs, final String[] names, final SharedSessionContractImplementor session,
+			final Object owner) throws HibernateException, SQLException {
+		// Column content is parsed on first access only
+		return new LazyJsonValue<>(getColumn().get(rs, names[0]), this::parse);
+	}
+
+	@Override
+	public void nullSafeSet(final PreparedStatement st, final Object value, final int index,
+			final SharedSessionContractImplementor session) throws HibernateException, SQLException {
+		final Object columnValue = value == null ? null : toColumnValue(value);
+		if (columnValue == null) {
+			getColumn().setNull(st, index);
+		} else {
+			getColumn().set(st, index, columnValue);
+		}
+	}
+
+	@Override
+	public Object deepCopy(final Object value) throws HibernateException {
+		// The loaded state is a holder of the column content : it is not parsed
+		// if the value was not accessed
+		return value == null ? null : new LazyJsonValue<>(toColumnValue(value), this::parse);
+	}
+
+	@Override
+	public boolean isMutable() {
+		return true;
+	}
+
+	@Override
+	public Object assemble(final Serializable cached, final Object owner) throws HibernateException {
+		// deserialize value from cache
+		return new LazyJsonValue<>(cached, this::parse);
+	}
+
+	@Override
+	public Serializable disassemble(final Object value) throws HibernateException {
+		// serialize value for cache (JSON String or bytes)
+		return value == null ? null : (Serializable) toColumnValue(value);
+	}
+
+	@Override
+	public Object replace(final Object original, final Object target, final Object owner) throws HibernateException {
+		// get a new value from the given original object
+		return original == null ? null : new LazyJsonValue<>(toColumnValue(original), this::parse);
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private JsonColumn getColumn() {
+		// Created once (concurrent creations give equivalent columns)
+		if (column == null) {
+			column = new JsonColumn(getStorageFormat(), false, getDataType());
+		}
+		return column;
+	}
+
+	/**
+	 * Get the column content of given {@link LazyJsonValue} : the loaded one
+	 * if the value was not accessed, otherwise the serialized value. Empty
+	 * contents and empty objects are stored as null.
+	 */
+	private Object toColumnValue(final Object value) {
+		final LazyJsonValue<?> lazyValue = (LazyJsonValue<?>) value;
+		final Object columnValue;
+		if (!lazyValue.isAccessed()) {
+			columnValue = lazyValue.getColumnValue();
+		} else {
+			columnValue = lazyValue.get() == null ? null : getColumn().format(lazyValue.get());
+		}
+		return getColumn().isEmpty(columnValue) || getColumn().isEmptyObject(columnValue) ? null : columnValue;
+	}
+
+	private JAVA_DATA_TYPE parse(final Object columnValue) {
+		JAVA_DATA_TYPE ret = null;
+		try {
+			ret = getColumn().isEmpty(columnValue) ? null : getColumn().parse(columnValue);
+		} catch (final IllegalArgumentException e) {
+			logger.error("Error during conversion [{}]. IGNORED", e.getMessage());
+		}
+		// Create empty instance if stored value is null
+		return ret == null ? createEmptyInstance() : ret;
+	}
+
+	private JAVA_DATA_TYPE createEmptyInstance() {
+		try {
+			return Modifier.isAbstract(getDataType().getModifiers())
+					? null
+					: getDataType().getConstructor().newInstance();
+		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
+				| NoSuchMethodException | SecurityException e) {
+			throw new RuntimeException("Unable to instantiate type : " + getDataType().getName());
+		}
+	}
+
+}
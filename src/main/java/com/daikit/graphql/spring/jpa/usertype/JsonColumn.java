@@ -0,0 +1,467 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import com.daikit.graphql.spring.jpa.utils.JsonUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Binding of the column of a JSON user type according to its
+ * {@link JsonStorageFormatEnum}. Column values are JSON text for text formats
+ * and bytes for binary formats. Bytes are auto-detected when read : Smile and
+ * CBOR values start with their format header, other bytes are JSON text
+ * stored before switching the column to a binary format.<br>
+ * In streaming mode, values are parsed directly from the column character or
+ * binary stream, so that no intermediate String is built when reading. Written
+ * values are still serialized entirely into a buffer, only bound as the
+ * statement stream without being copied again (the statement may be executed
+ * later in a batch) : writing does not save memory.
+ *
+ * @author Thibaut Caselli
+ */
+final class JsonColumn {
+
+	private static final JsonFactory TEXT_FACTORY = new JsonFactory();
+	private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+	private static final byte[] CBOR_HEADER = {(byte) 0xD9, (byte) 0xD9, (byte) 0xF7};
+	private static final int BUFFER_SIZE = 8192;
+
+	private final JsonStorageFormatEnum format;
+	private final boolean streaming;
+	private final Type type;
+	private final ObjectReader reader;
+	private final ObjectWriter writer;
+	private final ObjectReader binaryReader;
+	private final ObjectWriter binaryWriter;
+	private final Object emptyObject;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor
+	 *
+	 * @param format
+	 *            the {@link JsonStorageFormatEnum}
+	 * @param streaming
+	 *            whether values are read through streams
+	 * @param type
+	 *            the value type
+	 */
+	JsonColumn(final JsonStorageFormatEnum format, final boolean streaming, final Type type) {
+		this.format = format;
+		this.streaming = streaming;
+		this.type = type;
+		reader = JsonUtils.getReader(type);
+		writer = JsonUtils.getWriter(type);
+		if (format.isBinary()) {
+			final ObjectMapper mapper = getBinaryMapper(format);
+			binaryReader = JsonUtils.getReader(mapper, type);
+			binaryWriter = JsonUtils.getWriter(mapper, type);
+			try {
+				emptyObject = mapper.writeValueAsBytes(mapper.createObjectNode());
+			} catch (final IOException e) {
+				throw new IllegalStateException("Unable to initialize " + format + " JSON storage", e);
+			}
+		} else {
+			binaryReader = null;
+			binaryWriter = null;
+			emptyObject = "{}";
+		}
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Read and parse the column value
+	 *
+	 * @param rs
+	 *            the {@link ResultSet}
+	 * @param name
+	 *            the column name
+	 * @param <T>
+	 *            the value type
+	 * @return the value or null if column value is null or has no content
+	 * @throws SQLException
+	 *             if the column cannot be read
+	 */
+	<T> T read(final ResultSet rs, final String name) throws SQLException {
+		if (!streaming) {
+			final Object columnValue = get(rs, name);
+			return isEmpty(columnValue) ? null : parse(columnValue);
+		}
+		try {
+			if (format.isBinary()) {
+				final InputStream stream = rs.getBinaryStream(name);
+				return stream == null ? null : parse(stream);
+			} else {
+				final Reader stream = rs.getCharacterStream(name);
+				return stream == null ? null : readValue(reader, reader.getFactory().createParser(stream));
+			}
+		} catch (final IOException e) {
+			throw new IllegalArgumentException(
+					"An error happened while converting object from json : " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Read the column value
+	 *
+	 * @param rs
+	 *            the {@link ResultSet}
+	 * @param name
+	 *            the column name
+	 * @return the JSON String or bytes, or null
+	 * @throws SQLException
+	 *             if the column cannot be read
+	 */
+	Object get(final ResultSet rs, final String name) throws SQLException {
+		return format.isBinary() ? rs.getBytes(name) : rs.getString(name);
+	}
+
+	/**
+	 * Bind a column value
+	 *
+	 * @param st
+	 *            the {@link PreparedStatement}
+	 * @param index
+	 *            the parameter index
+	 * @param columnValue
+	 *            the JSON String, bytes or streamed buffer given by
+	 *            {@link #format(Object)}
+	 * @throws SQLException
+	 *             if the value cannot be bound
+	 */
+	void set(final PreparedStatement st, final int index, final Object columnValue) throws SQLException {
+		if (columnValue instanceof CharBuffer) {
+			final CharBuffer chars = (CharBuffer) columnValue;
+			st.setCharacterStream(index,
+					new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()),
+					chars.remaining());
+		} else if (columnValue instanceof ByteBuffer) {
+			final ByteBuffer bytes = (ByteBuffer) columnValue;
+			st.setBinaryStream(index,
+					new ByteArrayInputStream(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining()),
+					bytes.remaining());
+		} else if (columnValue instanceof byte[]) {
+			st.setBytes(index, (byte[]) columnValue);
+		} else if (format == JsonStorageFormatEnum.JSONB) {
+			st.setObject(index, columnValue, format.getSqlType());
+		} else {
+			st.setString(index, (String) columnValue);
+		}
+	}
+
+	/**
+	 * Bind a null column value
+	 *
+	 * @param st
+	 *            the {@link PreparedStatement}
+	 * @param index
+	 *            the parameter index
+	 * @throws SQLException
+	 *             if the value cannot be bound
+	 */
+	void setNull(final PreparedStatement st, final int index) throws SQLException {
+		st.setNull(index, format.getSqlType());
+	}
+
+	/**
+	 * @param columnValue
+	 *            the JSON String or bytes
+	 * @return whether given column value has no content
+	 */
+	boolean isEmpty(final Object columnValue) {
+		return columnValue == null || columnValue instanceof byte[] && ((byte[]) columnValue).length == 0
+				|| columnValue instanceof String && ((String) columnValue).trim().isEmpty();
+	}
+
+	/**
+	 * @param columnValue
+	 *            the JSON String, bytes or streamed buffer
+	 * @return whether given column value is an empty JSON object
+	 */
+	boolean isEmptyObject(final Object columnValue) {
+		if (columnValue instanceof byte[]) {
+			return Arrays.equals((byte[]) columnValue, (byte[]) emptyObject);
+		} else if (columnValue instanceof ByteBuffer) {
+			return ByteBuffer.wrap((byte[]) emptyObject).equals(columnValue);
+		} else if (columnValue instanceof CharBuffer) {
+			return ((String) emptyObject).contentEquals((CharBuffer) columnValue);
+		}
+		return emptyObject.equals(columnValue);
+	}
+
+	/**
+	 * Parse a column value
+	 *
+	 * @param columnValue
+	 *            the JSON String or bytes
+	 * @param <T>
+	 *            the value type
+	 * @return the value or null if column value is null
+	 */
+	<T> T parse(final Object columnValue) {
+		try {
+			if (columnValue == null) {
+				return null;
+			} else if (columnValue instanceof String) {
+				return reader.readValue((String) columnValue);
+			} else {
+				final byte[] bytes = (byte[]) columnValue;
+				return getReader(bytes, bytes.length).readValue(bytes);
+			}
+		} catch (final IOException e) {
+			throw new IllegalArgumentException(
+					"An error happened while converting object from json : " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Format a value for the column
+	 *
+	 * @param value
+	 *            the value or its {@link JsonSnapshot} (not null)
+	 * @return the JSON String or bytes, or in streaming mode the
+	 *         {@link CharBuffer} (text format) or {@link ByteBuffer} (binary
+	 *         formats) wrapping the buffer the value was written to
+	 */
+	Object format(final Object value) {
+		final Object formatted = unwrap(value);
+		if (!streaming || format == JsonStorageFormatEnum.JSONB || formatted instanceof JsonSnapshot) {
+			return formatSerializable(formatted);
+		}
+		try {
+			if (format.isBinary()) {
+				final ExposedByteArrayOutputStream buffer = new ExposedByteArrayOutputStream();
+				binaryWriter.writeValue(buffer, formatted);
+				return buffer.wrap();
+			} else {
+				final ExposedCharArrayWriter buffer = new ExposedCharArrayWriter();
+				writer.writeValue(buffer, formatted);
+				return buffer.wrap();
+			}
+		} catch (final IOException e) {
+			throw new IllegalArgumentException("An error happened while converting object to json : " + e.getMessage(),
+					e);
+		}
+	}
+
+	/**
+	 * Format a value for the column as a JSON String or bytes, whatever the
+	 * streaming mode (for caching it)
+	 *
+	 * @param value
+	 *            the value or its {@link JsonSnapshot} (not null)
+	 * @return the JSON String or bytes
+	 */
+	Serializable formatSerializable(final Object value) {
+		final Object formatted = unwrap(value);
+		if (formatted instanceof JsonSnapshot) {
+			return formatJson(((JsonSnapshot) formatted).getJson());
+		}
+		try {
+			return format.isBinary()
+					? binaryWriter.writeValueAsBytes(formatted)
+					: writer.writeValueAsString(formatted);
+		} catch (final IOException e) {
+			throw new IllegalArgumentException("An error happened while converting object to json : " + e.getMessage(),
+					e);
+		}
+	}
+
+	/**
+	 * Format a JSON String for the column. For binary formats, the JSON is
+	 * transcoded token by token without being bound to the value type.
+	 *
+	 * @param json
+	 *            the JSON String (not null)
+	 * @return the JSON String or bytes
+	 */
+	Serializable formatJson(final String json) {
+		if (!format.isBinary()) {
+			return json;
+		}
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(json.length());
+		try (JsonParser parser = TEXT_FACTORY.createParser(json);
+				JsonGenerator generator = getBinaryMapper(format).getFactory().createGenerator(out)) {
+			parser.nextToken();
+			generator.copyCurrentStructure(parser);
+		} catch (final IOException e) {
+			throw new IllegalArgumentException("An error happened while converting json : " + e.getMessage(), e);
+		}
+		return out.toByteArray();
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the {@link JsonStorageFormatEnum}
+	 */
+	JsonStorageFormatEnum getFormat() {
+		return format;
+	}
+
+	/**
+	 * @return whether values are read through streams
+	 */
+	boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * @return the JSON text {@link ObjectReader} bound to the value type
+	 */
+	ObjectReader getReader() {
+		return reader;
+	}
+
+	/**
+	 * @return the JSON text {@link ObjectWriter} bound to the value type
+	 */
+	ObjectWriter getWriter() {
+		return writer;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private static Object unwrap(final Object value) {
+		// Digested snapshots (like inserted states) are written from the value
+		// they were taken from
+		return value instanceof JsonSnapshot && ((JsonSnapshot) value).getValue() != null
+				? ((JsonSnapshot) value).getValue()
+				: value;
+	}
+
+	private <T> T parse(final InputStream stream) throws IOException {
+		// Read the format header and push it back before parsing
+		final PushbackInputStream pushbackStream = new PushbackInputStream(stream, SMILE_HEADER.length);
+		final byte[] header = new byte[SMILE_HEADER.length];
+		int length = 0;
+		int read = 0;
+		while (length < header.length && (read = pushbackStream.read(header, length, header.length - length)) > 0) {
+			length += read;
+		}
+		pushbackStream.unread(header, 0, length);
+		final ObjectReader bytesReader = getReader(header, length);
+		return readValue(bytesReader, bytesReader.getFactory().createParser(pushbackStream));
+	}
+
+	private ObjectReader getReader(final byte[] bytes, final int length) {
+		final JsonStorageFormatEnum bytesFormat = startsWith(bytes, length, SMILE_HEADER)
+				? JsonStorageFormatEnum.SMILE
+				: startsWith(bytes, length, CBOR_HEADER) ? JsonStorageFormatEnum.CBOR : JsonStorageFormatEnum.TEXT;
+		return bytesFormat == format
+				? binaryReader
+				: bytesFormat.isBinary() ? JsonUtils.getReader(getBinaryMapper(bytesFormat), type) : reader;
+	}
+
+	private static <T> T readValue(final ObjectReader reader, final JsonParser parser) throws IOException {
+		// A column without content (blank text) gives a null value
+		try (JsonParser closedParser = parser) {
+			return parser.nextToken() == null ? null : reader.readValue(parser);
+		}
+	}
+
+	private static boolean startsWith(final byte[] bytes, final int length, final byte[] header) {
+		if (length < header.length) {
+			return false;
+		}
+		for (int i = 0; i < header.length; i++) {
+			if (bytes[i] != header[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static ObjectMapper getBinaryMapper(final JsonStorageFormatEnum format) {
+		// Mappers are held by inner classes so that optional data format
+		// libraries are only loaded when their format is used
+		try {
+			return format == JsonStorageFormatEnum.SMILE ? SmileMapperHolder.MAPPER : CborMapperHolder.MAPPER;
+		} catch (final NoClassDefFoundError e) {
+			throw new IllegalStateException("Jackson data format library for " + format
+					+ " JSON storage is missing : add jackson-dataformat-" + format.name().toLowerCase()
+					+ " dependency", e);
+		}
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Growable character buffer wrapped without copy once written
+	 */
+	private static final class ExposedCharArrayWriter extends CharArrayWriter {
+
+		private ExposedCharArrayWriter() {
+			super(BUFFER_SIZE);
+		}
+
+		private CharBuffer wrap() {
+			return CharBuffer.wrap(buf, 0, count);
+		}
+
+	}
+
+	/**
+	 * Growable byte buffer wrapped without copy once written
+	 */
+	private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+		private ExposedByteArrayOutputStream() {
+			super(BUFFER_SIZE);
+		}
+
+		private ByteBuffer wrap() {
+			return ByteBuffer.wrap(buf, 0, count);
+		}
+
+	}
+
+	private static class SmileMapperHolder {
+		private static final ObjectMapper MAPPER = new ObjectMapper(new SmileFactory())
+				.configure(MapperFeature.PROPAGATE_TRANSIENT_MARKER, true);
+	}
+
+	private static class CborMapperHolder {
+		// Values start with the self-describe tag to be auto-detected
+		private static final ObjectMapper MAPPER = new ObjectMapper(
+				new CBORFactory().enable(CBORGenerator.Feature.WRITE_TYPE_HEADER))
+						.configure(MapperFeature.PROPAGATE_TRANSIENT_MARKER, true);
+	}
+
+}
@@ -0,0 +1,169 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import java.util.List;
+
+import org.hibernate.QueryException;
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.engine.spi.Mapping;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
+
+/**
+ * Contributor of the SQL functions filtering on contents of JSON user type
+ * columns, rendered with the JSON functions of the dialect. All functions
+ * are boolean predicates rendered without any wrapping expression (matches of
+ * several values being joined with <code>or</code>). As HQL does not accept a
+ * function as a condition, they are compared with the <code>true</code>
+ * literal, like <code>gql_json_contains(e.tags, :tags) = true</code> :
+ * PostgreSQL simplifies <code>(predicate) = true</code> to the predicate
+ * itself, so that the planner sees the <code>jsonb</code> operator.
+ * <ul>
+ * <li>{@value #CONTAINS}(column, element...) : the JSON array column contains
+ * one of given elements</li>
+ * <li>{@value #HAS_KEY}(column, key...) : the JSON object column has one of
+ * given keys</li>
+ * <li>{@value #IS_EMPTY}(column) : the column is null or an empty JSON array or
+ * object</li>
+ * </ul>
+ * PostgreSQL <code>jsonb</code> operators and MySQL 5.7+ JSON functions are
+ * used. On PostgreSQL, columns are matched through
+ * <code>cast(column as jsonb)</code> : a GIN index can only be used if it is
+ * an expression index on this cast, like
+ * <code>create index ... on table using gin ((cast(column as jsonb)))</code>,
+ * for <code>text</code> as well as <code>jsonb</code> columns. Other
+ * dialects (like H2) match the JSON text, exactly for String elements and
+ * keys only. Columns stored with a binary
+ * {@link JsonStorageFormatEnum} cannot be filtered.<br>
+ * This contributor is registered as
+ * <code>hibernate.metadata_builder_contributor</code> by the auto
+ * configuration, unless another contributor is already configured : it must
+ * then be called by this other contributor.
+ *
+ * @author Thibaut Caselli
+ */
+public class JsonFunctionsContributor implements MetadataBuilderContributor {
+
+	/**
+	 * Name of the function telling whether a JSON array column contains one of
+	 * given elements
+	 */
+	public static final String CONTAINS = "gql_json_contains";
+	/**
+	 * Name of the function telling whether a JSON object column has one of
+	 * given keys
+	 */
+	public static final String HAS_KEY = "gql_json_has_key";
+	/**
+	 * Name of the function telling whether a JSON column is null or empty
+	 */
+	public static final String IS_EMPTY = "gql_json_is_empty";
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	@Override
+	public void contribute(final MetadataBuilder metadataBuilder) {
+		metadataBuilder.applySqlFunction(CONTAINS, new JsonFunction(CONTAINS, true) {
+			@Override
+			protected String renderMatch(final Dialect dialect, final String column, final String value) {
+				if (dialect instanceof PostgreSQL81Dialect) {
+					return "cast(" + column + " as jsonb) @> jsonb_build_array(" + value + ")";
+				} else if (dialect instanceof MySQLDialect) {
+					return "json_contains(" + column + ", json_array(" + value + "))";
+				} else {
+					return "locate(concat('\"', " + value + ", '\"'), " + column + ") > 0";
+				}
+			}
+		});
+		metadataBuilder.applySqlFunction(HAS_KEY, new JsonFunction(HAS_KEY, true) {
+			@Override
+			protected String renderMatch(final Dialect dialect, final String column, final String value) {
+				if (dialect instanceof PostgreSQL81Dialect) {
+					return "jsonb_exists(cast(" + column + " as jsonb), " + value + ")";
+				} else if (dialect instanceof MySQLDialect) {
+					return "json_contains_path(" + column + ", 'one', concat('$.\"', " + value + ", '\"'))";
+				} else {
+					return "locate(concat('\"', " + value + ", '\":'), " + column + ") > 0";
+				}
+			}
+		});
+		metadataBuilder.applySqlFunction(IS_EMPTY, new JsonFunction(IS_EMPTY, false) {
+			@Override
+			protected String renderMatch(final Dialect dialect, final String column, final String value) {
+				if (dialect instanceof PostgreSQL81Dialect) {
+					return column + " is null or cast(" + column + " as jsonb) in ('[]', '{}')";
+				} else if (dialect instanceof MySQLDialect) {
+					return column + " is null or json_length(" + column + ") = 0";
+				} else {
+					return column + " is null or trim(" + column + ") in ('', '[]', '{}')";
+				}
+			}
+		});
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * JSON function rendered as <code>(match1 or match2 ...)</code>, with one
+	 * match by value argument (list parameters being expanded into several
+	 * arguments)
+	 */
+	private abstract static class JsonFunction implements SQLFunction {
+
+		private final String name;
+		private final boolean withValues;
+
+		private JsonFunction(final String name, final boolean withValues) {
+			this.name = name;
+			this.withValues = withValues;
+		}
+
+		protected abstract String renderMatch(Dialect dialect, String column, String value);
+
+		@Override
+		public boolean hasArguments() {
+			return true;
+		}
+
+		@Override
+		public boolean hasParenthesesIfNoArguments() {
+			return true;
+		}
+
+		@Override
+		public Type getReturnType(final Type firstArgumentType, final Mapping mapping) {
+			return StandardBasicTypes.BOOLEAN;
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public String render(final Type firstArgumentType, final List arguments,
+				final SessionFactoryImplementor factory) {
+			if (arguments.isEmpty() || withValues == (arguments.size() == 1)) {
+				throw new QueryException("Wrong number of arguments for function " + name + " : " + arguments);
+			}
+			final Dialect dialect = factory.getJdbcServices().getDialect();
+			final String column = arguments.get(0).toString();
+			final StringBuilder sql = new StringBuilder("(");
+			if (withValues) {
+				for (int i = 1; i < arguments.size(); i++) {
+					sql.append(i == 1 ? "" : " or ").append(renderMatch(dialect, column, arguments.get(i).toString()));
+				}
+			} else {
+				sql.append(renderMatch(dialect, column, null));
+			}
+			return sql.append(")").toString();
+		}
+
+	}
+
+}
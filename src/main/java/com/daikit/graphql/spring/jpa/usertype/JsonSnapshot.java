@@ -0,0 +1,168 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import com.daikit.graphql.spring.jpa.utils.JsonUtils;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Snapshot of a JSON user type value, kept by Hibernate as loaded state of an
+ * entity property instead of a deep copy of the value : only its JSON
+ * representation is stored, and dirty checking compares this representation
+ * with the one of the current value. Snapshots of streamed values only keep a
+ * digest of their JSON representation, computed while serializing them
+ * without buffering, so that large documents are never held as Strings : they
+ * reference the value they were taken from instead, which is written when
+ * Hibernate inserts the snapshot.
+ *
+ * @author Thibaut Caselli
+ */
+final class JsonSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+	private static final OutputStream DISCARDING_STREAM = new OutputStream() {
+		@Override
+		public void write(final int b) {
+			// Only digested
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			// Only digested
+		}
+	};
+
+	private final String json;
+	private final byte[] digest;
+	private final transient Object value;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private JsonSnapshot(final String json, final byte[] digest, final Object value) {
+		this.json = json;
+		this.digest = digest;
+		this.value = value;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Create the snapshot of given value
+	 *
+	 * @param value
+	 *            the value (may be null or already a snapshot)
+	 * @param writer
+	 *            the {@link ObjectWriter} of the value type
+	 * @param digested
+	 *            whether only a digest of the JSON representation is kept
+	 * @return the {@link JsonSnapshot} or null if value is null
+	 */
+	static JsonSnapshot of(final Object value, final ObjectWriter writer, final boolean digested) {
+		if (value == null || value instanceof JsonSnapshot) {
+			return (JsonSnapshot) value;
+		}
+		return digested
+				? new JsonSnapshot(null, digest(value, writer), value)
+				: new JsonSnapshot(JsonUtils.toJson(value, writer), null, null);
+	}
+
+	/**
+	 * Get the JSON representation of given value
+	 *
+	 * @param value
+	 *            the value (may be null or a snapshot keeping its JSON
+	 *            representation)
+	 * @param writer
+	 *            the {@link ObjectWriter} of the value type
+	 * @return the JSON representation or null if value is null
+	 */
+	static String toJson(final Object value, final ObjectWriter writer) {
+		return value instanceof JsonSnapshot ? ((JsonSnapshot) value).getJson() : JsonUtils.toJson(value, writer);
+	}
+
+	/**
+	 * @return the JSON representation of the snapshot value
+	 * @throws IllegalStateException
+	 *             if the snapshot only keeps a digest
+	 */
+	String getJson() {
+		if (json == null) {
+			throw new IllegalStateException("Snapshots of streamed JSON values only keep a digest of their JSON");
+		}
+		return json;
+	}
+
+	/**
+	 * @return the value a digested snapshot was taken from (null for other
+	 *         snapshots or once deserialized)
+	 */
+	Object getValue() {
+		return value;
+	}
+
+	/**
+	 * @param otherJson
+	 *            a JSON representation
+	 * @return whether the snapshot value has given JSON representation
+	 */
+	boolean hasJson(final String otherJson) {
+		return json == null
+				? Arrays.equals(digest, createDigest().digest(otherJson.getBytes(StandardCharsets.UTF_8)))
+				: json.equals(otherJson);
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		return other instanceof JsonSnapshot
+				&& (json == null ? Arrays.equals(digest, ((JsonSnapshot) other).digest)
+						: json.equals(((JsonSnapshot) other).json));
+	}
+
+	@Override
+	public int hashCode() {
+		return json == null ? Arrays.hashCode(digest) : json.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return json == null ? "digest:" + Arrays.toString(digest) : json;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private static byte[] digest(final Object value, final ObjectWriter writer) {
+		// UTF-8 JSON is digested while being written
+		final MessageDigest messageDigest = createDigest();
+		try (OutputStream stream = new DigestOutputStream(DISCARDING_STREAM, messageDigest)) {
+			writer.writeValue(stream, value);
+		} catch (final IOException e) {
+			throw new IllegalArgumentException("An error happened while converting object to json : " + e.getMessage(),
+					e);
+		}
+		return messageDigest.digest();
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
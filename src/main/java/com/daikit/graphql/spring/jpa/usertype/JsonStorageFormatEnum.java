@@ -0,0 +1,89 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import java.sql.Types;
+
+/**
+ * Storage format of the column of a JSON user type. It is given by the
+ * {@value #PARAMETER_NAME} parameter of the type :
+ *
+ * <pre>
+ * &#64;Type(type = StringListUserType.NAME, parameters = &#64;Parameter(name = "storageFormat", value = "SMILE"))
+ * &#64;Column(columnDefinition = "blob")
+ * private List&lt;String&gt; tags;
+ * </pre>
+ *
+ * or by overriding <code>getStorageFormat()</code> in the user type. Binary
+ * formats read values stored as JSON text as well, so that existing rows do
+ * not need to be migrated.
+ *
+ * @author Thibaut Caselli
+ */
+public enum JsonStorageFormatEnum {
+
+	/**
+	 * JSON text in a character column (default)
+	 */
+	TEXT(Types.LONGVARCHAR),
+	/**
+	 * Jackson Smile binary JSON in a binary column (requires
+	 * <code>com.fasterxml.jackson.dataformat:jackson-dataformat-smile</code>)
+	 */
+	SMILE(Types.LONGVARBINARY),
+	/**
+	 * CBOR binary JSON in a binary column (requires
+	 * <code>com.fasterxml.jackson.dataformat:jackson-dataformat-cbor</code>)
+	 */
+	CBOR(Types.LONGVARBINARY),
+	/**
+	 * JSON text bound as {@link Types#OTHER} so that the database stores it in
+	 * its native binary JSON type (for example a PostgreSQL <code>jsonb</code>
+	 * column, to be declared with <code>columnDefinition = "jsonb"</code>)
+	 */
+	JSONB(Types.OTHER);
+
+	/**
+	 * The name of the user type parameter holding the storage format
+	 */
+	public static final String PARAMETER_NAME = "storageFormat";
+
+	/**
+	 * The name of the user type parameter telling whether values are parsed
+	 * from the column stream instead of an intermediate String and dirty
+	 * checked on a digest of their JSON ("true" or "false"). Written values
+	 * are still serialized entirely in memory before being bound.
+	 */
+	public static final String STREAMING_PARAMETER_NAME = "streaming";
+
+	private final int sqlType;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	private JsonStorageFormatEnum(final int sqlType) {
+		this.sqlType = sqlType;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return whether values are stored in a binary column
+	 */
+	public boolean isBinary() {
+		return sqlType == Types.LONGVARBINARY;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * @return the {@link Types} SQL type of the column
+	 */
+	public int getSqlType() {
+		return sqlType;
+	}
+
+}
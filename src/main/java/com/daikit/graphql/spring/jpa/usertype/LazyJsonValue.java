@@ -0,0 +1,113 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import java.util.function.Function;
+
+/**
+ * Holder of a JSON column value parsed on first access. Entity properties
+ * mapped with an {@link AbstractLazyJsonUserType} are declared with this type
+ * so that loading entities does not parse their JSON columns : the column
+ * content is kept as loaded and parsed by {@link #get()} only. As long as the
+ * value is not accessed, dirty checking compares column contents and the
+ * content is written back as is.
+ *
+ * @author Thibaut Caselli
+ * @param <JAVA_DATA_TYPE>
+ *            the type of the wrapped data
+ */
+public final class LazyJsonValue<JAVA_DATA_TYPE> {
+
+	private final Object columnValue;
+	private final Function<Object, JAVA_DATA_TYPE> parser;
+	private JAVA_DATA_TYPE value;
+	private boolean accessed;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor of a holder of a loaded column content
+	 *
+	 * @param columnValue
+	 *            the JSON String or bytes (may be null)
+	 * @param parser
+	 *            the parser of the column content
+	 */
+	LazyJsonValue(final Object columnValue, final Function<Object, JAVA_DATA_TYPE> parser) {
+		this.columnValue = columnValue;
+		this.parser = parser;
+	}
+
+	private LazyJsonValue(final JAVA_DATA_TYPE value) {
+		this(null, null);
+		this.value = value;
+		accessed = true;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Create a holder of given value
+	 *
+	 * @param value
+	 *            the value
+	 * @param <T>
+	 *            the value type
+	 * @return the {@link LazyJsonValue}
+	 */
+	public static <T> LazyJsonValue<T> of(final T value) {
+		return new LazyJsonValue<>(value);
+	}
+
+	/**
+	 * Get the value, parsing the column content on first access. As the
+	 * returned value may then be modified, it is serialized for dirty checking
+	 * from now on.
+	 *
+	 * @return the value
+	 */
+	public JAVA_DATA_TYPE get() {
+		if (!accessed) {
+			value = parser.apply(columnValue);
+			accessed = true;
+		}
+		return value;
+	}
+
+	/**
+	 * Replace the value
+	 *
+	 * @param value
+	 *            the value to set
+	 */
+	public void set(final JAVA_DATA_TYPE value) {
+		this.value = value;
+		accessed = true;
+	}
+
+	/**
+	 * @return whether the value has been accessed or set. If not, the column
+	 *         content is not parsed yet.
+	 */
+	public boolean isAccessed() {
+		return accessed;
+	}
+
+	/**
+	 * @return the column content as loaded (only relevant while the value has
+	 *         not been accessed)
+	 */
+	Object getColumnValue() {
+		return columnValue;
+	}
+
+	@Override
+	public String toString() {
+		return accessed || columnValue == null
+				? String.valueOf(value)
+				: columnValue instanceof String ? (String) columnValue : "<not parsed>";
+	}
+
+}
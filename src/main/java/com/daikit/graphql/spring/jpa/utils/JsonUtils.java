@@ -1,12 +1,15 @@
 package com.daikit.graphql.spring.jpa.utils;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
@@ -100,6 +103,100 @@ public class JsonUtils {
 		}
 	}
 
+	/**
+	 * Convert an object to JSON with given pre-built writer
+	 *
+	 * @param value
+	 *            the object value to be converted
+	 * @param writer
+	 *            the {@link ObjectWriter} (see {@link #getWriter(Type)})
+	 * @return the converted value as JSON String
+	 */
+	public static final String toJson(final Object value, final ObjectWriter writer) {
+		try {
+			return value == null ? null : writer.writeValueAsString(value);
+		} catch (final JsonProcessingException e) {
+			throw new IllegalArgumentException("An error happened while converting object to json : " + e.getMessage(),
+					e);
+		}
+	}
+
+	/**
+	 * Convert a JSON String to a Java Object with given pre-built reader
+	 *
+	 * @param jsonString
+	 *            the JSON String
+	 * @param reader
+	 *            the {@link ObjectReader} (see {@link #getReader(Type)})
+	 * @param <T>
+	 *            the returned object type
+	 * @return the converted object
+	 */
+	public static final <T> T fromJson(final String jsonString, final ObjectReader reader) {
+		try {
+			return jsonString == null ? null : reader.<T>readValue(jsonString);
+		} catch (final IOException e) {
+			throw new IllegalArgumentException(
+					"An error happened while converting object from json : " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Build a reader bound to given type, to be kept for reading values of
+	 * this type without resolving it again
+	 *
+	 * @param type
+	 *            the value type
+	 * @return the {@link ObjectReader}
+	 */
+	public static final ObjectReader getReader(final Type type) {
+		return getReader(MAPPER, type);
+	}
+
+	/**
+	 * Build a reader bound to given type with given mapper (for example a
+	 * mapper of a binary data format)
+	 *
+	 * @param mapper
+	 *            the {@link ObjectMapper}
+	 * @param type
+	 *            the value type
+	 * @return the {@link ObjectReader}
+	 */
+	public static final ObjectReader getReader(final ObjectMapper mapper, final Type type) {
+		return mapper.readerFor(mapper.getTypeFactory().constructType(type));
+	}
+
+	/**
+	 * Build a writer bound to given type, to be kept for writing values of
+	 * this type without resolving it again. Values of non final types may be
+	 * of sub types : the writer is bound to the type only for final and
+	 * container types.
+	 *
+	 * @param type
+	 *            the value type
+	 * @return the {@link ObjectWriter}
+	 */
+	public static final ObjectWriter getWriter(final Type type) {
+		return getWriter(MAPPER, type);
+	}
+
+	/**
+	 * Build a writer bound to given type with given mapper (for example a
+	 * mapper of a binary data format), following the same rules as
+	 * {@link #getWriter(Type)}
+	 *
+	 * @param mapper
+	 *            the {@link ObjectMapper}
+	 * @param type
+	 *            the value type
+	 * @return the {@link ObjectWriter}
+	 */
+	public static final ObjectWriter getWriter(final ObjectMapper mapper, final Type type) {
+		final JavaType javaType = mapper.getTypeFactory().constructType(type);
+		return javaType.isFinal() || javaType.isContainerType() ? mapper.writerFor(javaType) : mapper.writer();
+	}
+
 	/**
 	 * Copy given object using its JSON representation
 	 *
@@ -0,0 +1,114 @@
+package com.daikit.graphql.spring.jpa.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe bounded cache evicting least recently used entries, counting
+ * hits and misses
+ *
+ * @author Thibaut Caselli
+ * @param <KEY_TYPE>
+ *            the key type
+ * @param <VALUE_TYPE>
+ *            the value type
+ */
+public class LruCache<KEY_TYPE, VALUE_TYPE> {
+
+	private final Map<KEY_TYPE, VALUE_TYPE> entries;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxSize
+	 *            the maximum number of entries
+	 */
+	public LruCache(final int maxSize) {
+		entries = Collections.synchronizedMap(new LinkedHashMap<KEY_TYPE, VALUE_TYPE>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Entry<KEY_TYPE, VALUE_TYPE> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PUBLIC METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Get the value cached for given key, counting a hit or a miss
+	 *
+	 * @param key
+	 *            the key
+	 * @return the cached value or null
+	 */
+	public VALUE_TYPE get(final KEY_TYPE key) {
+		final VALUE_TYPE value = entries.get(key);
+		(value == null ? missCount : hitCount).incrementAndGet();
+		return value;
+	}
+
+	/**
+	 * Cache a value for given key
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 */
+	public void put(final KEY_TYPE key, final VALUE_TYPE value) {
+		entries.put(key, value);
+	}
+
+	/**
+	 * Remove the value cached for given key
+	 *
+	 * @param key
+	 *            the key
+	 */
+	public void remove(final KEY_TYPE key) {
+		entries.remove(key);
+	}
+
+	/**
+	 * Remove all cached values
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * @return the number of cached values
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the number of {@link #get(Object)} calls that found a value
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return the number of {@link #get(Object)} calls that did not find a
+	 *         value
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.daikit.graphql.spring.jpa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.data.input.GQLFilterEntry;
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.data.output.GQLOrderByEntry;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.daikit.graphql.spring.jpa.model.AuthorRepository;
+import com.daikit.graphql.spring.jpa.model.Book;
+import com.daikit.graphql.spring.jpa.model.BookRepository;
+import com.daikit.graphql.spring.jpa.model.Country;
+import com.daikit.graphql.spring.jpa.model.CountryRepository;
+import com.daikit.graphql.spring.jpa.service.IEntityService;
+
+/**
+ * Base class of entity service tests, run on an H2 database loaded once with
+ * {@value #AUTHOR_COUNT} authors :
+ * <ul>
+ * <li>author <code>i</code> is named <code>"author" + i % 7</code>, is from
+ * FR if <code>i</code> is even and US otherwise, and has age
+ * <code>i % 10</code> except every fifth author having no age</li>
+ * <li>each author has a book <code>"book" + i</code> tagged with
+ * <code>"t" + i % 3</code> and <code>"x"</code>, and an untagged book
+ * <code>"other" + i</code></li>
+ * </ul>
+ *
+ * @author Thibaut Caselli
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = EntityServiceTestConfiguration.class)
+public abstract class AbstractEntityServiceTest {
+
+	protected static final int AUTHOR_COUNT = 50;
+
+	private static boolean loaded;
+
+	@Autowired
+	protected IEntityService entityService;
+	@Autowired
+	protected PlatformTransactionManager transactionManager;
+	@Autowired
+	protected CountryRepository countryRepository;
+	@Autowired
+	protected AuthorRepository authorRepository;
+	@Autowired
+	protected BookRepository bookRepository;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Load test data (once for all tests sharing the application context)
+	 */
+	@Before
+	public void loadData() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		new TransactionTemplate(transactionManager).execute(status -> {
+			final Country fr = countryRepository.save(new Country("FR"));
+			final Country us = countryRepository.save(new Country("US"));
+			for (int i = 0; i < AUTHOR_COUNT; i++) {
+				final Author author = authorRepository
+						.save(new Author("author" + i % 7, i % 5 == 0 ? null : i % 10, i % 2 == 0 ? fr : us));
+				bookRepository.save(new Book("book" + i, author, "t" + i % 3, "x"));
+				bookRepository.save(new Book("other" + i, author));
+			}
+			return null;
+		});
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// PROTECTED METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	protected static GQLListLoadConfig listLoadConfig(final Integer offset, final Integer limit,
+			final List<GQLOrderByEntry> orderBy, final GQLFilterEntry... filters) {
+		final GQLListLoadConfig listLoadConfig = new GQLListLoadConfig();
+		listLoadConfig.setOffset(offset);
+		listLoadConfig.setLimit(limit);
+		listLoadConfig.setOrderBy(new ArrayList<>(orderBy));
+		listLoadConfig.setFilters(new ArrayList<>(Arrays.asList(filters)));
+		return listLoadConfig;
+	}
+
+	protected static GQLListLoadConfig listLoadConfig(final GQLFilterEntry... filters) {
+		return listLoadConfig(null, null, new ArrayList<>(), filters);
+	}
+
+	protected static GQLFilterEntry filter(final String fieldName, final GQLFilterOperatorEnum operator,
+			final Object value) {
+		final GQLFilterEntry filter = new GQLFilterEntry();
+		filter.setFieldName(fieldName);
+		filter.setOperator(operator);
+		filter.setValue(value);
+		return filter;
+	}
+
+	protected static GQLOrderByEntry orderBy(final String field, final GQLOrderByDirectionEnum direction) {
+		final GQLOrderByEntry orderBy = new GQLOrderByEntry();
+		orderBy.setField(field);
+		orderBy.setDirection(direction);
+		return orderBy;
+	}
+
+	protected static List<Long> getAuthorIds(final List<?> authors) {
+		return authors.stream().map(author -> ((Author) author).getId()).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.daikit.graphql.spring.jpa;
+
+import java.util.Properties;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import com.daikit.graphql.config.GQLSchemaConfig;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.daikit.graphql.spring.jpa.service.DefaultCountEstimator;
+import com.daikit.graphql.spring.jpa.service.DefaultEntityService;
+import com.daikit.graphql.spring.jpa.service.DefaultPersistenceRegistry;
+import com.daikit.graphql.spring.jpa.service.ICountEstimator;
+import com.daikit.graphql.spring.jpa.service.IEntityService;
+import com.daikit.graphql.spring.jpa.service.IPersistenceRegistry;
+import com.daikit.graphql.spring.jpa.usertype.JsonFunctionsContributor;
+
+/**
+ * Configuration of tests of the entity service on an in memory H2 database,
+ * with the test entities of the {@link Author} package
+ *
+ * @author Thibaut Caselli
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackageClasses = Author.class)
+public class EntityServiceTestConfiguration {
+
+	@Bean
+	public DataSource dataSource() {
+		return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+	}
+
+	@Bean
+	public LocalContainerEntityManagerFactoryBean entityManagerFactory(final DataSource dataSource) {
+		final LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+		entityManagerFactory.setDataSource(dataSource);
+		entityManagerFactory.setPackagesToScan(Author.class.getPackage().getName());
+		entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		final Properties properties = new Properties();
+		properties.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+		properties.put(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, "true");
+		properties.put(AvailableSettings.STATEMENT_INSPECTOR, RecordingStatementInspector.class.getName());
+		properties.put(EntityManagerFactoryBuilderImpl.METADATA_BUILDER_CONTRIBUTOR, new JsonFunctionsContributor());
+		entityManagerFactory.setJpaProperties(properties);
+		return entityManagerFactory;
+	}
+
+	@Bean
+	public PlatformTransactionManager transactionManager(final EntityManagerFactory entityManagerFactory) {
+		return new JpaTransactionManager(entityManagerFactory);
+	}
+
+	@Bean
+	public SpringDataGraphqlJpaProperties properties() {
+		return new SpringDataGraphqlJpaProperties();
+	}
+
+	@Bean
+	public GQLSchemaConfig schemaConfig() {
+		return new GQLSchemaConfig();
+	}
+
+	@Bean
+	public IPersistenceRegistry persistenceRegistry() {
+		return new DefaultPersistenceRegistry(Author.class.getPackage().getName());
+	}
+
+	@Bean
+	public ICountEstimator countEstimator() {
+		return new DefaultCountEstimator();
+	}
+
+	@Bean
+	public IEntityService entityService() {
+		return new DefaultEntityService();
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.daikit.graphql.spring.jpa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * {@link StatementInspector} recording the SQL statements prepared by
+ * Hibernate, for inspecting their execution plans
+ *
+ * @author Thibaut Caselli
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// METHODS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	@Override
+	public String inspect(final String sql) {
+		STATEMENTS.add(sql);
+		return sql;
+	}
+
+	/**
+	 * Forget recorded statements
+	 */
+	public static void clear() {
+		STATEMENTS.clear();
+	}
+
+	/**
+	 * @return the statements recorded since last {@link #clear()}
+	 */
+	public static List<String> getStatements() {
+		synchronized (STATEMENTS) {
+			return new ArrayList<>(STATEMENTS);
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.daikit.graphql.spring.jpa.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.querydsl.apt.jpa.JPAAnnotationProcessor;
+
+/**
+ * Tests of {@link PersistenceIndexProcessor} : entities are compiled with the
+ * query DSL processor and the generated index is loaded as a service
+ *
+ * @author Thibaut Caselli
+ */
+public class PersistenceIndexProcessorTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testDefaultClassName() throws Exception {
+		final ClassLoader classLoader = compile();
+		final IPersistenceIndex index = loadIndex(classLoader);
+		assertEquals("index.model.GQLPersistenceIndex", index.getClass().getName());
+		assertEquals(2, index.getEntries().size());
+		final PersistenceIndexEntry entry = index.getEntries().stream()
+				.filter(indexEntry -> indexEntry.getEntityClass().getName().equals("index.model.Shelf")).findFirst()
+				.get();
+		assertEquals(entry.getEntityClass(), entry.getEntityPath().getType());
+		assertEquals(classLoader.loadClass("index.model.QShelf").getField("shelf").get(null), entry.getEntityPath());
+		assertEquals(new HashSet<>(Arrays.asList("id", "label", "items")), entry.getFieldPaths().keySet());
+		assertEquals("shelf.label", entry.getFieldPaths().get("label").toString());
+	}
+
+	@Test
+	public void testClassNameOption() throws Exception {
+		final IPersistenceIndex index = loadIndex(
+				compile("-A" + PersistenceIndexProcessor.OPTION_CLASS_NAME + "=index.CustomIndex"));
+		assertEquals("index.CustomIndex", index.getClass().getName());
+		assertEquals(2, index.getEntries().size());
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+
+	private ClassLoader compile(final String... options) throws IOException {
+		final File sourceFolder = temporaryFolder.newFolder("src");
+		final File generatedSourceFolder = temporaryFolder.newFolder("generated");
+		final File classFolder = temporaryFolder.newFolder("classes");
+		final List<File> sources = Arrays.asList(
+				writeSource(sourceFolder, "index/model/Shelf.java",
+						"package index.model;\n@javax.persistence.Entity\npublic class Shelf {\n"
+								+ "\t@javax.persistence.Id\n\tprivate Long id;\n\tprivate String label;\n"
+								+ "\t@javax.persistence.OneToMany(mappedBy = \"shelf\")\n"
+								+ "\tprivate java.util.List<index.model.item.Item> items;\n}\n"),
+				writeSource(sourceFolder, "index/model/item/Item.java",
+						"package index.model.item;\n@javax.persistence.Entity\npublic class Item {\n"
+								+ "\t@javax.persistence.Id\n\tprivate Long id;\n"
+								+ "\t@javax.persistence.ManyToOne\n\tprivate index.model.Shelf shelf;\n}\n"));
+
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertNotNull("Tests must run on a JDK", compiler);
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+				StandardCharsets.UTF_8)) {
+			final List<String> compilerOptions = new ArrayList<>(Arrays.asList("-classpath",
+					System.getProperty("java.class.path"), "-d", classFolder.getPath(), "-s",
+					generatedSourceFolder.getPath()));
+			compilerOptions.addAll(Arrays.asList(options));
+			final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+					compilerOptions, null, fileManager.getJavaFileObjectsFromFiles(sources));
+			task.setProcessors(Arrays.asList(new JPAAnnotationProcessor(), new PersistenceIndexProcessor()));
+			assertTrue(diagnostics.getDiagnostics().toString(), task.call().booleanValue());
+		}
+		assertTrue(new File(classFolder, "META-INF/services/" + IPersistenceIndex.class.getName()).isFile());
+		return new URLClassLoader(new URL[] {classFolder.toURI().toURL()}, getClass().getClassLoader());
+	}
+
+	private static File writeSource(final File sourceFolder, final String path, final String source)
+			throws IOException {
+		final File file = new File(sourceFolder, path);
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static IPersistenceIndex loadIndex(final ClassLoader classLoader) {
+		final Iterator<IPersistenceIndex> indexes = ServiceLoader.load(IPersistenceIndex.class, classLoader)
+				.iterator();
+		IPersistenceIndex index = null;
+		while (indexes.hasNext()) {
+			final IPersistenceIndex current = indexes.next();
+			if (current.getClass().getClassLoader() == classLoader) {
+				index = current;
+			}
+		}
+		assertNotNull("No persistence index generated", index);
+		return index;
+	}
+
+}
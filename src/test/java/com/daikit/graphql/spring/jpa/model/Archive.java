@@ -0,0 +1,64 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.Type;
+
+import com.daikit.graphql.spring.jpa.usertype.JsonStorageFormatEnum;
+import com.daikit.graphql.spring.jpa.usertype.StringListUserType;
+
+/**
+ * Test entity with large JSON columns, stored with and without streaming
+ *
+ * @author Thibaut Caselli
+ */
+@Entity
+public class Archive {
+
+	@Id
+	@GeneratedValue
+	private Long id;
+	@Type(type = StringListUserType.NAME)
+	@Column(columnDefinition = "clob")
+	private List<String> lines = new ArrayList<>();
+	@Type(type = StringListUserType.NAME, parameters = @Parameter(name = JsonStorageFormatEnum.STREAMING_PARAMETER_NAME,
+			value = "true"))
+	@Column(columnDefinition = "clob")
+	private List<String> streamedLines = new ArrayList<>();
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(final Long id) {
+		this.id = id;
+	}
+
+	public List<String> getLines() {
+		return lines;
+	}
+
+	public void setLines(final List<String> lines) {
+		this.lines = lines;
+	}
+
+	public List<String> getStreamedLines() {
+		return streamedLines;
+	}
+
+	public void setStreamedLines(final List<String> streamedLines) {
+		this.streamedLines = streamedLines;
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+/**
+ * Repository of {@link Archive}
+ *
+ * @author Thibaut Caselli
+ */
+public interface ArchiveRepository extends JpaRepository<Archive, Long>, QuerydslPredicateExecutor<Archive> {
+
+	// Nothing more
+
+}
@@ -0,0 +1,106 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.Table;
+
+/**
+ * Test entity : author of {@link Book}s, with indexed name and age
+ *
+ * @author Thibaut Caselli
+ */
+@Entity
+@Table(indexes = {@Index(name = "author_name_idx", columnList = "name"),
+		@Index(name = "author_age_idx", columnList = "age")})
+public class Author {
+
+	@Id
+	@GeneratedValue
+	private Long id;
+	private String name;
+	private Integer age;
+	@ManyToOne(fetch = FetchType.LAZY)
+	private Country country;
+	@OneToMany(mappedBy = "author")
+	private List<Book> books = new ArrayList<>();
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor
+	 */
+	public Author() {
+		// Nothing done
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param name
+	 *            the name
+	 * @param age
+	 *            the age (may be null)
+	 * @param country
+	 *            the {@link Country}
+	 */
+	public Author(final String name, final Integer age, final Country country) {
+		this.name = name;
+		this.age = age;
+		this.country = country;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(final Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(final String name) {
+		this.name = name;
+	}
+
+	public Integer getAge() {
+		return age;
+	}
+
+	public void setAge(final Integer age) {
+		this.age = age;
+	}
+
+	public Country getCountry() {
+		return country;
+	}
+
+	public void setCountry(final Country country) {
+		this.country = country;
+	}
+
+	public List<Book> getBooks() {
+		return books;
+	}
+
+	public void setBooks(final List<Book> books) {
+		this.books = books;
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+/**
+ * Repository of {@link Author}
+ *
+ * @author Thibaut Caselli
+ */
+public interface AuthorRepository extends JpaRepository<Author, Long>, QuerydslPredicateExecutor<Author> {
+
+	// Nothing more
+
+}
@@ -0,0 +1,99 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+
+import org.hibernate.annotations.Type;
+
+import com.daikit.graphql.spring.jpa.usertype.StringListUserType;
+
+/**
+ * Test entity : book with tags stored in a JSON column
+ *
+ * @author Thibaut Caselli
+ */
+@Entity
+public class Book {
+
+	@Id
+	@GeneratedValue
+	private Long id;
+	private String title;
+	@ManyToOne(fetch = FetchType.LAZY)
+	private Author author;
+	@Type(type = StringListUserType.NAME)
+	@Column(columnDefinition = "clob")
+	private List<String> tags = new ArrayList<>();
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor
+	 */
+	public Book() {
+		// Nothing done
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param title
+	 *            the title
+	 * @param author
+	 *            the {@link Author}
+	 * @param tags
+	 *            the tags
+	 */
+	public Book(final String title, final Author author, final String... tags) {
+		this.title = title;
+		this.author = author;
+		this.tags = new ArrayList<>(Arrays.asList(tags));
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(final Long id) {
+		this.id = id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(final String title) {
+		this.title = title;
+	}
+
+	public Author getAuthor() {
+		return author;
+	}
+
+	public void setAuthor(final Author author) {
+		this.author = author;
+	}
+
+	public List<String> getTags() {
+		return tags;
+	}
+
+	public void setTags(final List<String> tags) {
+		this.tags = tags;
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+/**
+ * Repository of {@link Book}
+ *
+ * @author Thibaut Caselli
+ */
+public interface BookRepository extends JpaRepository<Book, Long>, QuerydslPredicateExecutor<Book> {
+
+	// Nothing more
+
+}
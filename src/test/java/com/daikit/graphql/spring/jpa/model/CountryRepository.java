@@ -0,0 +1,15 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+/**
+ * Repository of {@link Country}
+ *
+ * @author Thibaut Caselli
+ */
+public interface CountryRepository extends JpaRepository<Country, Long>, QuerydslPredicateExecutor<Country> {
+
+	// Nothing more
+
+}
@@ -0,0 +1,66 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import java.util.Date;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Test entity with a timestamp
+ *
+ * @author Thibaut Caselli
+ */
+@Entity
+public class Event {
+
+	@Id
+	@GeneratedValue
+	private Long id;
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date occurredAt;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// CONSTRUCTORS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * Constructor
+	 */
+	public Event() {
+		// Nothing done
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param occurredAt
+	 *            the event timestamp
+	 */
+	public Event(final Date occurredAt) {
+		this.occurredAt = occurredAt;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(final Long id) {
+		this.id = id;
+	}
+
+	public Date getOccurredAt() {
+		return occurredAt;
+	}
+
+	public void setOccurredAt(final Date occurredAt) {
+		this.occurredAt = occurredAt;
+	}
+
+}
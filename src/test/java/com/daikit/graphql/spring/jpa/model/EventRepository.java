@@ -0,0 +1,15 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+/**
+ * Repository of {@link Event}
+ *
+ * @author Thibaut Caselli
+ */
+public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event> {
+
+	// Nothing more
+
+}
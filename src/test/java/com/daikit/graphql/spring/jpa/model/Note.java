@@ -0,0 +1,86 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+
+import org.hibernate.annotations.Parameter;
+import org.hibernate.annotations.Type;
+
+import com.daikit.graphql.spring.jpa.usertype.JsonStorageFormatEnum;
+import com.daikit.graphql.spring.jpa.usertype.LazyJsonValue;
+import com.daikit.graphql.spring.jpa.usertype.StringListUserType;
+
+/**
+ * Test entity with JSON columns
+ *
+ * @author Thibaut Caselli
+ */
+@Entity
+public class Note {
+
+	@Id
+	@GeneratedValue
+	private Long id;
+	private String title;
+	@Type(type = NoteSettings.UserType.NAME)
+	@Column(columnDefinition = "clob")
+	private LazyJsonValue<NoteSettings> settings;
+	@Type(type = StringListUserType.NAME, parameters = @Parameter(name = JsonStorageFormatEnum.PARAMETER_NAME,
+			value = "SMILE"))
+	@Column(columnDefinition = "blob")
+	private List<String> smileTags = new ArrayList<>();
+	@Type(type = StringListUserType.NAME, parameters = @Parameter(name = JsonStorageFormatEnum.PARAMETER_NAME,
+			value = "CBOR"))
+	@Column(columnDefinition = "blob")
+	private List<String> cborTags = new ArrayList<>();
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(final Long id) {
+		this.id = id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(final String title) {
+		this.title = title;
+	}
+
+	public LazyJsonValue<NoteSettings> getSettings() {
+		return settings;
+	}
+
+	public void setSettings(final LazyJsonValue<NoteSettings> settings) {
+		this.settings = settings;
+	}
+
+	public List<String> getSmileTags() {
+		return smileTags;
+	}
+
+	public void setSmileTags(final List<String> smileTags) {
+		this.smileTags = smileTags;
+	}
+
+	public List<String> getCborTags() {
+		return cborTags;
+	}
+
+	public void setCborTags(final List<String> cborTags) {
+		this.cborTags = cborTags;
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+
+/**
+ * Repository of {@link Note}
+ *
+ * @author Thibaut Caselli
+ */
+public interface NoteRepository extends JpaRepository<Note, Long>, QuerydslPredicateExecutor<Note> {
+
+	// Nothing more
+
+}
@@ -0,0 +1,54 @@
+package com.daikit.graphql.spring.jpa.model;
+
+import com.daikit.graphql.spring.jpa.usertype.AbstractLazyJsonUserType;
+
+/**
+ * Test JSON value : settings of {@link Note}, stored in a JSON column and
+ * parsed lazily
+ *
+ * @author Thibaut Caselli
+ */
+public class NoteSettings {
+
+	private String color;
+	private int size;
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// GETTERS / SETTERS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	public String getColor() {
+		return color;
+	}
+
+	public void setColor(final String color) {
+		this.color = color;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(final int size) {
+		this.size = size;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	/**
+	 * User type of lazily parsed {@link NoteSettings}
+	 *
+	 * @author Thibaut Caselli
+	 */
+	public static class UserType extends AbstractLazyJsonUserType<NoteSettings> {
+
+		/**
+		 * Name to be used in {@link org.hibernate.annotations.Type}
+		 */
+		public static final String NAME = "com.daikit.graphql.spring.jpa.model.NoteSettings$UserType";
+
+	}
+
+}
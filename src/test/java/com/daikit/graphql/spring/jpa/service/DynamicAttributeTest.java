@@ -0,0 +1,169 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.daikit.graphql.data.input.GQLFilterEntry;
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.datafetcher.GQLDynamicAttributeRegistry;
+import com.daikit.graphql.dynamicattribute.IGQLDynamicAttributeGetter;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.data.ListLoadResult;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.EntityPathBase;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+
+/**
+ * Tests of filters and orders on dynamic attributes, either pushed down to
+ * the query through an {@link IDynamicAttributeQueryFactory} or applied in
+ * memory (see {@link SpringDataGraphqlJpaProperties#getDynamicAttributeMaxRows()})
+ *
+ * @author Thibaut Caselli
+ */
+public class DynamicAttributeTest extends AbstractEntityServiceTest {
+
+	private static final String IN_MEMORY_ATTRIBUTE = "doubleAge";
+	private static final String PUSHED_ATTRIBUTE = "pushedDoubleAge";
+
+	@Autowired
+	private SpringDataGraphqlJpaProperties properties;
+
+	private final int dynamicAttributeMaxRows = new SpringDataGraphqlJpaProperties().getDynamicAttributeMaxRows();
+
+	@After
+	public void resetDynamicAttributeMaxRows() {
+		properties.setDynamicAttributeMaxRows(dynamicAttributeMaxRows);
+	}
+
+	@Test
+	public void testFilterAndOrder() {
+		final List<Long> expected = getAuthorIds(entityService.findAll(Author.class,
+				listLoadConfig(null, null,
+						Arrays.asList(orderBy("age", GQLOrderByDirectionEnum.DESC),
+								orderBy("id", GQLOrderByDirectionEnum.ASC)),
+						filter("age", GQLFilterOperatorEnum.GREATER_THAN, 5)))
+				.getData());
+		assertEquals(20, expected.size());
+		for (final String attribute : Arrays.asList(IN_MEMORY_ATTRIBUTE, PUSHED_ATTRIBUTE)) {
+			assertEquals(attribute, expected,
+					getAuthorIds(entityService.findAll(Author.class, doubleAgeListLoadConfig(attribute, null, null),
+							createListLoadOptions()).getData()));
+			// Paging is applied after in memory filtering and ordering
+			final ListLoadResult result = entityService.findAll(Author.class,
+					doubleAgeListLoadConfig(attribute, 2, 4), createListLoadOptions());
+			assertEquals(attribute, expected.subList(2, 6), getAuthorIds(result.getData()));
+			assertTrue(attribute, result.isHasNext());
+			// Streaming filters in memory too, ordering by ID only
+			final GQLListLoadConfig streamListLoadConfig = doubleAgeListLoadConfig(attribute, 2, 4);
+			streamListLoadConfig.getOrderBy().remove(0);
+			final List<Object> streamed = new ArrayList<>();
+			assertEquals(attribute, 4, entityService.stream(Author.class, streamListLoadConfig,
+					createListLoadOptions(), streamed::add));
+			assertEquals(attribute, expected.stream().sorted().skip(2).limit(4).collect(Collectors.toList()),
+					getAuthorIds(streamed));
+		}
+	}
+
+	@Test
+	public void testDynamicAttributeMaxRows() {
+		properties.setDynamicAttributeMaxRows(10);
+		// Pushed down filters and orders do not load every row
+		assertEquals(20, entityService.findAll(Author.class, doubleAgeListLoadConfig(PUSHED_ATTRIBUTE, null, null),
+				createListLoadOptions()).getData().size());
+		try {
+			entityService.findAll(Author.class, doubleAgeListLoadConfig(IN_MEMORY_ATTRIBUTE, null, null),
+					createListLoadOptions());
+			throw new AssertionError("In memory filtering of more than 10 rows should have failed");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+
+	private static GQLListLoadConfig doubleAgeListLoadConfig(final String attribute, final Integer offset,
+			final Integer limit) {
+		final GQLFilterEntry filter = filter(attribute, GQLFilterOperatorEnum.GREATER_THAN, 10);
+		filter.setDynamic(true);
+		return listLoadConfig(offset, limit, Arrays.asList(orderBy(attribute, GQLOrderByDirectionEnum.DESC),
+				orderBy("id", GQLOrderByDirectionEnum.ASC)), filter);
+	}
+
+	private static ListLoadOptions createListLoadOptions() {
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setDynamicAttributeRegistry(new DoubleAgeRegistry());
+		return options;
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+
+	private static class DoubleAgeRegistry extends GQLDynamicAttributeRegistry {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <ENTITY_TYPE, ATTRIBUTE_TYPE> Optional<IGQLDynamicAttributeGetter<ENTITY_TYPE, ATTRIBUTE_TYPE>>
+				getGetter(final Class<?> entityClass, final String name) {
+			final Object getter;
+			if (!Author.class.isAssignableFrom(entityClass)) {
+				getter = null;
+			} else if (IN_MEMORY_ATTRIBUTE.equals(name)) {
+				getter = new DoubleAgeGetter();
+			} else if (PUSHED_ATTRIBUTE.equals(name)) {
+				getter = new PushedDoubleAgeGetter();
+			} else {
+				getter = null;
+			}
+			return Optional.ofNullable((IGQLDynamicAttributeGetter<ENTITY_TYPE, ATTRIBUTE_TYPE>) getter);
+		}
+
+	}
+
+	private static class DoubleAgeGetter implements IGQLDynamicAttributeGetter<Author, Integer> {
+
+		@Override
+		public Integer getValue(final Author source) {
+			return source.getAge() == null ? null : Integer.valueOf(source.getAge().intValue() * 2);
+		}
+
+	}
+
+	private static class PushedDoubleAgeGetter extends DoubleAgeGetter implements IDynamicAttributeQueryFactory {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public BooleanExpression createFilter(final EntityPathBase<?> basePath, final GQLFilterOperatorEnum operator,
+				final Expression<?> value) {
+			return GQLFilterOperatorEnum.GREATER_THAN.equals(operator)
+					? getOrderExpression(basePath).gt((Expression<Integer>) value)
+					: null;
+		}
+
+		@Override
+		public NumberExpression<Integer> getOrderExpression(final EntityPathBase<?> basePath) {
+			return Expressions.numberPath(Integer.class, basePath, "age").multiply(2);
+		}
+
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.datafetcher.GQLDynamicAttributeRegistry;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.model.Author;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+
+/**
+ * Tests of the {@link EntityRequestCache} of entities found by ID, and of its
+ * {@link EntityRequestCacheInstrumentation}
+ *
+ * @author Thibaut Caselli
+ */
+public class EntityRequestCacheTest extends AbstractEntityServiceTest {
+
+	@Test
+	public void testFindById() {
+		final List<Long> ids = getAuthorIds(authorRepository.findAll());
+		final EntityRequestCache requestCache = new EntityRequestCache();
+		try (EntityRequestCache.Scope scope = requestCache.bind()) {
+			assertSame(requestCache, EntityRequestCache.getCurrent());
+			final Author author = entityService.findById(Author.class, ids.get(0)).get();
+			assertSame(author, entityService.findById(Author.class, ids.get(0)).get());
+			final Map<Long, Author> authors = entityService.findByIds(Author.class, Arrays.asList(ids.get(0),
+					ids.get(1)));
+			assertSame(author, authors.get(ids.get(0)));
+			assertSame(authors.get(ids.get(1)), entityService.findById(Author.class, ids.get(1)).get());
+			assertEquals(3, requestCache.getHitCount());
+			assertEquals(2, requestCache.getMissCount());
+			// Entities found with their associations are not reused
+			assertNotSame(author,
+					entityService.findById(Author.class, ids.get(0), Arrays.asList("books.title")).get());
+		}
+		assertNull(EntityRequestCache.getCurrent());
+	}
+
+	@Test
+	public void testFindOrCreateInTransaction() {
+		final Long id = authorRepository.findAll().get(3).getId();
+		final EntityRequestCache requestCache = new EntityRequestCache();
+		try (EntityRequestCache.Scope scope = requestCache.bind()) {
+			new TransactionTemplate(transactionManager).execute(status -> {
+				status.setRollbackOnly();
+				// The managed entity found in the transaction is reused
+				final Author author = entityService.findById(Author.class, id).get();
+				assertSame(author, entityService.findOrCreateAndSetProperties(Author.class,
+						new GQLDynamicAttributeRegistry(),
+						new HashMap<>(Collections.singletonMap("id", String.valueOf(id)))));
+				return null;
+			});
+		}
+	}
+
+	@Test
+	public void testSaveReplacesCached() {
+		final Long id = authorRepository.findAll().get(4).getId();
+		final EntityRequestCache requestCache = new EntityRequestCache();
+		try (EntityRequestCache.Scope scope = requestCache.bind()) {
+			// Found outside of a transaction : detached
+			final Author detached = entityService.findById(Author.class, id).get();
+			new TransactionTemplate(transactionManager).execute(status -> {
+				status.setRollbackOnly();
+				final Author copy = new Author("merged", detached.getAge(), detached.getCountry());
+				copy.setId(id);
+				entityService.save(copy);
+				final Author saved = entityService.findById(Author.class, id).get();
+				assertNotSame(detached, saved);
+				assertNotSame(copy, saved);
+				assertEquals("merged", saved.getName());
+				final Author created = new Author("created", null, detached.getCountry());
+				entityService.saveAll(Arrays.asList(created));
+				assertSame(created, requestCache.get(Author.class, created.getId()));
+				return null;
+			});
+		}
+	}
+
+	@Test
+	public void testInstrumentation() {
+		final Long id = authorRepository.findAll().get(0).getId();
+		final DataFetcher<?> dataFetcher = environment -> entityService.findById(Author.class, id).get().getName();
+		final GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(
+				new SchemaParser().parse("type Query { a: String, b: String, c: String }"),
+				RuntimeWiring.newRuntimeWiring().type("Query", builder -> builder.dataFetcher("a", dataFetcher)
+						.dataFetcher("b", dataFetcher).dataFetcher("c", dataFetcher)).build());
+		final EntityRequestCacheInstrumentation instrumentation = new EntityRequestCacheInstrumentation();
+		final GraphQL graphQL = GraphQL.newGraphQL(schema).instrumentation(instrumentation).build();
+		assertTrue(graphQL.execute(ExecutionInput.newExecutionInput("{ a b c }").build()).getErrors().isEmpty());
+		assertEquals(2, instrumentation.getHitCount());
+		assertEquals(1, instrumentation.getMissCount());
+		assertNull(EntityRequestCache.getCurrent());
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.daikit.graphql.data.input.GQLFilterEntry;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.RecordingStatementInspector;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.model.Author;
+
+/**
+ * Tests of the execution plans (H2 <code>EXPLAIN</code>) of queries rendered
+ * for filters, checking that filters are compiled into predicates using the
+ * indexes of <code>author.age</code> and <code>author.name</code>
+ *
+ * @author Thibaut Caselli
+ */
+public class ExplainPlanTest extends AbstractEntityServiceTest {
+
+	private static final String AGE_INDEX = "/* PUBLIC.AUTHOR_AGE_IDX: ";
+	private static final String NAME_INDEX = "/* PUBLIC.AUTHOR_NAME_IDX: ";
+	private static final String TABLE_SCAN = "/* PUBLIC.AUTHOR.tableScan */";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	public void testRangeUsesIndex() throws SQLException {
+		final String plan = explain(2, new ListLoadOptions(), filter("age", GQLFilterOperatorEnum.GREATER_EQUAL, 2));
+		assertTrue(plan, plan.contains(AGE_INDEX + "AGE >= ?1 */"));
+	}
+
+	@Test
+	public void testMergedRangeUsesIndex() throws SQLException {
+		final String plan = explain(2, new ListLoadOptions(), filter("age", GQLFilterOperatorEnum.GREATER_EQUAL, 2),
+				filter("name", GQLFilterOperatorEnum.NOT_NULL, null),
+				filter("age", GQLFilterOperatorEnum.LOWER_EQUAL, 5));
+		// One between scanning the index from the lower to the upper bound
+		assertTrue(plan, plan.replaceAll("\\s+", " ").contains(AGE_INDEX + "AGE >= ?1 AND AGE <= ?2 */"));
+	}
+
+	@Test
+	public void testInUsesIndex() throws SQLException {
+		final String plan = explain(1, new ListLoadOptions(),
+				filter("age", GQLFilterOperatorEnum.IN, Arrays.asList(1, 2, 3)));
+		assertTrue(plan, plan.contains(AGE_INDEX + "AGE IN("));
+	}
+
+	@Test
+	public void testPrefixUsesIndex() throws SQLException {
+		final String plan = explain("auth%", new ListLoadOptions(),
+				filter("name", GQLFilterOperatorEnum.STARTS_WITH, "auth"));
+		assertTrue(plan, plan.contains(NAME_INDEX));
+	}
+
+	@Test
+	public void testIgnoreCaseMatchesLowerColumn() throws SQLException {
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setIgnoreCase(true);
+		final String plan = explain("author3", options, filter("name", GQLFilterOperatorEnum.EQUAL, "AUTHOR3"));
+		// H2 has no function based index : the lower(name) condition can only
+		// use such an index on other databases, and never the name index
+		assertTrue(plan, plan.contains("LOWER(\"AUTHOR0_\".\"NAME\")"));
+		assertTrue(plan, plan.contains(TABLE_SCAN));
+		assertFalse(plan, plan.contains(NAME_INDEX));
+	}
+
+	/**
+	 * Load authors with given filters and get the execution plan of the query
+	 *
+	 * @param parameter
+	 *            the value bound to all parameters of the explained query
+	 * @param options
+	 *            the {@link ListLoadOptions}
+	 * @param filters
+	 *            the filters
+	 * @return the execution plan
+	 * @throws SQLException
+	 *             if the query cannot be explained
+	 */
+	private String explain(final Object parameter, final ListLoadOptions options, final GQLFilterEntry... filters)
+			throws SQLException {
+		RecordingStatementInspector.clear();
+		entityService.findAll(Author.class, listLoadConfig(filters), options);
+		final String sql = RecordingStatementInspector.getStatements().get(0);
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+			for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+				statement.setObject(i, parameter);
+			}
+			try (ResultSet resultSet = statement.executeQuery()) {
+				resultSet.next();
+				return resultSet.getString(1);
+			}
+		}
+	}
+
+}
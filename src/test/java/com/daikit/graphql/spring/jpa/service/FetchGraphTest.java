@@ -0,0 +1,73 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.junit.Test;
+
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.RecordingStatementInspector;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.data.ListLoadResult;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.daikit.graphql.spring.jpa.model.Book;
+
+/**
+ * Tests of the fetching of selected associations
+ * ({@link ListLoadOptions#setSelectedFields(java.util.Collection)})
+ *
+ * @author Thibaut Caselli
+ */
+public class FetchGraphTest extends AbstractEntityServiceTest {
+
+	@Test
+	public void testFetchNestedToOne() {
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setSelectedFields(Arrays.asList("title", "author.name", "author.country.code"));
+		final List<?> books = entityService.findAll(Book.class,
+				listLoadConfig(null, 10, Arrays.asList(orderBy("title", GQLOrderByDirectionEnum.ASC))), options)
+				.getData();
+		assertEquals(10, books.size());
+		// Nested fields are read without query
+		RecordingStatementInspector.clear();
+		for (final Object book : books) {
+			assertTrue(Hibernate.isInitialized(((Book) book).getAuthor()));
+			assertTrue(Hibernate.isInitialized(((Book) book).getAuthor().getCountry()));
+			assertNotNull(((Book) book).getAuthor().getCountry().getCode());
+		}
+		assertTrue(RecordingStatementInspector.getStatements().isEmpty());
+	}
+
+	@Test
+	public void testFetchCollectionWithPaging() {
+		final GQLListLoadConfig listLoadConfig = listLoadConfig(3, 5, Arrays
+				.asList(orderBy("name", GQLOrderByDirectionEnum.ASC), orderBy("id", GQLOrderByDirectionEnum.ASC)));
+		final List<?> authors = entityService.findAll(Author.class, listLoadConfig).getData();
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setSelectedFields(Arrays.asList("name", "books.title", "country"));
+		final ListLoadResult result = entityService.findAll(Author.class, listLoadConfig, options);
+		// Pages are not changed by fetched collections
+		assertEquals(getAuthorIds(authors), getAuthorIds(result.getData()));
+		for (final Object author : result.getData()) {
+			assertTrue(Hibernate.isInitialized(((Author) author).getBooks()));
+			assertEquals(2, ((Author) author).getBooks().size());
+			assertTrue(Hibernate.isInitialized(((Author) author).getCountry()));
+		}
+	}
+
+	@Test
+	public void testFindByIdFetch() {
+		final Long id = authorRepository.findAll().get(0).getId();
+		final Author author = entityService.findById(Author.class, id, Arrays.asList("books")).get();
+		assertTrue(Hibernate.isInitialized(author.getBooks()));
+		assertEquals(2, author.getBooks().size());
+	}
+
+}
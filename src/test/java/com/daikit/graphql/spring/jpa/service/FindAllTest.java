@@ -0,0 +1,94 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.data.CountPolicyEnum;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.data.ListLoadResult;
+import com.daikit.graphql.spring.jpa.model.Author;
+
+/**
+ * Tests of {@link IEntityService#findAll(Class, GQLListLoadConfig)} filters,
+ * order by and offset paging
+ *
+ * @author Thibaut Caselli
+ */
+public class FindAllTest extends AbstractEntityServiceTest {
+
+	@Test
+	public void testFilters() {
+		assertEquals(AUTHOR_COUNT, entityService.findAll(Author.class, listLoadConfig()).getData().size());
+		assertEquals(40, entityService
+				.findAll(Author.class, listLoadConfig(filter("age", GQLFilterOperatorEnum.NOT_NULL, null)))
+				.getData().size());
+		assertEquals(7, entityService
+				.findAll(Author.class, listLoadConfig(filter("name", GQLFilterOperatorEnum.EQUAL, "author3")))
+				.getData().size());
+		assertEquals(25, entityService
+				.findAll(Author.class, listLoadConfig(filter("country.code", GQLFilterOperatorEnum.EQUAL, "FR")))
+				.getData().size());
+		// Range filters on the same field are merged
+		assertEquals(15, entityService.findAll(Author.class,
+				listLoadConfig(filter("age", GQLFilterOperatorEnum.GREATER_EQUAL, 2),
+						filter("age", GQLFilterOperatorEnum.LOWER_EQUAL, 5)))
+				.getData().size());
+	}
+
+	@Test
+	public void testIgnoreCase() {
+		final ListLoadOptions options = new ListLoadOptions();
+		assertEquals(0, entityService.findAll(Author.class,
+				listLoadConfig(filter("name", GQLFilterOperatorEnum.EQUAL, "AUTHOR3")), options).getData().size());
+		options.setIgnoreCase(true);
+		assertEquals(7, entityService.findAll(Author.class,
+				listLoadConfig(filter("name", GQLFilterOperatorEnum.EQUAL, "AUTHOR3")), options).getData().size());
+		assertEquals(AUTHOR_COUNT, entityService.findAll(Author.class,
+				listLoadConfig(filter("name", GQLFilterOperatorEnum.STARTS_WITH, "AuTh")), options).getData().size());
+	}
+
+	@Test
+	public void testOffsetPaging() {
+		final List<Long> allIds = getAuthorIds(entityService.findAll(Author.class,
+				listLoadConfig(null, null, Arrays.asList(orderBy("name", GQLOrderByDirectionEnum.ASC),
+						orderBy("id", GQLOrderByDirectionEnum.DESC))))
+				.getData());
+		assertEquals(AUTHOR_COUNT, allIds.size());
+		final List<?> page = entityService.findAll(Author.class,
+				listLoadConfig(9, 4, Arrays.asList(orderBy("name", GQLOrderByDirectionEnum.ASC),
+						orderBy("id", GQLOrderByDirectionEnum.DESC))))
+				.getData();
+		assertEquals(allIds.subList(9, 13), getAuthorIds(page));
+	}
+
+	@Test
+	public void testSkippedCount() {
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setCountPolicy(CountPolicyEnum.SKIP);
+		ListLoadResult result = entityService.findAll(Author.class,
+				listLoadConfig(7, 7, Collections.emptyList(), filter("age", GQLFilterOperatorEnum.NOT_NULL, null)),
+				options);
+		assertEquals(7, result.getData().size());
+		assertTrue(result.isHasNext());
+		assertTrue(result.isTotalLowerBound());
+		// The total of the last page is exact
+		result = entityService.findAll(Author.class,
+				listLoadConfig(35, 7, Collections.emptyList(), filter("age", GQLFilterOperatorEnum.NOT_NULL, null)),
+				options);
+		assertEquals(5, result.getData().size());
+		assertFalse(result.isHasNext());
+		assertFalse(result.isTotalLowerBound());
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.RecordingStatementInspector;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties;
+import com.daikit.graphql.spring.jpa.model.Author;
+
+/**
+ * Tests of {@link IEntityService#findByIds(Class, java.util.Collection)} and
+ * {@link EntityDataLoaders}
+ *
+ * @author Thibaut Caselli
+ */
+public class FindByIdsTest extends AbstractEntityServiceTest {
+
+	@Autowired
+	private SpringDataGraphqlJpaProperties properties;
+
+	private final int inClauseChunkSize = new SpringDataGraphqlJpaProperties().getInClauseChunkSize();
+
+	@After
+	public void resetInClauseChunkSize() {
+		properties.setInClauseChunkSize(inClauseChunkSize);
+	}
+
+	@Test
+	public void testFindByIds() {
+		final List<Long> ids = getAuthorIds(authorRepository.findAll());
+		final List<Long> requestedIds = new ArrayList<>(ids);
+		Collections.reverse(requestedIds);
+		requestedIds.add(ids.get(0));
+		requestedIds.add(Long.valueOf(-1));
+		properties.setInClauseChunkSize(20);
+		RecordingStatementInspector.clear();
+		final Map<Long, Author> authors = entityService.findByIds(Author.class, requestedIds);
+		// Duplicates are loaded once, in chunks of 20 IDs
+		assertEquals(3, RecordingStatementInspector.getStatements().size());
+		// Missing IDs are not in the map
+		assertEquals(AUTHOR_COUNT, authors.size());
+		assertFalse(authors.containsKey(Long.valueOf(-1)));
+		for (final Long id : ids) {
+			assertEquals(id, authors.get(id).getId());
+		}
+	}
+
+	@Test
+	public void testDataLoaders() {
+		final List<Long> ids = getAuthorIds(authorRepository.findAll());
+		final EntityDataLoaders dataLoaders = new EntityDataLoaders(entityService);
+		final List<CompletableFuture<Author>> futures = new ArrayList<>();
+		for (final Long id : Arrays.asList(ids.get(3), Long.valueOf(-1), ids.get(1), ids.get(3))) {
+			futures.add(dataLoaders.load(Author.class, id));
+		}
+		assertFalse(futures.get(0).isDone());
+		RecordingStatementInspector.clear();
+		dataLoaders.getRegistry().dispatchAll();
+		// All loads of the batch are done with a single query, each future
+		// being completed with the entity of its ID
+		assertEquals(1, RecordingStatementInspector.getStatements().size());
+		assertEquals(ids.get(3), futures.get(0).join().getId());
+		assertNull(futures.get(1).join());
+		assertEquals(ids.get(1), futures.get(2).join().getId());
+		assertEquals(ids.get(3), futures.get(3).join().getId());
+	}
+
+}
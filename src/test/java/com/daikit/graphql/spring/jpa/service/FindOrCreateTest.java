@@ -0,0 +1,62 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.datafetcher.GQLDynamicAttributeRegistry;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.model.Note;
+import com.daikit.graphql.spring.jpa.model.NoteRepository;
+import com.daikit.graphql.spring.jpa.model.NoteSettings;
+
+/**
+ * Tests of
+ * {@link IEntityService#findOrCreateAndSetProperties(Class, GQLDynamicAttributeRegistry, Map)}
+ *
+ * @author Thibaut Caselli
+ */
+public class FindOrCreateTest extends AbstractEntityServiceTest {
+
+	@Autowired
+	private NoteRepository noteRepository;
+
+	@Test
+	public void testLazyJsonValue() {
+		final Map<String, Object> settings = new HashMap<>();
+		settings.put("color", "red");
+		settings.put("size", Integer.valueOf(3));
+		final Map<String, Object> properties = new HashMap<>();
+		properties.put("title", "created");
+		properties.put("settings", settings);
+		final Long id = saveNote(properties);
+		assertEquals("red", getSettings(id).getColor());
+		assertEquals(3, getSettings(id).getSize());
+
+		// Embedded lazy JSON values of existing entities are replaced
+		settings.put("color", "blue");
+		properties.put("id", id.toString());
+		saveNote(properties);
+		assertEquals("blue", getSettings(id).getColor());
+	}
+
+	private Long saveNote(final Map<String, Object> properties) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			final Note note = entityService.findOrCreateAndSetProperties(Note.class,
+					new GQLDynamicAttributeRegistry(), properties);
+			entityService.save(note);
+			return note.getId();
+		});
+	}
+
+	private NoteSettings getSettings(final Long id) {
+		return new TransactionTemplate(transactionManager)
+				.execute(status -> noteRepository.findById(id).get().getSettings().get());
+	}
+
+}
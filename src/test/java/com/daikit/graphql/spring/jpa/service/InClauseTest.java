@@ -0,0 +1,81 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.daikit.graphql.data.input.GQLFilterEntry;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.RecordingStatementInspector;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties;
+import com.daikit.graphql.spring.jpa.model.Author;
+
+/**
+ * Tests of IN and NOT_IN filters : empty value lists, padded value lists and
+ * value lists split into several clauses (see
+ * {@link SpringDataGraphqlJpaProperties#getInClauseChunkSize()})
+ *
+ * @author Thibaut Caselli
+ */
+public class InClauseTest extends AbstractEntityServiceTest {
+
+	@Autowired
+	private SpringDataGraphqlJpaProperties properties;
+
+	private final int inClauseChunkSize = new SpringDataGraphqlJpaProperties().getInClauseChunkSize();
+
+	@After
+	public void resetInClauseChunkSize() {
+		properties.setInClauseChunkSize(inClauseChunkSize);
+	}
+
+	@Test
+	public void testEmpty() {
+		RecordingStatementInspector.clear();
+		assertEquals(0, countAuthors(filter("age", GQLFilterOperatorEnum.IN, Collections.emptyList())));
+		// Authors without age are not filtered out either
+		assertEquals(AUTHOR_COUNT,
+				countAuthors(filter("age", GQLFilterOperatorEnum.NOT_IN, Collections.emptyList())));
+		assertFalse(RecordingStatementInspector.getStatements().stream().anyMatch(sql -> sql.contains("in ()")));
+		// Empty lists do not share the query plan of non empty lists
+		assertEquals(10, countAuthors(filter("age", GQLFilterOperatorEnum.IN, Arrays.asList(1, 2))));
+		assertEquals(0, countAuthors(filter("age", GQLFilterOperatorEnum.IN, Collections.emptyList())));
+	}
+
+	@Test
+	public void testChunks() {
+		properties.setInClauseChunkSize(3);
+		RecordingStatementInspector.clear();
+		// Duplicates are not counted : 4 distinct values in 2 clauses
+		assertEquals(20, countAuthors(filter("age", GQLFilterOperatorEnum.IN, Arrays.asList(1, 1, 2, 2, 3, 3, 4))));
+		assertEquals(2, RecordingStatementInspector.getStatements().get(0).split(" in \\(").length - 1);
+		// Value lists filling their last clause exactly leave no clause empty
+		assertEquals(15, countAuthors(filter("age", GQLFilterOperatorEnum.IN, Arrays.asList(1, 2, 3, 1, 2, 3))));
+		assertEquals(15,
+				countAuthors(filter("age", GQLFilterOperatorEnum.NOT_IN, Arrays.asList(1, 2, 3, 4, 6, 1))));
+	}
+
+	@Test
+	public void testPadding() {
+		RecordingStatementInspector.clear();
+		// 5 distinct values are padded to 8 parameters
+		assertEquals(25, countAuthors(filter("age", GQLFilterOperatorEnum.IN, Arrays.asList(1, 2, 3, 4, 6, 1, 2))));
+		final String sql = RecordingStatementInspector.getStatements().get(0);
+		assertEquals(8, sql.substring(sql.indexOf(" in (")).split("\\?").length - 1);
+		// Lists padded to the same size share their SQL
+		assertEquals(30, countAuthors(filter("age", GQLFilterOperatorEnum.IN, Arrays.asList(1, 2, 3, 4, 6, 7))));
+		assertEquals(sql, RecordingStatementInspector.getStatements().get(1));
+	}
+
+	private int countAuthors(final GQLFilterEntry filter) {
+		return entityService.findAll(Author.class, listLoadConfig(filter)).getData().size();
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.daikit.graphql.data.input.GQLFilterEntry;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.model.Book;
+import com.daikit.graphql.spring.jpa.usertype.JsonFunctionsContributor;
+
+/**
+ * Tests of filters on JSON user type columns (see
+ * {@link JsonFunctionsContributor})
+ *
+ * @author Thibaut Caselli
+ */
+public class JsonFilterTest extends AbstractEntityServiceTest {
+
+	@Test
+	public void testContains() {
+		assertEquals(17, countBooks(filter("tags", GQLFilterOperatorEnum.CONTAINS, "t0")));
+		assertEquals(AUTHOR_COUNT, countBooks(filter("tags", GQLFilterOperatorEnum.EQUAL, "x")));
+		assertEquals(33, countBooks(filter("tags", GQLFilterOperatorEnum.IN, Arrays.asList("t0", "t2"))));
+		// Elements are matched exactly
+		assertEquals(0, countBooks(filter("tags", GQLFilterOperatorEnum.CONTAINS, "t")));
+	}
+
+	@Test
+	public void testNotContains() {
+		// Untagged books do not contain the value
+		assertEquals(33 + AUTHOR_COUNT, countBooks(filter("tags", GQLFilterOperatorEnum.NOT_EQUAL, "t0")));
+		assertEquals(17 + AUTHOR_COUNT,
+				countBooks(filter("tags", GQLFilterOperatorEnum.NOT_IN, Arrays.asList("t0", "t2"))));
+	}
+
+	@Test
+	public void testEmpty() {
+		assertEquals(AUTHOR_COUNT, countBooks(filter("tags", GQLFilterOperatorEnum.EMPTY, null)));
+		assertEquals(AUTHOR_COUNT, countBooks(filter("tags", GQLFilterOperatorEnum.NOT_EMPTY, null)));
+	}
+
+	private int countBooks(final GQLFilterEntry filter) {
+		return entityService.findAll(Book.class, listLoadConfig(filter)).getData().size();
+	}
+
+}
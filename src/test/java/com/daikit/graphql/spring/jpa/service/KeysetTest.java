@@ -0,0 +1,101 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.data.ListLoadResult;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.daikit.graphql.spring.jpa.model.Event;
+import com.daikit.graphql.spring.jpa.model.EventRepository;
+
+/**
+ * Tests of keyset paging ({@link ListLoadOptions#setKeyset(boolean)})
+ *
+ * @author Thibaut Caselli
+ */
+public class KeysetTest extends AbstractEntityServiceTest {
+
+	@Autowired
+	private EventRepository eventRepository;
+
+	@Test
+	public void testKeysetPagesMatchOffsetOrder() {
+		final GQLListLoadConfig listLoadConfig = listLoadConfig(null, null,
+				Arrays.asList(orderBy("name", GQLOrderByDirectionEnum.ASC),
+						orderBy("age", GQLOrderByDirectionEnum.DESC)),
+				filter("age", GQLFilterOperatorEnum.NOT_NULL, null));
+		final List<Long> allIds = getAuthorIds(entityService.findAll(Author.class, listLoadConfig).getData());
+		assertEquals(40, allIds.size());
+		listLoadConfig.setLimit(7);
+		assertEquals(allIds, getAuthorIds(loadAllPages(Author.class, listLoadConfig)));
+	}
+
+	@Test
+	public void testKeysetOnNullableField() {
+		for (final GQLOrderByDirectionEnum direction : GQLOrderByDirectionEnum.values()) {
+			final GQLListLoadConfig listLoadConfig = listLoadConfig(null, 3,
+					Arrays.asList(orderBy("age", direction)));
+			final List<?> authors = loadAllPages(Author.class, listLoadConfig);
+			assertEquals(AUTHOR_COUNT, authors.size());
+			assertEquals(AUTHOR_COUNT, new HashSet<>(getAuthorIds(authors)).size());
+			// Null values are sorted last whatever the direction
+			assertNotNull(((Author) authors.get(0)).getAge());
+			assertNull(((Author) authors.get(AUTHOR_COUNT - 1)).getAge());
+		}
+	}
+
+	@Test
+	public void testKeysetOnTimestampsInSameMillisecond() {
+		final long millis = System.currentTimeMillis();
+		final List<Event> events = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			final Timestamp occurredAt = new Timestamp(millis);
+			occurredAt.setNanos(occurredAt.getNanos() + (5 - i) * 1000);
+			events.add(new Event(occurredAt));
+		}
+		eventRepository.saveAll(events);
+		try {
+			final List<?> loaded = loadAllPages(Event.class,
+					listLoadConfig(null, 2, Arrays.asList(orderBy("occurredAt", GQLOrderByDirectionEnum.ASC))));
+			final List<Long> expectedIds = new ArrayList<>();
+			for (int i = events.size() - 1; i >= 0; i--) {
+				expectedIds.add(events.get(i).getId());
+			}
+			assertEquals(expectedIds, loaded.stream().map(event -> ((Event) event).getId()).collect(Collectors.toList()));
+		} finally {
+			eventRepository.deleteAll(events);
+		}
+	}
+
+	private List<?> loadAllPages(final Class<?> entityClass, final GQLListLoadConfig listLoadConfig) {
+		final List<Object> entities = new ArrayList<>();
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setKeyset(true);
+		ListLoadResult result;
+		do {
+			result = entityService.findAll(entityClass, listLoadConfig, options);
+			entities.addAll(result.getData());
+			assertTrue("Keyset paging does not end", entities.size() <= AUTHOR_COUNT);
+			options.setCursor(result.getNextCursor());
+		} while (result.isHasNext());
+		return entities;
+	}
+
+}
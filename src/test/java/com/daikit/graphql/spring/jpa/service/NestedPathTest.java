@@ -0,0 +1,80 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.data.input.GQLFilterEntry;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.daikit.graphql.spring.jpa.model.Book;
+
+/**
+ * Tests of filters and orders on dotted paths through to-one associations
+ * (joined) and collection associations (filtered with a sub query)
+ *
+ * @author Thibaut Caselli
+ */
+public class NestedPathTest extends AbstractEntityServiceTest {
+
+	@Test
+	public void testToOneFilter() {
+		assertEquals(50, count(Book.class, filter("author.country.code", GQLFilterOperatorEnum.EQUAL, "FR")));
+		assertEquals(25, count(Book.class, filter("author.country.code", GQLFilterOperatorEnum.EQUAL, "FR"),
+				filter("title", GQLFilterOperatorEnum.STARTS_WITH, "book")));
+		assertEquals(16, count(Book.class, filter("author.name", GQLFilterOperatorEnum.EQUAL, "author0")));
+	}
+
+	@Test
+	public void testCollectionFilter() {
+		// Authors matching through several books are returned once
+		assertEquals(1, count(Author.class, filter("books.title", GQLFilterOperatorEnum.EQUAL, "book3")));
+		assertEquals(11, count(Author.class, filter("books.title", GQLFilterOperatorEnum.STARTS_WITH, "book1")));
+		assertEquals(25, count(Author.class, filter("books.author.country.code", GQLFilterOperatorEnum.EQUAL, "US")));
+	}
+
+	@Test
+	public void testToOneOrder() {
+		new TransactionTemplate(transactionManager).execute(status -> {
+			status.setRollbackOnly();
+			// Books without author are kept by the join of the order
+			bookRepository.save(new Book("orphan", null));
+			final List<?> books = entityService.findAll(Book.class,
+					listLoadConfig(null, null,
+							Arrays.asList(orderBy("author.country.code", GQLOrderByDirectionEnum.DESC),
+									orderBy("author.name", GQLOrderByDirectionEnum.ASC),
+									orderBy("id", GQLOrderByDirectionEnum.ASC))))
+					.getData();
+			assertEquals(101, books.size());
+			for (int i = 0; i < 100; i++) {
+				final Author author = ((Book) books.get(i)).getAuthor();
+				assertEquals(i < 50 ? "US" : "FR", author.getCountry().getCode());
+				if (i > 0) {
+					final Author previous = ((Book) books.get(i - 1)).getAuthor();
+					if (previous.getCountry().equals(author.getCountry())) {
+						assertTrue(previous.getName().compareTo(author.getName()) <= 0);
+					}
+				}
+			}
+			assertNull(((Book) books.get(100)).getAuthor());
+			return null;
+		});
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+	// PRIVATE UTILS
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+
+	private int count(final Class<?> entityClass, final GQLFilterEntry... filters) {
+		return entityService.findAll(entityClass, listLoadConfig(filters)).getData().size();
+	}
+
+}
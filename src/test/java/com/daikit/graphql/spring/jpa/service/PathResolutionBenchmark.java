@@ -0,0 +1,113 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.daikit.graphql.data.input.GQLFilterEntry;
+import com.daikit.graphql.data.output.GQLOrderByEntry;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.EntityServiceTestConfiguration;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.querydsl.core.types.dsl.EntityPathBase;
+
+/**
+ * Benchmark of the resolution of filter and order by field paths. The
+ * <code>reflective*</code> benchmarks read paths with
+ * {@link FieldUtils#readField(Object, String, boolean)} like it was done for
+ * each filter and order by of each request before paths were registered by
+ * {@link DefaultPersistenceRegistry}, the other ones measure the current
+ * lookups. Allocations are reported by the <code>gc</code> profiler (see the
+ * <code>benchmark</code> maven profile).
+ *
+ * @author Thibaut Caselli
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathResolutionBenchmark {
+
+	private static final List<String> FIELD_NAMES = Arrays.asList("name", "age", "country");
+
+	private AnnotationConfigApplicationContext context;
+	private DefaultEntityService entityService;
+	private IPersistenceRegistry persistenceRegistry;
+	private EntityPathBase<Author> basePath;
+	private List<GQLFilterEntry> filters;
+	private GQLOrderByEntry orderBy;
+
+	@Setup
+	public void setup() {
+		context = new AnnotationConfigApplicationContext(EntityServiceTestConfiguration.class);
+		entityService = (DefaultEntityService) AopProxyUtils.getSingletonTarget(context.getBean(IEntityService.class));
+		persistenceRegistry = context.getBean(IPersistenceRegistry.class);
+		basePath = persistenceRegistry.getEntityPath(Author.class);
+		filters = Arrays.asList(filter("name", GQLFilterOperatorEnum.EQUAL, "author3"),
+				filter("age", GQLFilterOperatorEnum.GREATER_EQUAL, 2),
+				filter("country", GQLFilterOperatorEnum.NOT_NULL, null));
+		orderBy = new GQLOrderByEntry();
+		orderBy.setField("name");
+		orderBy.setDirection(GQLOrderByDirectionEnum.ASC);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void reflectiveFieldPaths(final Blackhole blackhole) throws IllegalAccessException {
+		for (final String fieldName : FIELD_NAMES) {
+			blackhole.consume(FieldUtils.readField(basePath, fieldName, true));
+		}
+	}
+
+	@Benchmark
+	public void registeredFieldPaths(final Blackhole blackhole) {
+		for (final String fieldName : FIELD_NAMES) {
+			blackhole.consume(persistenceRegistry.getFieldPath(Author.class, fieldName));
+		}
+	}
+
+	@Benchmark
+	public void filterExpressions(final Blackhole blackhole) {
+		for (final GQLFilterEntry filter : filters) {
+			blackhole.consume(entityService.applyFilter(basePath, filter));
+		}
+	}
+
+	@Benchmark
+	public Object orderSpecifier() {
+		return entityService.applyOrderBy(basePath, orderBy);
+	}
+
+	private static GQLFilterEntry filter(final String fieldName, final GQLFilterOperatorEnum operator,
+			final Object value) {
+		final GQLFilterEntry filter = new GQLFilterEntry();
+		filter.setFieldName(fieldName);
+		filter.setOperator(operator);
+		filter.setValue(value);
+		return filter;
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.daikit.graphql.spring.jpa.model.Book;
+import com.daikit.graphql.spring.jpa.model.Note;
+import com.daikit.graphql.spring.jpa.model.NoteSettings;
+import com.daikit.graphql.spring.jpa.model.QAuthor;
+import com.daikit.graphql.spring.jpa.model.QBook;
+
+/**
+ * Tests of {@link DefaultPersistenceRegistry} registrations and of lookups
+ * from proxy classes or during a new registration
+ *
+ * @author Thibaut Caselli
+ */
+public class PersistenceRegistryTest extends AbstractEntityServiceTest {
+
+	@Autowired
+	private IPersistenceRegistry persistenceRegistry;
+	@Autowired
+	private ApplicationContext applicationContext;
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	public void testRegistrations() {
+		assertSame(QAuthor.author, persistenceRegistry.getEntityPath(Author.class));
+		assertSame(QAuthor.author.name, persistenceRegistry.getFieldPath(Author.class, "name"));
+		assertSame(QAuthor.author.id, persistenceRegistry.getIdPath(Author.class));
+		assertSame(authorRepository, persistenceRegistry.getRepository(Author.class));
+		assertSame(QBook.book, persistenceRegistry.getEntityPath(Book.class));
+		assertSame(bookRepository, persistenceRegistry.getRepository(Book.class));
+	}
+
+	@Test
+	public void testProxyClasses() {
+		final Long id = authorRepository.findAll().get(0).getId();
+		new TransactionTemplate(transactionManager).execute(status -> {
+			status.setRollbackOnly();
+			final Author proxy = entityManager.getReference(Author.class, id);
+			assertNotEquals(Author.class, proxy.getClass());
+			assertSame(Author.class, persistenceRegistry.getEntityClass(proxy.getClass()));
+			assertSame(QAuthor.author, persistenceRegistry.getEntityPath(proxy.getClass()));
+			assertSame(authorRepository, persistenceRegistry.getRepository(proxy.getClass()));
+			assertSame(QAuthor.author.id, persistenceRegistry.getIdPath(proxy.getClass()));
+			// Other classes are kept
+			assertSame(String.class, persistenceRegistry.getEntityClass(String.class));
+			// Proxies are saved with the entities of their class
+			proxy.setName("proxy");
+			entityService.saveAll(Arrays.asList(proxy, new Author("saved", null, null)));
+			entityManager.flush();
+			entityManager.clear();
+			assertEquals("proxy", authorRepository.findById(id).get().getName());
+			return null;
+		});
+	}
+
+	@Test
+	public void testRegisterDuringLookups() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<?>> lookups = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				lookups.add(executor.submit(() -> {
+					for (int j = 0; j < 10000; j++) {
+						assertSame(QAuthor.author, persistenceRegistry.getEntityPath(Author.class));
+						assertSame(bookRepository, persistenceRegistry.getRepository(Book.class));
+					}
+				}));
+			}
+			((DefaultPersistenceRegistry) persistenceRegistry).register();
+			((DefaultPersistenceRegistry) persistenceRegistry).register();
+			for (final Future<?> lookup : lookups) {
+				lookup.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertSame(QBook.book, persistenceRegistry.getEntityPath(Book.class));
+	}
+
+	@Test
+	public void testEntityPathClassName() {
+		final DefaultPersistenceRegistry defaultPersistenceRegistry = new DefaultPersistenceRegistry(
+				Author.class.getPackage().getName());
+		assertEquals(QAuthor.class.getName(), defaultPersistenceRegistry.getEntityPathClassName(Author.class));
+		assertEquals(Note.class.getPackage().getName() + ".QNoteSettings_UserType",
+				defaultPersistenceRegistry.getEntityPathClassName(NoteSettings.UserType.class));
+	}
+
+	@Test
+	public void testRefreshOfChildContext() {
+		final Object snapshot = ReflectionTestUtils.getField(persistenceRegistry, "snapshot");
+		// Child contexts publish their refresh event to their parent too
+		try (GenericApplicationContext childContext = new GenericApplicationContext(applicationContext)) {
+			childContext.refresh();
+		}
+		assertSame(snapshot, ReflectionTestUtils.getField(persistenceRegistry, "snapshot"));
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.RecordingStatementInspector;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.data.ListLoadResult;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.daikit.graphql.spring.jpa.model.Book;
+
+/**
+ * Tests of list loads of selected scalar fields
+ * ({@link ListLoadOptions#setSelectedFields(java.util.Collection)})
+ *
+ * @author Thibaut Caselli
+ */
+public class ProjectionTest extends AbstractEntityServiceTest {
+
+	@Test
+	public void testSelectedColumns() {
+		final GQLListLoadConfig listLoadConfig = listLoadConfig(null, 10,
+				Arrays.asList(orderBy("age", GQLOrderByDirectionEnum.ASC), orderBy("id", GQLOrderByDirectionEnum.ASC)));
+		final List<?> entities = entityService.findAll(Author.class, listLoadConfig).getData();
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setSelectedFields(Arrays.asList("id", "name"));
+		RecordingStatementInspector.clear();
+		final List<?> projected = entityService.findAll(Author.class, listLoadConfig, options).getData();
+		assertFalse(RecordingStatementInspector.getStatements().get(0).contains("country_id"));
+		assertEquals(10, projected.size());
+		for (int i = 0; i < projected.size(); i++) {
+			final Author author = (Author) projected.get(i);
+			assertEquals(((Author) entities.get(i)).getId(), author.getId());
+			assertEquals(((Author) entities.get(i)).getName(), author.getName());
+			assertNull(author.getCountry());
+		}
+	}
+
+	@Test
+	public void testSelectedAssociation() {
+		// Entities are loaded when an association is selected
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setSelectedFields(Arrays.asList("name", "country"));
+		final GQLListLoadConfig listLoadConfig = listLoadConfig(null, 1,
+				Arrays.asList(orderBy("id", GQLOrderByDirectionEnum.ASC)));
+		final Author author = (Author) entityService.findAll(Author.class, listLoadConfig, options).getData().get(0);
+		assertNotNull(author.getCountry());
+	}
+
+	@Test
+	public void testSelectedColumnsWithKeyset() {
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setSelectedFields(Arrays.asList("title"));
+		options.setKeyset(true);
+		final GQLListLoadConfig listLoadConfig = listLoadConfig(null, 30, new ArrayList<>());
+		final List<Object> books = new ArrayList<>();
+		ListLoadResult result;
+		do {
+			result = entityService.findAll(Book.class, listLoadConfig, options);
+			books.addAll(result.getData());
+			options.setCursor(result.getNextCursor());
+		} while (result.isHasNext());
+		assertEquals(2 * AUTHOR_COUNT, books.size());
+		for (final Object book : books) {
+			assertNotNull(((Book) book).getTitle());
+			assertTrue(((Book) book).getTags().isEmpty());
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties;
+import com.daikit.graphql.spring.jpa.model.Author;
+
+/**
+ * Tests of entities loaded read only by query methods
+ *
+ * @author Thibaut Caselli
+ */
+public class ReadOnlyTest extends AbstractEntityServiceTest {
+
+	@Autowired
+	private SpringDataGraphqlJpaProperties properties;
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	public void testReadOnlyInReadOnlyTransaction() {
+		final Long id = authorRepository.findAll().get(0).getId();
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		transactionTemplate.execute(status -> {
+			final Author author = entityService.findById(Author.class, id).get();
+			assertTrue(entityManager.unwrap(Session.class).isReadOnly(author));
+			return null;
+		});
+	}
+
+	@Test
+	public void testQueryMethodsReadOnlyInReadOnlyTransaction() {
+		final Long id = authorRepository.findAll().get(0).getId();
+		readOnly(() -> {
+			final Session session = entityManager.unwrap(Session.class);
+			assertTrue(session.isReadOnly(entityService
+					.findAll(Author.class, listLoadConfig(filter("id", GQLFilterOperatorEnum.EQUAL, id))).getData()
+					.get(0)));
+			entityManager.clear();
+			final Author author = entityService.findByIds(Author.class, Collections.singletonList(id)).get(id);
+			assertTrue(session.isReadOnly(author));
+			// Read only entities are not dirty checked
+			author.setName("renamed");
+			session.flush();
+			return null;
+		});
+		assertNotEquals("renamed", authorRepository.findById(id).get().getName());
+	}
+
+	@Test
+	public void testWritableQueryEntities() {
+		final Long id = authorRepository.findAll().get(0).getId();
+		properties.getWritableQueryEntities().add(Author.class.getName());
+		try {
+			readOnly(() -> {
+				assertFalse(entityManager.unwrap(Session.class)
+						.isReadOnly(entityService.findById(Author.class, id).get()));
+				return null;
+			});
+		} finally {
+			properties.getWritableQueryEntities().remove(Author.class.getName());
+		}
+		properties.setReadOnlyQueries(false);
+		try {
+			readOnly(() -> {
+				assertFalse(entityManager.unwrap(Session.class)
+						.isReadOnly(entityService.findById(Author.class, id).get()));
+				return null;
+			});
+		} finally {
+			properties.setReadOnlyQueries(true);
+		}
+	}
+
+	@Test
+	public void testFindByIdChangesFlushedInWritableTransaction() {
+		final Author author = authorRepository.findAll().get(1);
+		try {
+			new TransactionTemplate(transactionManager).execute(status -> {
+				final Author found = entityService.findById(Author.class, author.getId()).get();
+				assertFalse(entityManager.unwrap(Session.class).isReadOnly(found));
+				found.setName("renamed");
+				return null;
+			});
+			assertEquals("renamed", authorRepository.findById(author.getId()).get().getName());
+		} finally {
+			rename(author.getId(), author.getName());
+		}
+	}
+
+	@Test
+	public void testFindAllChangesFlushedInWritableTransaction() {
+		final Author author = authorRepository.findAll().get(2);
+		try {
+			new TransactionTemplate(transactionManager).execute(status -> {
+				final Author found = (Author) entityService.findAll(Author.class,
+						listLoadConfig(filter("id", GQLFilterOperatorEnum.EQUAL, author.getId()))).getData().get(0);
+				found.setName("renamed");
+				return null;
+			});
+			assertEquals("renamed", authorRepository.findById(author.getId()).get().getName());
+		} finally {
+			rename(author.getId(), author.getName());
+		}
+	}
+
+	private <T> T readOnly(final Supplier<T> action) {
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		return transactionTemplate.execute(status -> action.get());
+	}
+
+	private void rename(final Long id, final String name) {
+		new TransactionTemplate(transactionManager).execute(status -> {
+			authorRepository.findById(id).get().setName(name);
+			return null;
+		});
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.RecordingStatementInspector;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.daikit.graphql.spring.jpa.model.Country;
+
+/**
+ * Tests of {@link IEntityService#saveAll(java.util.Collection)} and
+ * {@link IEntityService#deleteAll(Class, java.util.Collection)}
+ *
+ * @author Thibaut Caselli
+ */
+public class SaveDeleteTest extends AbstractEntityServiceTest {
+
+	@Autowired
+	private SpringDataGraphqlJpaProperties properties;
+
+	private final int inClauseChunkSize = new SpringDataGraphqlJpaProperties().getInClauseChunkSize();
+
+	@After
+	public void resetInClauseChunkSize() {
+		properties.setInClauseChunkSize(inClauseChunkSize);
+	}
+
+	@Test
+	public void testSaveAllAndDeleteAll() {
+		final List<Object> entities = new ArrayList<>();
+		final List<Country> countries = new ArrayList<>();
+		final List<Author> authors = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			final Country country = new Country("Z" + i);
+			countries.add(country);
+			entities.add(country);
+			final Author author = new Author("saved", Integer.valueOf(i), null);
+			authors.add(author);
+			entities.add(author);
+		}
+		final long countryCount = countryRepository.count();
+		final long authorCount = authorRepository.count();
+
+		// Entities of different types are saved together
+		entityService.saveAll(entities);
+		assertEquals(countryCount + 25, countryRepository.count());
+		assertEquals(authorCount + 25, authorRepository.count());
+
+		// Countries are deleted in bulk, by IN chunks, authors (having a
+		// collection) one by one
+		properties.setInClauseChunkSize(10);
+		RecordingStatementInspector.clear();
+		entityService.deleteAll(Country.class,
+				countries.stream().map(Country::getId).collect(Collectors.toList()));
+		assertEquals(3, countDeletes());
+		assertEquals(countryCount, countryRepository.count());
+		RecordingStatementInspector.clear();
+		entityService.deleteAll(Author.class, getAuthorIds(authors));
+		assertEquals(25, countDeletes());
+		assertEquals(authorCount, authorRepository.count());
+	}
+
+	private static long countDeletes() {
+		return RecordingStatementInspector.getStatements().stream().filter(sql -> sql.startsWith("delete")).count();
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.spring.jpa.EntityServiceTestConfiguration;
+import com.daikit.graphql.spring.jpa.RecordingStatementInspector;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaAutoconfiguration;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaAutoconfiguration.LocalCacheConfiguration;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties;
+import com.daikit.graphql.spring.jpa.model.Author;
+import com.daikit.graphql.spring.jpa.model.AuthorRepository;
+import com.daikit.graphql.spring.jpa.model.Country;
+import com.daikit.graphql.spring.jpa.model.CountryRepository;
+import com.daikit.graphql.spring.jpa.model.Note;
+import com.daikit.graphql.spring.jpa.model.NoteRepository;
+import com.daikit.graphql.spring.jpa.model.NoteSettings;
+import com.daikit.graphql.spring.jpa.usertype.LazyJsonValue;
+
+/**
+ * Tests of the second level and query caching of
+ * {@link SpringDataGraphqlJpaProperties#getCachedEntities()}, configured by
+ * {@link SpringDataGraphqlJpaAutoconfiguration} with a local cache
+ *
+ * @author Thibaut Caselli
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = SecondLevelCacheTest.CacheTestConfiguration.class)
+public class SecondLevelCacheTest {
+
+	@Autowired
+	private IEntityService entityService;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private CountryRepository countryRepository;
+	@Autowired
+	private AuthorRepository authorRepository;
+	@Autowired
+	private NoteRepository noteRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Before
+	public void evictCache() {
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	public void testFindById() {
+		final Long id = new TransactionTemplate(transactionManager)
+				.execute(status -> countryRepository.save(new Country("FR")).getId());
+		// Saved entities are cached too
+		entityManagerFactory.getCache().evictAll();
+		RecordingStatementInspector.clear();
+		assertEquals("FR", entityService.findById(Country.class, id).get().getCode());
+		assertEquals(1, RecordingStatementInspector.getStatements().size());
+		RecordingStatementInspector.clear();
+		assertEquals("FR", entityService.findById(Country.class, id).get().getCode());
+		final Map<Long, Country> countries = entityService.findByIds(Country.class, Collections.singletonList(id));
+		assertEquals("FR", countries.get(id).getCode());
+		assertEquals(0, RecordingStatementInspector.getStatements().size());
+
+		// Entities not listed are not cached
+		final Long authorId = new TransactionTemplate(transactionManager)
+				.execute(status -> authorRepository.save(new Author("author", null, null)).getId());
+		RecordingStatementInspector.clear();
+		entityService.findById(Author.class, authorId);
+		entityService.findById(Author.class, authorId);
+		assertEquals(2, RecordingStatementInspector.getStatements().size());
+	}
+
+	@Test
+	public void testQueryCache() {
+		final int count = entityService.findAll(Country.class, new GQLListLoadConfig()).getData().size();
+		RecordingStatementInspector.clear();
+		assertEquals(count, entityService.findAll(Country.class, new GQLListLoadConfig()).getData().size());
+		assertEquals(0, RecordingStatementInspector.getStatements().size());
+		// Saving an entity invalidates cached queries
+		new TransactionTemplate(transactionManager).execute(status -> countryRepository.save(new Country("US")));
+		assertEquals(count + 1, entityService.findAll(Country.class, new GQLListLoadConfig()).getData().size());
+	}
+
+	@Test
+	public void testJsonUserTypes() {
+		final Long id = new TransactionTemplate(transactionManager).execute(status -> {
+			final Note note = new Note();
+			final NoteSettings settings = new NoteSettings();
+			settings.setColor("red");
+			note.setSettings(LazyJsonValue.of(settings));
+			note.getSmileTags().add("a");
+			note.getCborTags().add("b");
+			return noteRepository.save(note).getId();
+		});
+		entityService.findById(Note.class, id);
+		RecordingStatementInspector.clear();
+		final Note note = entityService.findById(Note.class, id).get();
+		assertTrue(RecordingStatementInspector.getStatements().isEmpty());
+		assertEquals("red", note.getSettings().get().getColor());
+		assertEquals(Arrays.asList("a"), note.getSmileTags());
+		assertEquals(Arrays.asList("b"), note.getCborTags());
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*
+
+	/**
+	 * Test configuration caching {@link Country} and {@link Note} entities,
+	 * Hibernate properties being customized like by the auto configuration
+	 */
+	@Configuration
+	public static class CacheTestConfiguration extends EntityServiceTestConfiguration {
+
+		@Override
+		@Bean
+		public SpringDataGraphqlJpaProperties properties() {
+			final SpringDataGraphqlJpaProperties properties = new SpringDataGraphqlJpaProperties();
+			properties.setCachedEntities(new HashSet<>(Arrays.asList(Country.class.getName(), Note.class.getName())));
+			return properties;
+		}
+
+		@Override
+		@Bean
+		public LocalContainerEntityManagerFactoryBean entityManagerFactory(final DataSource dataSource) {
+			final LocalContainerEntityManagerFactoryBean entityManagerFactory = super.entityManagerFactory(
+					dataSource);
+			final SpringDataGraphqlJpaAutoconfiguration configuration = new SpringDataGraphqlJpaAutoconfiguration();
+			ReflectionTestUtils.setField(configuration, "properties", properties());
+			final LocalCacheConfiguration localCacheConfiguration = new LocalCacheConfiguration();
+			ReflectionTestUtils.setField(localCacheConfiguration, "properties", properties());
+			for (final HibernatePropertiesCustomizer customizer : Arrays.asList(
+					configuration.createSecondLevelCacheHibernatePropertiesCustomizer(),
+					localCacheConfiguration.createLocalCacheHibernatePropertiesCustomizer())) {
+				customizer.customize(entityManagerFactory.getJpaPropertyMap());
+			}
+			return entityManagerFactory;
+		}
+
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.daikit.graphql.spring.jpa.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.data.input.GQLListLoadConfig;
+import com.daikit.graphql.enums.GQLFilterOperatorEnum;
+import com.daikit.graphql.enums.GQLOrderByDirectionEnum;
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.SpringDataGraphqlJpaProperties;
+import com.daikit.graphql.spring.jpa.data.ListLoadOptions;
+import com.daikit.graphql.spring.jpa.model.Author;
+
+/**
+ * Tests of
+ * {@link IEntityService#stream(Class, GQLListLoadConfig, ListLoadOptions, java.util.function.Consumer)}
+ *
+ * @author Thibaut Caselli
+ */
+public class StreamTest extends AbstractEntityServiceTest {
+
+	@Autowired
+	private SpringDataGraphqlJpaProperties properties;
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final int streamClearInterval = new SpringDataGraphqlJpaProperties().getStreamClearInterval();
+
+	@After
+	public void resetStreamClearInterval() {
+		properties.setStreamClearInterval(streamClearInterval);
+	}
+
+	@Test
+	public void testStreamMatchesFindAll() {
+		final GQLListLoadConfig listLoadConfig = listLoadConfig(null, null,
+				Arrays.asList(orderBy("name", GQLOrderByDirectionEnum.ASC), orderBy("id", GQLOrderByDirectionEnum.ASC)),
+				filter("age", GQLFilterOperatorEnum.NOT_NULL, null));
+		final List<Long> ids = new ArrayList<>();
+		final long count = entityService.stream(Author.class, listLoadConfig, new ListLoadOptions(),
+				author -> ids.add(((Author) author).getId()));
+		assertEquals(40, count);
+		assertEquals(getAuthorIds(entityService.findAll(Author.class, listLoadConfig).getData()), ids);
+
+		// Selected fields are streamed too
+		final ListLoadOptions options = new ListLoadOptions();
+		options.setSelectedFields(Arrays.asList("name", "country.code"));
+		final List<String> codes = new ArrayList<>();
+		entityService.stream(Author.class, listLoadConfig, options,
+				author -> codes.add(((Author) author).getCountry().getCode()));
+		assertEquals(40, codes.size());
+		assertNotNull(codes.get(0));
+	}
+
+	@Test
+	public void testCallerPersistenceContextKept() {
+		// The stream session is cleared several times
+		properties.setStreamClearInterval(7);
+		new TransactionTemplate(transactionManager).execute(status -> {
+			final Author author = authorRepository.findAll().get(3);
+			final String name = author.getName();
+			author.setName("renamed");
+			final List<String> names = new ArrayList<>();
+			final long count = entityService.stream(Author.class,
+					listLoadConfig(null, null, Arrays.asList(orderBy("id", GQLOrderByDirectionEnum.ASC))),
+					new ListLoadOptions(), streamed -> names.add(((Author) streamed).getName()));
+			assertEquals(AUTHOR_COUNT, count);
+			// Pending changes are flushed before streaming
+			assertTrue(names.contains("renamed"));
+			assertTrue(entityManager.contains(author));
+			author.setName(name);
+			return null;
+		});
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.model.Note;
+
+/**
+ * Tests of JSON user types stored in binary formats (see
+ * {@link JsonStorageFormatEnum})
+ *
+ * @author Thibaut Caselli
+ */
+public class BinaryJsonTest extends AbstractEntityServiceTest {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	public void testBinaryFormats() {
+		final Long id = new TransactionTemplate(transactionManager).execute(status -> {
+			final Note note = new Note();
+			note.getSmileTags().add("a");
+			note.getCborTags().add("b");
+			entityManager.persist(note);
+			return note.getId();
+		});
+		new TransactionTemplate(transactionManager).execute(status -> {
+			// Values are stored with their format header
+			final Object[] columns = (Object[]) entityManager
+					.createNativeQuery("select smileTags, cborTags from Note where id = ?").setParameter(1, id)
+					.getSingleResult();
+			assertEquals(':', toBytes(columns[0])[0]);
+			assertEquals((byte) 0xD9, toBytes(columns[1])[0]);
+			final Note note = entityManager.find(Note.class, id);
+			assertEquals(Arrays.asList("a"), note.getSmileTags());
+			assertEquals(Arrays.asList("b"), note.getCborTags());
+			assertFalse(entityManager.unwrap(Session.class).isDirty());
+			note.getSmileTags().add("c");
+			return null;
+		});
+		new TransactionTemplate(transactionManager).execute(status -> {
+			assertEquals(Arrays.asList("a", "c"), entityManager.find(Note.class, id).getSmileTags());
+			return null;
+		});
+	}
+
+	@Test
+	public void testJsonTextInBinaryColumn() {
+		final Long id = new TransactionTemplate(transactionManager).execute(status -> {
+			final Note note = new Note();
+			entityManager.persist(note);
+			entityManager.flush();
+			// JSON text stored before switching the column to a binary format
+			entityManager.createNativeQuery("update Note set smileTags = ?, cborTags = ? where id = ?")
+					.setParameter(1, "[\"old\"]".getBytes(StandardCharsets.UTF_8))
+					.setParameter(2, "[\"older\"]".getBytes(StandardCharsets.UTF_8)).setParameter(3, note.getId())
+					.executeUpdate();
+			return note.getId();
+		});
+		new TransactionTemplate(transactionManager).execute(status -> {
+			final Note note = entityManager.find(Note.class, id);
+			assertEquals(Arrays.asList("old"), note.getSmileTags());
+			assertEquals(Arrays.asList("older"), note.getCborTags());
+			return null;
+		});
+	}
+
+	private static byte[] toBytes(final Object columnValue) {
+		try {
+			return columnValue instanceof Blob
+					? ((Blob) columnValue).getBytes(1, (int) ((Blob) columnValue).length())
+					: (byte[]) columnValue;
+		} catch (final SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.daikit.graphql.spring.jpa.EntityServiceTestConfiguration;
+import com.daikit.graphql.spring.jpa.RecordingStatementInspector;
+import com.daikit.graphql.spring.jpa.model.Archive;
+import com.daikit.graphql.spring.jpa.utils.JsonUtils;
+
+/**
+ * Benchmark of loading and flushing unmodified entities with large JSON
+ * columns ({@value #ROW_COUNT} rows of given number of elements, in a text or
+ * a streamed column). <code>loadAndFlush</code> measures a whole unit of work,
+ * <code>snapshot</code> the loaded state kept for one value (see
+ * {@link JsonSnapshot}) and <code>deepCopy</code> the serialization round
+ * trip that was done for each loaded value before snapshots. Allocations are
+ * reported by the <code>gc</code> profiler (see the <code>benchmark</code>
+ * maven profile).
+ *
+ * @author Thibaut Caselli
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonFlushBenchmark {
+
+	private static final int ROW_COUNT = 10;
+
+	@Param({"1000", "10000"})
+	private int elementCount;
+	@Param({"false", "true"})
+	private boolean streaming;
+
+	private AnnotationConfigApplicationContext context;
+	private EntityManagerFactory entityManagerFactory;
+	private StringListUserType userType;
+	private List<String> value;
+
+	@Setup
+	public void setup() {
+		context = new AnnotationConfigApplicationContext(EntityServiceTestConfiguration.class);
+		entityManagerFactory = context.getBean(EntityManagerFactory.class);
+		userType = new StringListUserType();
+		final Properties parameters = new Properties();
+		parameters.setProperty(JsonStorageFormatEnum.STREAMING_PARAMETER_NAME, String.valueOf(streaming));
+		userType.setParameterValues(parameters);
+		value = new ArrayList<>();
+		for (int i = 0; i < elementCount; i++) {
+			value.add("element " + i + " of a large JSON document column");
+		}
+		inTransaction(entityManager -> {
+			for (int i = 0; i < ROW_COUNT; i++) {
+				final Archive archive = new Archive();
+				if (streaming) {
+					archive.setStreamedLines(new ArrayList<>(value));
+				} else {
+					archive.setLines(new ArrayList<>(value));
+				}
+				entityManager.persist(archive);
+			}
+			return null;
+		});
+		// Unmodified entities must not be updated
+		RecordingStatementInspector.clear();
+		loadAndFlush();
+		if (RecordingStatementInspector.getStatements().stream().anyMatch(sql -> sql.startsWith("update"))) {
+			throw new IllegalStateException("Unmodified JSON columns are updated at flush");
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int loadAndFlush() {
+		return inTransaction(entityManager -> {
+			final List<Archive> archives = entityManager.createQuery("from Archive", Archive.class).getResultList();
+			entityManager.flush();
+			return archives.size();
+		});
+	}
+
+	@Benchmark
+	public Object snapshot() {
+		return userType.deepCopy(value);
+	}
+
+	@Benchmark
+	public Object deepCopy() {
+		return JsonUtils.copy(value);
+	}
+
+	private <T> T inTransaction(final Function<EntityManager, T> work) {
+		final EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			entityManager.getTransaction().begin();
+			final T result = work.apply(entityManager);
+			entityManager.getTransaction().commit();
+			return result;
+		} finally {
+			entityManager.close();
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.model.Note;
+import com.daikit.graphql.spring.jpa.model.NoteSettings;
+
+/**
+ * Tests of lazily parsed JSON values ({@link LazyJsonValue})
+ *
+ * @author Thibaut Caselli
+ */
+public class LazyJsonTest extends AbstractEntityServiceTest {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	public void testLazyParsing() {
+		final Long id = new TransactionTemplate(transactionManager).execute(status -> {
+			final NoteSettings settings = new NoteSettings();
+			settings.setColor("red");
+			final Note note = new Note();
+			note.setSettings(LazyJsonValue.of(settings));
+			entityManager.persist(note);
+			return note.getId();
+		});
+		new TransactionTemplate(transactionManager).execute(status -> {
+			final Session session = entityManager.unwrap(Session.class);
+			final Note note = entityManager.find(Note.class, id);
+			// Loaded values are not parsed, nor dirty once parsed
+			assertFalse(note.getSettings().isAccessed());
+			assertFalse(session.isDirty());
+			assertEquals("red", note.getSettings().get().getColor());
+			assertTrue(note.getSettings().isAccessed());
+			assertFalse(session.isDirty());
+			// Parsed values are dirty checked
+			note.getSettings().get().setSize(3);
+			assertTrue(session.isDirty());
+			return null;
+		});
+		new TransactionTemplate(transactionManager).execute(status -> {
+			final NoteSettings settings = entityManager.find(Note.class, id).getSettings().get();
+			assertEquals("red", settings.getColor());
+			assertEquals(3, settings.getSize());
+			return null;
+		});
+	}
+
+}
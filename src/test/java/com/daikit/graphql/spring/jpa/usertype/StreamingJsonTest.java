@@ -0,0 +1,97 @@
+package com.daikit.graphql.spring.jpa.usertype;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.daikit.graphql.spring.jpa.AbstractEntityServiceTest;
+import com.daikit.graphql.spring.jpa.model.Archive;
+
+/**
+ * Tests of JSON user types in streaming mode (see
+ * {@link JsonStorageFormatEnum#STREAMING_PARAMETER_NAME})
+ *
+ * @author Thibaut Caselli
+ */
+public class StreamingJsonTest extends AbstractEntityServiceTest {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Test
+	public void testStreamedColumn() {
+		final StringBuilder large = new StringBuilder();
+		for (int i = 0; i < 200000; i++) {
+			large.append('x');
+		}
+		final Long id = new TransactionTemplate(transactionManager).execute(status -> {
+			final Archive archive = new Archive();
+			archive.getLines().add("line");
+			archive.getStreamedLines().add(large.toString());
+			entityManager.persist(archive);
+			return archive.getId();
+		});
+		new TransactionTemplate(transactionManager).execute(status -> {
+			final Archive archive = entityManager.find(Archive.class, id);
+			assertEquals(Arrays.asList(large.toString()), archive.getStreamedLines());
+			// Loaded state of streamed values is only a digest
+			final EntityEntry entry = ((SessionImplementor) entityManager.unwrap(Session.class))
+					.getPersistenceContext().getEntry(archive);
+			assertFalse(isJsonKept(getLoadedState(entry, "streamedLines")));
+			assertTrue(isJsonKept(getLoadedState(entry, "lines")));
+			assertFalse(entityManager.unwrap(Session.class).isDirty());
+			archive.getStreamedLines().add("added");
+			assertTrue(entityManager.unwrap(Session.class).isDirty());
+			return null;
+		});
+		new TransactionTemplate(transactionManager).execute(status -> {
+			assertEquals(Arrays.asList(large.toString(), "added"),
+					entityManager.find(Archive.class, id).getStreamedLines());
+			return null;
+		});
+	}
+
+	@Test
+	public void testBlankStreamedColumn() {
+		final Long id = new TransactionTemplate(transactionManager).execute(status -> {
+			final Archive archive = new Archive();
+			archive.getStreamedLines().add("line");
+			entityManager.persist(archive);
+			entityManager.flush();
+			entityManager.createNativeQuery("update Archive set streamedLines = '' where id = ?")
+					.setParameter(1, archive.getId()).executeUpdate();
+			return archive.getId();
+		});
+		new TransactionTemplate(transactionManager).execute(status -> {
+			assertTrue(entityManager.find(Archive.class, id).getStreamedLines().isEmpty());
+			assertFalse(entityManager.unwrap(Session.class).isDirty());
+			return null;
+		});
+	}
+
+	private static JsonSnapshot getLoadedState(final EntityEntry entry, final String propertyName) {
+		return (JsonSnapshot) entry.getLoadedState()[entry.getPersister().getEntityMetamodel()
+				.getPropertyIndex(propertyName)];
+	}
+
+	private static boolean isJsonKept(final JsonSnapshot snapshot) {
+		try {
+			snapshot.getJson();
+			return true;
+		} catch (final IllegalStateException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.daikit.graphql.spring.jpa.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * Tests of the readers and writers bound to a type built by {@link JsonUtils}
+ *
+ * @author Thibaut Caselli
+ */
+public class JsonUtilsTest {
+
+	@Test
+	public void testReaderBoundToGenericType() throws IOException {
+		final List<Long> values = JsonUtils.getReader(new TypeReference<List<Long>>() {
+			// Nothing more
+		}.getType()).readValue("[1, 2]");
+		assertEquals(Arrays.asList(Long.valueOf(1), Long.valueOf(2)), values);
+		final Map<String, List<Long>> map = JsonUtils.getReader(new TypeReference<Map<String, List<Long>>>() {
+			// Nothing more
+		}.getType()).readValue("{\"a\": [3]}");
+		assertEquals(Long.valueOf(3), map.get("a").get(0));
+	}
+
+	@Test
+	public void testWriterKeepsSubTypeProperties() throws IOException {
+		final SubValue value = new SubValue();
+		value.name = "name";
+		value.detail = "detail";
+		// Writers of non final types are not bound to them
+		assertTrue(JsonUtils.getWriter(Value.class).writeValueAsString(value).contains("\"detail\""));
+		assertEquals("[\"a\"]", JsonUtils.getWriter(new TypeReference<List<String>>() {
+			// Nothing more
+		}.getType()).writeValueAsString(Arrays.asList("a")));
+	}
+
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+	// INNER CLASSES
+	// *-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-*-
+
+	public static class Value {
+		public String name;
+	}
+
+	public static class SubValue extends Value {
+		public String detail;
+	}
+
+}